@@ -26,4 +26,7 @@ interface AccessTokenSupplier {
    * @throws IOException when an error occurs attempting to refresh the token.
    */
   String getTokenValue() throws IOException;
+
+  /** Releases any resources used to keep the access token current. */
+  default void close() {}
 }
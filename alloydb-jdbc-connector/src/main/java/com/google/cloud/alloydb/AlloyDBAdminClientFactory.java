@@ -36,10 +36,7 @@ class AlloyDBAdminClientFactory {
       throws IOException {
     AlloyDBAdminSettings.Builder settingsBuilder = AlloyDBAdminSettings.newBuilder();
 
-    String endpoint = config.getAdminServiceEndpoint();
-    if (endpoint == null || endpoint.isEmpty()) {
-      endpoint = DEFAULT_ENDPOINT;
-    }
+    String endpoint = getEndpoint(config);
 
     Map<String, String> headers =
         ImmutableMap.<String, String>builder().put("user-agent", userAgents).build();
@@ -54,4 +51,13 @@ class AlloyDBAdminClientFactory {
     }
     return AlloyDBAdminClient.create(settingsBuilder.build());
   }
+
+  /** Returns the Admin API endpoint of the config, or the default endpoint if it has none. */
+  static String getEndpoint(ConnectorConfig config) {
+    String endpoint = config.getAdminServiceEndpoint();
+    if (endpoint == null || endpoint.isEmpty()) {
+      return DEFAULT_ENDPOINT;
+    }
+    return endpoint;
+  }
 }
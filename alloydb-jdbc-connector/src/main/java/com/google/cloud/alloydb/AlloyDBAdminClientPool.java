@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.Credentials;
+import com.google.cloud.alloydb.v1alpha.AlloyDBAdminClient;
+import com.google.common.base.Objects;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AlloyDBAdminClientPool shares AlloyDB Admin API clients, and so their gRPC channels, between
+ * connectors. Connectors with the same Admin API endpoint, quota project, user agent and
+ * credentials get the same client. Clients are reference counted, and are closed when the last
+ * connector using them releases them.
+ */
+class AlloyDBAdminClientPool {
+
+  private static final Logger logger = LoggerFactory.getLogger(AlloyDBAdminClientPool.class);
+
+  // Creating a client may block, so connectors wait for each other on a lock rather than a monitor,
+  // which would pin the carrier of a virtual thread.
+  private final ReentrantLock clientsLock = new ReentrantLock();
+
+  @GuardedBy("clientsLock")
+  private final Map<Key, Entry> clients = new HashMap<>();
+
+  /**
+   * Returns a client for the config and credentials, creating one if no connector uses a matching
+   * client. Callers must release the client with {@link #release(AlloyDBAdminClient)} instead of
+   * closing it.
+   */
+  AlloyDBAdminClient acquire(
+      FixedCredentialsProvider credentialsProvider, ConnectorConfig config, String userAgents)
+      throws IOException {
+    Key key =
+        new Key(
+            AlloyDBAdminClientFactory.getEndpoint(config),
+            config.getQuotaProject(),
+            userAgents,
+            credentialsProvider.getCredentials());
+    clientsLock.lock();
+    try {
+      Entry entry = clients.get(key);
+      if (entry == null) {
+        entry =
+            new Entry(
+                key, AlloyDBAdminClientFactory.create(credentialsProvider, config, userAgents));
+        clients.put(key, entry);
+        logger.debug(String.format("Created AlloyDB Admin API client for %s.", key.endpoint));
+      }
+      entry.references++;
+      return entry.client;
+    } finally {
+      clientsLock.unlock();
+    }
+  }
+
+  /** Releases a client returned by acquire(), closing it when no connector uses it anymore. */
+  void release(AlloyDBAdminClient client) {
+    AlloyDBAdminClient toClose = null;
+    clientsLock.lock();
+    try {
+      for (Entry entry : clients.values()) {
+        if (entry.client == client) {
+          entry.references--;
+          if (entry.references == 0) {
+            clients.remove(entry.key);
+            toClose = client;
+          }
+          break;
+        }
+      }
+    } finally {
+      clientsLock.unlock();
+    }
+    if (toClose != null) {
+      logger.debug("Closing AlloyDB Admin API client, it is no longer used.");
+      toClose.close();
+    }
+  }
+
+  /** Returns the number of open clients. */
+  int size() {
+    clientsLock.lock();
+    try {
+      return clients.size();
+    } finally {
+      clientsLock.unlock();
+    }
+  }
+
+  private static class Entry {
+    private final Key key;
+    private final AlloyDBAdminClient client;
+    private int references;
+
+    Entry(Key key, AlloyDBAdminClient client) {
+      this.key = key;
+      this.client = client;
+    }
+  }
+
+  private static class Key {
+    private final String endpoint;
+    private final String quotaProject;
+    private final String userAgents;
+    private final Credentials credentials;
+
+    Key(String endpoint, String quotaProject, String userAgents, Credentials credentials) {
+      this.endpoint = endpoint;
+      this.quotaProject = quotaProject;
+      this.userAgents = userAgents;
+      this.credentials = credentials;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return Objects.equal(endpoint, that.endpoint)
+          && Objects.equal(quotaProject, that.quotaProject)
+          && Objects.equal(userAgents, that.userAgents)
+          && Objects.equal(credentials, that.credentials);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(endpoint, quotaProject, userAgents, credentials);
+    }
+  }
+}
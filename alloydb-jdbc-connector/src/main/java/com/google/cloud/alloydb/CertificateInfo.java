@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.common.base.Objects;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.net.ssl.SSLContext;
+
+/**
+ * CertificateInfo holds the ephemeral client certificate generated for a cluster and its chain of
+ * trust. The AlloyDB Admin API signs client certificates for a cluster, so one CertificateInfo is
+ * shared by every instance of the cluster.
+ */
+class CertificateInfo {
+
+  private final X509Certificate clientCertificate;
+  private final List<X509Certificate> certificateChain;
+  private final X509Certificate caCertificate;
+  // The private key of the client certificate when it was issued for a fallback key pair instead of
+  // the connector's key pair, otherwise null.
+  private final PrivateKey privateKey;
+
+  // The SSLContext is derived from the certificates above, so it is built on first use and shared
+  // by every connection until a refresh replaces this CertificateInfo.
+  private volatile SSLContext sslContext;
+  // Building the SSLContext reads key stores. Waiting for it on a lock instead of a monitor does
+  // not pin the carrier of a virtual thread.
+  private final ReentrantLock sslContextLock = new ReentrantLock();
+
+  CertificateInfo(
+      X509Certificate clientCertificate,
+      List<X509Certificate> certificateChain,
+      X509Certificate caCertificate) {
+    this(clientCertificate, certificateChain, caCertificate, null);
+  }
+
+  CertificateInfo(
+      X509Certificate clientCertificate,
+      List<X509Certificate> certificateChain,
+      X509Certificate caCertificate,
+      PrivateKey privateKey) {
+    this.clientCertificate = clientCertificate;
+    this.certificateChain = certificateChain;
+    this.caCertificate = caCertificate;
+    this.privateKey = privateKey;
+  }
+
+  X509Certificate getClientCertificate() {
+    return clientCertificate;
+  }
+
+  Instant getExpiration() {
+    return clientCertificate.getNotAfter().toInstant();
+  }
+
+  List<X509Certificate> getCertificateChain() {
+    return certificateChain;
+  }
+
+  X509Certificate getCaCertificate() {
+    return caCertificate;
+  }
+
+  /**
+   * Returns the SSLContext for the client certificate. connectorPrivateKey is used unless the
+   * certificate was issued for a fallback key pair.
+   */
+  SSLContext getSslContext(PrivateKey connectorPrivateKey) {
+    SSLContext result = sslContext;
+    if (result == null) {
+      sslContextLock.lock();
+      try {
+        result = sslContext;
+        if (result == null) {
+          result =
+              SslContextFactory.create(
+                  caCertificate,
+                  certificateChain,
+                  privateKey != null ? privateKey : connectorPrivateKey);
+          sslContext = result;
+        }
+      } finally {
+        sslContextLock.unlock();
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CertificateInfo)) {
+      return false;
+    }
+
+    CertificateInfo that = (CertificateInfo) o;
+    return Objects.equal(clientCertificate, that.clientCertificate)
+        && Objects.equal(certificateChain, that.certificateChain)
+        && Objects.equal(caCertificate, that.caCertificate);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(clientCertificate, certificateChain, caCertificate);
+  }
+
+  @Override
+  public String toString() {
+    return "CertificateInfo{"
+        + "clientCertificate="
+        + clientCertificate
+        + ", certificateChain="
+        + certificateChain
+        + ", caCertificate="
+        + caCertificate
+        + '}';
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+/** The type of key pair the connector generates for its client certificates. */
+public enum ClientKeyType {
+  /** A 2048-bit RSA key pair. */
+  RSA_2048,
+  /** A 3072-bit RSA key pair. */
+  RSA_3072,
+  /**
+   * An elliptic curve key pair on the NIST P-256 curve. It is generated in well under a millisecond
+   * and signs TLS handshakes faster than RSA. If the AlloyDB Admin API rejects the key, the
+   * connector falls back to {@link #RSA_2048}.
+   */
+  EC_P256;
+
+  KeyPair generateKeyPair() {
+    switch (this) {
+      case RSA_3072:
+        return RsaKeyPairGenerator.generateKeyPair(3072);
+      case EC_P256:
+        try {
+          KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+          generator.initialize(new ECGenParameterSpec("secp256r1"));
+          return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+          throw new RuntimeException("Missing EC P-256 generator", e);
+        }
+      default:
+        return RsaKeyPairGenerator.generateKeyPair();
+    }
+  }
+}
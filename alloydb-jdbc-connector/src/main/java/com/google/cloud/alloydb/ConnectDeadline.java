@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.common.base.Throwables;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ConnectDeadline is the time budget of one connect, from the connection info lookup to the end of
+ * the metadata exchange. Each stage of the connect waits at most for the time that is left. When
+ * the time runs out, the SocketTimeoutException names the stage that was running, so that pools
+ * fail fast and can retry elsewhere.
+ */
+class ConnectDeadline {
+
+  /** The stages of a connect. */
+  enum Stage {
+    CONNECTION_INFO("connection info lookup"),
+    CONNECT_QUEUE("connect queue"),
+    DNS_LOOKUP("DNS lookup"),
+    TCP_CONNECT("TCP connect"),
+    TLS_HANDSHAKE("TLS handshake"),
+    METADATA_EXCHANGE("metadata exchange");
+
+    private final String description;
+
+    Stage(String description) {
+      this.description = description;
+    }
+
+    @Override
+    public String toString() {
+      return description;
+    }
+  }
+
+  private final String name;
+  private final long timeoutNanos;
+  private final long deadlineNanos;
+
+  ConnectDeadline(String name, Duration timeout) {
+    this(name, timeout.toNanos(), System.nanoTime());
+  }
+
+  ConnectDeadline(String name, long timeoutNanos, long startNanos) {
+    this.name = name;
+    this.timeoutNanos = timeoutNanos;
+    this.deadlineNanos = startNanos + timeoutNanos;
+  }
+
+  /** Starts the deadline of a connect, or returns null if the config has no connect timeout. */
+  static ConnectDeadline start(ConnectionConfig config) {
+    Duration timeout = config.getConnectTimeout();
+    if (timeout.isZero()) {
+      return null;
+    }
+    return new ConnectDeadline(config.getInstanceName().toString(), timeout);
+  }
+
+  boolean isExpired() {
+    return System.nanoTime() - deadlineNanos >= 0;
+  }
+
+  /**
+   * Returns the time left for the stage in nanoseconds.
+   *
+   * @throws SocketTimeoutException if no time is left.
+   */
+  long remainingNanos(Stage stage) throws SocketTimeoutException {
+    long remaining = deadlineNanos - System.nanoTime();
+    if (remaining <= 0) {
+      throw exceeded(stage, null);
+    }
+    return remaining;
+  }
+
+  /**
+   * Returns the time left for the stage in milliseconds, for socket timeouts. It is at least 1,
+   * since a socket timeout of 0 means no timeout.
+   *
+   * @throws SocketTimeoutException if no time is left.
+   */
+  int remainingMillis(Stage stage) throws SocketTimeoutException {
+    long millis = TimeUnit.NANOSECONDS.toMillis(remainingNanos(stage));
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, millis));
+  }
+
+  /**
+   * Waits for the result of the stage for at most the time left. Does not cancel the future when
+   * the time runs out, since it may be shared with other connects.
+   */
+  <T> T await(Future<T> future, Stage stage) throws IOException {
+    try {
+      return future.get(remainingNanos(stage), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      throw exceeded(stage, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(
+          String.format("[%s] Interrupted during the %s.", name, stage));
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.throwIfUnchecked(cause);
+      Throwables.throwIfInstanceOf(cause, IOException.class);
+      throw new RuntimeException(cause);
+    }
+  }
+
+  /**
+   * Returns e as a timeout of the stage if the deadline passed, which means the stage ran into the
+   * socket timeout the deadline set, and e otherwise.
+   */
+  SocketTimeoutException checkExpired(SocketTimeoutException e, Stage stage) {
+    return isExpired() ? exceeded(stage, e) : e;
+  }
+
+  /** Returns the exception for a connect that ran out of time during the stage. */
+  SocketTimeoutException exceeded(Stage stage, Throwable cause) {
+    SocketTimeoutException e =
+        new SocketTimeoutException(
+            String.format(
+                "[%s] Connect timed out after %d ms during the %s.",
+                name, TimeUnit.NANOSECONDS.toMillis(timeoutNanos), stage));
+    if (cause != null) {
+      e.initCause(cause);
+    }
+    return e;
+  }
+}
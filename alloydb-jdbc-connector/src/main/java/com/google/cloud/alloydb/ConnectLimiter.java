@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ConnectLimiter limits how many sockets to one instance are connecting at the same time, so that a
+ * burst of new connections, like after a failover, does not run all of its TLS handshakes at once.
+ * Connects over the limit wait in line, up to a timeout.
+ *
+ * <p>The limit adapts to the instance: it grows by about one for every limit connects that succeed,
+ * up to the configured maximum, and halves when a connect fails or takes more than twice the
+ * average connect time. Connects that started before the last decrease do not decrease it again.
+ */
+class ConnectLimiter {
+
+  private static final Logger logger = LoggerFactory.getLogger(ConnectLimiter.class);
+
+  // A connect that takes longer than this many times the average signals an overloaded instance.
+  private static final double LATENCY_TOLERANCE = 2.0;
+  // The weight of the latest connect time in the average.
+  private static final double LATENCY_SMOOTHING = 0.1;
+
+  private final String name;
+  private final int maxLimit;
+  private final ConnectorMetrics metrics;
+  // Connects wait on a lock rather than a monitor, so that they do not pin virtual threads.
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition available = lock.newCondition();
+
+  @GuardedBy("lock")
+  private double limit;
+
+  @GuardedBy("lock")
+  private int inFlight;
+
+  @GuardedBy("lock")
+  private double averageLatencyNanos;
+
+  // The System.nanoTime() of the last decrease, or null if the limit was not decreased yet.
+  @GuardedBy("lock")
+  private Long lastDecreaseNanos;
+
+  ConnectLimiter(String name, int maxLimit, ConnectorMetrics metrics) {
+    this.name = name;
+    this.maxLimit = maxLimit;
+    this.metrics = metrics;
+    this.limit = maxLimit;
+  }
+
+  /**
+   * Waits until the connect may start, for at most timeoutNanos. Returns the System.nanoTime() at
+   * which it started, which must be passed to {@link #release(long, boolean)} once the connect
+   * completes.
+   *
+   * @throws SocketTimeoutException if the connect waited longer than timeoutNanos.
+   * @throws InterruptedIOException if the thread was interrupted while waiting.
+   */
+  long acquire(long timeoutNanos) throws InterruptedIOException {
+    long queuedNanos = System.nanoTime();
+    boolean queued = false;
+    lock.lock();
+    try {
+      long remaining = timeoutNanos;
+      while (inFlight >= (int) limit) {
+        queued = true;
+        if (remaining <= 0) {
+          metrics.recordConnectQueued(System.nanoTime() - queuedNanos, true);
+          throw new SocketTimeoutException(
+              String.format(
+                  "[%s] Waited longer than %d ms to start connecting, %d connects are in progress.",
+                  name, TimeUnit.NANOSECONDS.toMillis(timeoutNanos), inFlight));
+        }
+        try {
+          remaining = available.awaitNanos(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException(
+              String.format("[%s] Interrupted while waiting to start connecting.", name));
+        }
+      }
+      inFlight++;
+      long startNanos = System.nanoTime();
+      if (queued) {
+        metrics.recordConnectQueued(startNanos - queuedNanos, false);
+      }
+      return startNanos;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Ends a connect started at startNanos, and adapts the limit to its outcome and connect time. */
+  void release(long startNanos, boolean succeeded) {
+    long now = System.nanoTime();
+    long latencyNanos = now - startNanos;
+    lock.lock();
+    try {
+      inFlight--;
+      boolean slow =
+          averageLatencyNanos > 0 && latencyNanos > LATENCY_TOLERANCE * averageLatencyNanos;
+      if (succeeded) {
+        averageLatencyNanos =
+            averageLatencyNanos == 0
+                ? latencyNanos
+                : averageLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+      }
+      if (!succeeded || slow) {
+        // All connects in progress during an overload see it. Only decrease once for them.
+        if (lastDecreaseNanos == null || startNanos - lastDecreaseNanos >= 0) {
+          limit = Math.max(1, limit / 2);
+          lastDecreaseNanos = now;
+          logger.debug(
+              String.format(
+                  "[%s] Connect %s, decreased the connect limit to %d.",
+                  name, succeeded ? "was slow" : "failed", (int) limit));
+        }
+      } else {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+      }
+      for (int i = inFlight; i < (int) limit; i++) {
+        available.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the current limit, for testing. */
+  int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
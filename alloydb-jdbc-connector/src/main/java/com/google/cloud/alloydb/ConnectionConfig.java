@@ -18,12 +18,15 @@ package com.google.cloud.alloydb;
 
 import com.google.cloud.alloydb.v1alpha.InstanceName;
 import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 class ConnectionConfig {
   public static final String ALLOYDB_INSTANCE_NAME = "alloydbInstanceName";
@@ -36,16 +39,90 @@ class ConnectionConfig {
   public static final String ENABLE_IAM_AUTH_PROPERTY = "alloydbEnableIAMAuth";
   public static final String ALLOYDB_IP_TYPE = "alloydbIpType";
   public static final String ALLOYDB_REFRESH_STRATEGY = "alloydbRefreshStrategy";
+  public static final String ALLOYDB_TLS_SESSION_RESUMPTION = "alloydbTlsSessionResumption";
+  public static final String ALLOYDB_CERTIFICATE_DURATION = "alloydbCertificateDuration";
+  public static final String ALLOYDB_ADAPTIVE_REFRESH_IDLE_TIMEOUT =
+      "alloydbAdaptiveRefreshIdleTimeout";
+  public static final String ALLOYDB_CONNECTION_INFO_CACHE_IDLE_TIMEOUT =
+      "alloydbConnectionInfoCacheIdleTimeout";
+  public static final String ALLOYDB_CONNECTION_INFO_CACHE_MAX_SIZE =
+      "alloydbConnectionInfoCacheMaxSize";
+  public static final String ALLOYDB_WARM_SOCKET_RESERVE_SIZE = "alloydbWarmSocketReserveSize";
+  public static final String ALLOYDB_WARM_SOCKET_MAX_IDLE_TIME = "alloydbWarmSocketMaxIdleTime";
+  public static final String ALLOYDB_MAX_CONCURRENT_CONNECTS = "alloydbMaxConcurrentConnects";
+  public static final String ALLOYDB_CONNECT_QUEUE_TIMEOUT = "alloydbConnectQueueTimeout";
+  public static final String ALLOYDB_CLIENT_KEY_TYPE = "alloydbClientKeyType";
+  public static final String ALLOYDB_CONNECT_TIMEOUT = "alloydbConnectTimeout";
   public static final AuthType DEFAULT_AUTH_TYPE = AuthType.PASSWORD;
   public static final IpType DEFAULT_IP_TYPE = IpType.PRIVATE;
+  public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ZERO;
+
+  // The properties read by fromConnectionProperties(). Their values identify an interned config.
+  private static final String[] PROPERTY_NAMES = {
+    ALLOYDB_INSTANCE_NAME,
+    ALLOYDB_TARGET_PRINCIPAL,
+    ALLOYDB_DELEGATES,
+    ALLOYDB_NAMED_CONNECTOR,
+    ALLOYDB_ADMIN_SERVICE_ENDPOINT,
+    ALLOYDB_GOOGLE_CREDENTIALS_PATH,
+    ALLOYDB_QUOTA_PROJECT,
+    ENABLE_IAM_AUTH_PROPERTY,
+    ALLOYDB_IP_TYPE,
+    ALLOYDB_REFRESH_STRATEGY,
+    ALLOYDB_TLS_SESSION_RESUMPTION,
+    ALLOYDB_CERTIFICATE_DURATION,
+    ALLOYDB_ADAPTIVE_REFRESH_IDLE_TIMEOUT,
+    ALLOYDB_CONNECTION_INFO_CACHE_IDLE_TIMEOUT,
+    ALLOYDB_CONNECTION_INFO_CACHE_MAX_SIZE,
+    ALLOYDB_WARM_SOCKET_RESERVE_SIZE,
+    ALLOYDB_WARM_SOCKET_MAX_IDLE_TIME,
+    ALLOYDB_MAX_CONCURRENT_CONNECTS,
+    ALLOYDB_CONNECT_QUEUE_TIMEOUT,
+    ALLOYDB_CLIENT_KEY_TYPE,
+    ALLOYDB_CONNECT_TIMEOUT
+  };
+  // Bounds the number of interned configs. Once full, new property sets are parsed every time.
+  private static final int MAX_INTERNED_CONFIGS = 1000;
+  private static final ConcurrentHashMap<List<String>, ConnectionConfig> internedConfigs =
+      new ConcurrentHashMap<>();
+
   private final InstanceName instanceName;
   private final String namedConnector;
   private final ConnectorConfig connectorConfig;
   private final AuthType authType;
-  private final IpType ipType;
+  // The IP types to connect with, in order of preference.
+  private final List<IpType> ipTypes;
+  // Bounds the whole connect, or zero for no bound.
+  private final Duration connectTimeout;
+  private final int hashCode;
 
-  /** Create a new ConnectionConfig from the well known JDBC Connection properties. */
+  /**
+   * Create a new ConnectionConfig from the well known JDBC Connection properties. The driver creates
+   * a new SocketFactory for every connection, so configs are interned: properties with the same
+   * values return the same ConnectionConfig, and are only parsed once.
+   */
   static ConnectionConfig fromConnectionProperties(Properties props) {
+    String[] values = new String[PROPERTY_NAMES.length];
+    for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+      values[i] = props.getProperty(PROPERTY_NAMES[i]);
+    }
+    List<String> key = Arrays.asList(values);
+
+    ConnectionConfig config = internedConfigs.get(key);
+    if (config != null) {
+      return config;
+    }
+    config = parseConnectionProperties(props);
+    if (internedConfigs.size() < MAX_INTERNED_CONFIGS) {
+      ConnectionConfig existing = internedConfigs.putIfAbsent(key, config);
+      if (existing != null) {
+        return existing;
+      }
+    }
+    return config;
+  }
+
+  private static ConnectionConfig parseConnectionProperties(Properties props) {
     validateProperties(props);
     final String instanceNameStr = props.getProperty(ALLOYDB_INSTANCE_NAME, "");
     final InstanceName instanceName = InstanceName.parse(instanceNameStr);
@@ -65,9 +142,9 @@ class ConnectionConfig {
             ? AuthType.IAM
             : AuthType.PASSWORD;
     final String quotaProject = props.getProperty(ALLOYDB_QUOTA_PROJECT);
-    IpType ipType = IpType.PRIVATE;
+    List<IpType> ipTypes = Collections.singletonList(DEFAULT_IP_TYPE);
     if (props.getProperty(ALLOYDB_IP_TYPE) != null) {
-      ipType = IpType.valueOf(props.getProperty(ALLOYDB_IP_TYPE).toUpperCase(Locale.getDefault()));
+      ipTypes = parseIpTypes(props.getProperty(ALLOYDB_IP_TYPE));
     }
     RefreshStrategy refreshStrategy = RefreshStrategy.REFRESH_AHEAD;
     if (props.getProperty(ALLOYDB_REFRESH_STRATEGY) != null) {
@@ -75,12 +152,61 @@ class ConnectionConfig {
           RefreshStrategy.valueOf(
               props.getProperty(ALLOYDB_REFRESH_STRATEGY).toUpperCase(Locale.getDefault()));
     }
+    final boolean tlsSessionResumption =
+        Boolean.parseBoolean(props.getProperty(ALLOYDB_TLS_SESSION_RESUMPTION));
+    Duration certificateDuration = ConnectorConfig.DEFAULT_CERTIFICATE_DURATION;
+    if (props.getProperty(ALLOYDB_CERTIFICATE_DURATION) != null) {
+      certificateDuration = Duration.parse(props.getProperty(ALLOYDB_CERTIFICATE_DURATION));
+    }
+    Duration adaptiveRefreshIdleTimeout = ConnectorConfig.DEFAULT_ADAPTIVE_REFRESH_IDLE_TIMEOUT;
+    if (props.getProperty(ALLOYDB_ADAPTIVE_REFRESH_IDLE_TIMEOUT) != null) {
+      adaptiveRefreshIdleTimeout =
+          Duration.parse(props.getProperty(ALLOYDB_ADAPTIVE_REFRESH_IDLE_TIMEOUT));
+    }
+    Duration connectionInfoCacheIdleTimeout =
+        ConnectorConfig.DEFAULT_CONNECTION_INFO_CACHE_IDLE_TIMEOUT;
+    if (props.getProperty(ALLOYDB_CONNECTION_INFO_CACHE_IDLE_TIMEOUT) != null) {
+      connectionInfoCacheIdleTimeout =
+          Duration.parse(props.getProperty(ALLOYDB_CONNECTION_INFO_CACHE_IDLE_TIMEOUT));
+    }
+    int connectionInfoCacheMaxSize = ConnectorConfig.DEFAULT_CONNECTION_INFO_CACHE_MAX_SIZE;
+    if (props.getProperty(ALLOYDB_CONNECTION_INFO_CACHE_MAX_SIZE) != null) {
+      connectionInfoCacheMaxSize =
+          Integer.parseInt(props.getProperty(ALLOYDB_CONNECTION_INFO_CACHE_MAX_SIZE));
+    }
+    int warmSocketReserveSize = ConnectorConfig.DEFAULT_WARM_SOCKET_RESERVE_SIZE;
+    if (props.getProperty(ALLOYDB_WARM_SOCKET_RESERVE_SIZE) != null) {
+      warmSocketReserveSize = Integer.parseInt(props.getProperty(ALLOYDB_WARM_SOCKET_RESERVE_SIZE));
+    }
+    Duration warmSocketMaxIdleTime = ConnectorConfig.DEFAULT_WARM_SOCKET_MAX_IDLE_TIME;
+    if (props.getProperty(ALLOYDB_WARM_SOCKET_MAX_IDLE_TIME) != null) {
+      warmSocketMaxIdleTime = Duration.parse(props.getProperty(ALLOYDB_WARM_SOCKET_MAX_IDLE_TIME));
+    }
+    int maxConcurrentConnects = ConnectorConfig.DEFAULT_MAX_CONCURRENT_CONNECTS;
+    if (props.getProperty(ALLOYDB_MAX_CONCURRENT_CONNECTS) != null) {
+      maxConcurrentConnects = Integer.parseInt(props.getProperty(ALLOYDB_MAX_CONCURRENT_CONNECTS));
+    }
+    Duration connectQueueTimeout = ConnectorConfig.DEFAULT_CONNECT_QUEUE_TIMEOUT;
+    if (props.getProperty(ALLOYDB_CONNECT_QUEUE_TIMEOUT) != null) {
+      connectQueueTimeout = Duration.parse(props.getProperty(ALLOYDB_CONNECT_QUEUE_TIMEOUT));
+    }
+    ClientKeyType clientKeyType = ConnectorConfig.DEFAULT_CLIENT_KEY_TYPE;
+    if (props.getProperty(ALLOYDB_CLIENT_KEY_TYPE) != null) {
+      clientKeyType =
+          ClientKeyType.valueOf(
+              props.getProperty(ALLOYDB_CLIENT_KEY_TYPE).toUpperCase(Locale.getDefault()));
+    }
+    Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    if (props.getProperty(ALLOYDB_CONNECT_TIMEOUT) != null) {
+      connectTimeout = Duration.parse(props.getProperty(ALLOYDB_CONNECT_TIMEOUT));
+    }
 
     return new ConnectionConfig(
         instanceName,
         namedConnector,
         authType,
-        ipType,
+        ipTypes,
+        connectTimeout,
         new ConnectorConfig.Builder()
             .withTargetPrincipal(targetPrincipal)
             .withDelegates(delegates)
@@ -88,9 +214,31 @@ class ConnectionConfig {
             .withGoogleCredentialsPath(googleCredentialsPath)
             .withQuotaProject(quotaProject)
             .withRefreshStrategy(refreshStrategy)
+            .withTlsSessionResumption(tlsSessionResumption)
+            .withCertificateDuration(certificateDuration)
+            .withAdaptiveRefreshIdleTimeout(adaptiveRefreshIdleTimeout)
+            .withConnectionInfoCacheIdleTimeout(connectionInfoCacheIdleTimeout)
+            .withConnectionInfoCacheMaxSize(connectionInfoCacheMaxSize)
+            .withWarmSocketReserveSize(warmSocketReserveSize)
+            .withWarmSocketMaxIdleTime(warmSocketMaxIdleTime)
+            .withMaxConcurrentConnects(maxConcurrentConnects)
+            .withConnectQueueTimeout(connectQueueTimeout)
+            .withClientKeyType(clientKeyType)
             .build());
   }
 
+  /** Parses a comma separated list of IP types, like "PSC,PRIVATE". */
+  private static List<IpType> parseIpTypes(String value) {
+    List<IpType> ipTypes = new ArrayList<>();
+    for (String ipType : value.split(",")) {
+      IpType t = IpType.valueOf(ipType.trim().toUpperCase(Locale.getDefault()));
+      if (!ipTypes.contains(t)) {
+        ipTypes.add(t);
+      }
+    }
+    return Collections.unmodifiableList(ipTypes);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -102,13 +250,15 @@ class ConnectionConfig {
     ConnectionConfig config = (ConnectionConfig) o;
     return Objects.equals(instanceName, config.instanceName)
         && Objects.equals(namedConnector, config.namedConnector)
-        && Objects.equals(ipType, config.ipType)
+        && authType == config.authType
+        && Objects.equals(ipTypes, config.ipTypes)
+        && Objects.equals(connectTimeout, config.connectTimeout)
         && Objects.equals(connectorConfig, config.connectorConfig);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(instanceName, namedConnector, ipType, connectorConfig);
+    return hashCode;
   }
 
   private static void validateProperties(Properties props) {
@@ -123,18 +273,29 @@ class ConnectionConfig {
       InstanceName instanceName,
       String namedConnector,
       AuthType authType,
-      IpType ipType,
+      List<IpType> ipTypes,
+      Duration connectTimeout,
       ConnectorConfig connectorConfig) {
+    Preconditions.checkArgument(
+        ipTypes != null && !ipTypes.isEmpty(), "ipTypes must not be empty");
+    Preconditions.checkArgument(
+        connectTimeout != null && !connectTimeout.isNegative(),
+        "connectTimeout must not be negative");
     this.instanceName = instanceName;
     this.namedConnector = namedConnector;
     this.connectorConfig = connectorConfig;
     this.authType = authType;
-    this.ipType = ipType;
+    this.ipTypes = ipTypes;
+    this.connectTimeout = connectTimeout;
+    this.hashCode =
+        Objects.hash(
+            instanceName, namedConnector, authType, ipTypes, connectTimeout, connectorConfig);
   }
 
   /** Creates a new instance of the ConnectionConfig with an updated connectorConfig. */
   ConnectionConfig withConnectorConfig(ConnectorConfig config) {
-    return new ConnectionConfig(instanceName, namedConnector, authType, ipType, config);
+    return new ConnectionConfig(
+        instanceName, namedConnector, authType, ipTypes, connectTimeout, config);
   }
 
   InstanceName getInstanceName() {
@@ -153,8 +314,19 @@ class ConnectionConfig {
     return authType;
   }
 
+  /** Returns the most preferred IP type. */
   IpType getIpType() {
-    return ipType;
+    return ipTypes.get(0);
+  }
+
+  /** Returns the IP types to connect with, in order of preference. */
+  List<IpType> getIpTypes() {
+    return ipTypes;
+  }
+
+  /** Returns the time a connect may take in total, or zero if it is not bounded. */
+  Duration getConnectTimeout() {
+    return connectTimeout;
   }
 
   /** The builder for the ConnectionConfig. */
@@ -163,7 +335,8 @@ class ConnectionConfig {
     private String namedConnector;
     private ConnectorConfig connectorConfig = new ConnectorConfig.Builder().build();
     private AuthType authType = DEFAULT_AUTH_TYPE;
-    private IpType ipType = DEFAULT_IP_TYPE;
+    private List<IpType> ipTypes = Collections.singletonList(DEFAULT_IP_TYPE);
+    private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
 
     Builder withInstanceName(InstanceName instanceName) {
       this.instanceName = instanceName;
@@ -186,12 +359,32 @@ class ConnectionConfig {
     }
 
     public Builder withIpType(IpType ipType) {
-      this.ipType = ipType;
+      this.ipTypes = Collections.singletonList(ipType);
+      return this;
+    }
+
+    /**
+     * Sets the IP types to connect with, in order of preference. Addresses of all the types are
+     * tried, and the first connection to complete its TLS handshake is used.
+     */
+    public Builder withIpTypes(List<IpType> ipTypes) {
+      this.ipTypes = Collections.unmodifiableList(new ArrayList<>(ipTypes));
+      return this;
+    }
+
+    /**
+     * Sets the time a connect may take in total: looking up the connection info, waiting for the
+     * concurrent connect limit, resolving the PSC DNS name, connecting, the TLS handshake and the
+     * metadata exchange. Zero does not bound the connect.
+     */
+    public Builder withConnectTimeout(Duration connectTimeout) {
+      this.connectTimeout = connectTimeout;
       return this;
     }
 
     ConnectionConfig build() {
-      return new ConnectionConfig(instanceName, namedConnector, authType, ipType, connectorConfig);
+      return new ConnectionConfig(
+          instanceName, namedConnector, authType, ipTypes, connectTimeout, connectorConfig);
     }
   }
 }
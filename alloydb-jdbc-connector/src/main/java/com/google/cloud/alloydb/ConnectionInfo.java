@@ -17,19 +17,20 @@
 package com.google.cloud.alloydb;
 
 import com.google.common.base.Objects;
+import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.time.Instant;
 import java.util.List;
+import javax.net.ssl.SSLContext;
 
+/**
+ * ConnectionInfo combines the metadata of an instance with the client certificate of its cluster,
+ * which together are everything needed to connect to the instance.
+ */
 class ConnectionInfo {
 
-  private final String ipAddress;
-  private final String publicIpAddress;
-  private final String instanceUid;
-  private final String pscDnsName;
-  private final X509Certificate clientCertificate;
-  private final List<X509Certificate> certificateChain;
-  private final X509Certificate caCertificate;
+  private final InstanceMetadata instanceMetadata;
+  private final CertificateInfo certificateInfo;
 
   ConnectionInfo(
       String ipAddress,
@@ -39,37 +40,46 @@ class ConnectionInfo {
       X509Certificate clientCertificate,
       List<X509Certificate> certificateChain,
       X509Certificate caCertificate) {
-    this.ipAddress = ipAddress;
-    this.publicIpAddress = publicIpAddress;
-    this.pscDnsName = pscDnsName;
-    this.instanceUid = instanceUid;
-    this.clientCertificate = clientCertificate;
-    this.certificateChain = certificateChain;
-    this.caCertificate = caCertificate;
+    this(
+        new InstanceMetadata(ipAddress, publicIpAddress, pscDnsName, instanceUid),
+        new CertificateInfo(clientCertificate, certificateChain, caCertificate));
+  }
+
+  ConnectionInfo(InstanceMetadata instanceMetadata, CertificateInfo certificateInfo) {
+    this.instanceMetadata = instanceMetadata;
+    this.certificateInfo = certificateInfo;
+  }
+
+  InstanceMetadata getInstanceMetadata() {
+    return instanceMetadata;
+  }
+
+  CertificateInfo getCertificateInfo() {
+    return certificateInfo;
   }
 
   String getIpAddress() {
-    return ipAddress;
+    return instanceMetadata.getIpAddress();
   }
 
   String getPublicIpAddress() {
-    return publicIpAddress;
+    return instanceMetadata.getPublicIpAddress();
   }
 
   String getPscDnsName() {
-    return pscDnsName;
+    return instanceMetadata.getPscDnsName();
   }
 
   String getInstanceUid() {
-    return instanceUid;
+    return instanceMetadata.getInstanceUid();
   }
 
   X509Certificate getClientCertificate() {
-    return clientCertificate;
+    return certificateInfo.getClientCertificate();
   }
 
   Instant getClientCertificateExpiration() {
-    return clientCertificate.getNotAfter().toInstant();
+    return certificateInfo.getExpiration();
   }
 
   Instant getExpiration() {
@@ -77,11 +87,15 @@ class ConnectionInfo {
   }
 
   List<X509Certificate> getCertificateChain() {
-    return certificateChain;
+    return certificateInfo.getCertificateChain();
   }
 
   X509Certificate getCaCertificate() {
-    return caCertificate;
+    return certificateInfo.getCaCertificate();
+  }
+
+  SSLContext getSslContext(PrivateKey privateKey) {
+    return certificateInfo.getSslContext(privateKey);
   }
 
   @Override
@@ -94,48 +108,29 @@ class ConnectionInfo {
     }
 
     ConnectionInfo that = (ConnectionInfo) o;
-    return Objects.equal(ipAddress, that.ipAddress)
-        && Objects.equal(publicIpAddress, that.publicIpAddress)
-        && Objects.equal(pscDnsName, that.pscDnsName)
-        && Objects.equal(instanceUid, that.instanceUid)
-        && Objects.equal(clientCertificate, that.clientCertificate)
-        && Objects.equal(certificateChain, that.certificateChain)
-        && Objects.equal(caCertificate, that.caCertificate);
+    return Objects.equal(instanceMetadata, that.instanceMetadata)
+        && Objects.equal(certificateInfo, that.certificateInfo);
   }
 
   @Override
   public int hashCode() {
     return Objects.hashCode(
-        ipAddress,
-        publicIpAddress,
-        pscDnsName,
-        instanceUid,
-        clientCertificate,
-        certificateChain,
-        caCertificate);
+        getIpAddress(),
+        getPublicIpAddress(),
+        getPscDnsName(),
+        getInstanceUid(),
+        getClientCertificate(),
+        getCertificateChain(),
+        getCaCertificate());
   }
 
   @Override
   public String toString() {
     return "ConnectionInfo{"
-        + "ipAddress='"
-        + ipAddress
-        + '\''
-        + ",publicIpAddress='"
-        + publicIpAddress
-        + '\''
-        + ",pscDnsName='"
-        + pscDnsName
-        + '\''
-        + ", instanceUid='"
-        + instanceUid
-        + '\''
-        + ", clientCertificate="
-        + clientCertificate
-        + ", certificateChain="
-        + certificateChain
-        + ", caCertificate="
-        + caCertificate
+        + "instanceMetadata="
+        + instanceMetadata
+        + ", certificateInfo="
+        + certificateInfo
         + '}';
   }
 }
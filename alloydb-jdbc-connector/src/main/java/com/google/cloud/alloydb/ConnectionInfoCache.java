@@ -15,16 +15,37 @@
  */
 package com.google.cloud.alloydb;
 
+import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
 /**
- * ConnectionInfoCache is the interface for accessing cached connection info. When connection info
- * causes a connection to fail, forceRefresh is available to invalidate the cache and fetch new
- * connection info.
+ * ConnectionInfoCache is the interface for accessing cached connection info for the instances of a
+ * cluster. The client certificate is shared by all instances of the cluster, and is refreshed
+ * independently of the instance metadata. When connection info causes a connection to fail,
+ * forceRefresh and refreshInstanceMetadata are available to fetch a new certificate and new
+ * metadata.
  */
 interface ConnectionInfoCache {
-  ConnectionInfo getConnectionInfo();
+  ConnectionInfo getConnectionInfo(InstanceName instanceName);
+
+  /**
+   * Returns the connection info of an instance without blocking the caller. Failures, including a
+   * closed cache, are reported through the future. Cancelling the future does not cancel a refresh
+   * shared with other callers.
+   */
+  default ListenableFuture<ConnectionInfo> getConnectionInfoAsync(InstanceName instanceName) {
+    try {
+      return Futures.immediateFuture(getConnectionInfo(instanceName));
+    } catch (RuntimeException e) {
+      return Futures.immediateFailedFuture(e);
+    }
+  }
 
   void forceRefresh();
 
+  void refreshInstanceMetadata(InstanceName instanceName);
+
   void close();
 
   void refreshIfExpired();
@@ -15,7 +15,7 @@
  */
 package com.google.cloud.alloydb;
 
-import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import java.security.KeyPair;
 
@@ -24,7 +24,7 @@ interface ConnectionInfoCacheFactory {
   ConnectionInfoCache create(
       ListeningScheduledExecutorService executor,
       ConnectionInfoRepository connectionInfoRepo,
-      InstanceName instanceName,
+      ClusterName clusterName,
       KeyPair clientConnectorKeyPair,
       long minRefreshDelayMs);
 }
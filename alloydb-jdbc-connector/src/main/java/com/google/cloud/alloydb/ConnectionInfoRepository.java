@@ -16,11 +16,14 @@
 
 package com.google.cloud.alloydb;
 
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.io.Closeable;
 import java.security.KeyPair;
 
 interface ConnectionInfoRepository extends Closeable {
-  ListenableFuture<ConnectionInfo> getConnectionInfo(InstanceName instanceName, KeyPair publicKey);
+  ListenableFuture<InstanceMetadata> getInstanceMetadata(InstanceName instanceName);
+
+  ListenableFuture<CertificateInfo> getCertificateInfo(ClusterName clusterName, KeyPair publicKey);
 }
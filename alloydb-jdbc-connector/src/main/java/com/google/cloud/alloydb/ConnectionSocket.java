@@ -19,182 +19,401 @@ package com.google.cloud.alloydb;
 import com.google.cloud.alloydb.connectors.v1.MetadataExchangeRequest;
 import com.google.cloud.alloydb.connectors.v1.MetadataExchangeResponse;
 import com.google.cloud.alloydb.connectors.v1.MetadataExchangeResponse.ResponseCode;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.security.GeneralSecurityException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
 import java.security.KeyPair;
-import java.security.KeyStore;
-import java.security.KeyStore.PasswordProtection;
-import java.security.KeyStore.PrivateKeyEntry;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.PrivateKey;
-import java.security.SecureRandom;
-import java.security.UnrecoverableKeyException;
-import java.security.cert.Certificate;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import javax.net.ssl.KeyManager;
-import javax.net.ssl.KeyManagerFactory;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SNIHostName;
-import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.TrustManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 class ConnectionSocket {
 
   private static final Logger logger = LoggerFactory.getLogger(ConnectionSocket.class);
-  private static final String TLS_1_3 = "TLSv1.3";
-  private static final String X_509 = "X.509";
-  private static final String ROOT_CA_CERT = "rootCaCert";
-  private static final String CLIENT_CERT = "clientCert";
   private static final int IO_TIMEOUT_MS = 30000;
   private static final int SERVER_SIDE_PROXY_PORT = 5433;
+  // How long a connection attempt may take before the next address is tried, as recommended by
+  // RFC 8305.
+  private static final long ATTEMPT_DELAY_MS = 250;
   private final ConnectionInfo connectionInfo;
   private final ConnectionConfig connectionConfig;
   private final KeyPair clientConnectorKeyPair;
   private final AccessTokenSupplier accessTokenSupplier;
   private final String userAgents;
+  private final ConnectorMetrics metrics;
+  // Resolves PSC DNS names, or null to resolve them on every connect.
+  private final DnsCache dnsCache;
+  // Runs the connection attempts to the addresses of the instance, or null to try the addresses
+  // one at a time.
+  private final Executor attemptExecutor;
 
   ConnectionSocket(
       ConnectionInfo connectionInfo,
       ConnectionConfig connectionConfig,
       KeyPair clientConnectorKeyPair,
       AccessTokenSupplier accessTokenSupplier,
-      String userAgents) {
+      String userAgents,
+      ConnectorMetrics metrics) {
+    this(
+        connectionInfo,
+        connectionConfig,
+        clientConnectorKeyPair,
+        accessTokenSupplier,
+        userAgents,
+        metrics,
+        null,
+        null);
+  }
+
+  ConnectionSocket(
+      ConnectionInfo connectionInfo,
+      ConnectionConfig connectionConfig,
+      KeyPair clientConnectorKeyPair,
+      AccessTokenSupplier accessTokenSupplier,
+      String userAgents,
+      ConnectorMetrics metrics,
+      DnsCache dnsCache,
+      Executor attemptExecutor) {
     this.connectionInfo = connectionInfo;
     this.connectionConfig = connectionConfig;
     this.clientConnectorKeyPair = clientConnectorKeyPair;
     this.accessTokenSupplier = accessTokenSupplier;
     this.userAgents = userAgents;
+    this.metrics = metrics;
+    this.dnsCache = dnsCache;
+    this.attemptExecutor = attemptExecutor;
   }
 
   Socket connect() throws IOException {
-    SSLSocket socket =
-        buildSocket(
-            connectionInfo.getCaCertificate(),
-            connectionInfo.getCertificateChain(),
-            this.clientConnectorKeyPair.getPrivate());
-
-    String address;
-    switch (connectionConfig.getIpType()) {
-      case PUBLIC:
-        address = connectionInfo.getPublicIpAddress();
-        break;
-      case PSC:
-        // DNS names always end with a period (.), so remove it.
-        address = connectionInfo.getPscDnsName().replaceFirst("\\.$", "");
-        break;
-      default:
-        address = connectionInfo.getIpAddress();
-        break;
+    return connect(null);
+  }
+
+  /**
+   * Connects to the instance. Every stage waits at most for the time left until the deadline, which
+   * may be null for no deadline.
+   */
+  Socket connect(ConnectDeadline deadline) throws IOException {
+    List<InetSocketAddress> addresses = getAddresses(deadline);
+
+    long handshakeStartMs = System.currentTimeMillis();
+    SSLSocket socket;
+    if (addresses.size() == 1 || attemptExecutor == null) {
+      socket = connectInTurn(addresses, deadline);
+    } else {
+      socket = race(addresses, deadline);
+    }
+    String address = socket.getInetAddress().getHostAddress();
+
+    try {
+      // The metadata exchange must occur after the TLS connection is established
+      // to avoid leaking sensitive information.
+      metadataExchange(socket, deadline);
+    } catch (IOException | RuntimeException e) {
+      socket.close();
+      throw e;
     }
 
-    if (address == null || address.isEmpty()) {
+    SSLSession session = socket.getSession();
+    if (connectionConfig.getConnectorConfig().isTlsSessionResumption()) {
+      // A resumed session keeps the creation time of the session it resumed.
+      boolean resumed = session.getCreationTime() < handshakeStartMs;
+      metrics.recordTlsSessionResumption(resumed);
+      logger.debug(String.format("[%s] TLS session resumed: %s", address, resumed));
+    } else {
+      // The SSLContext is shared with other connections, and so is its client session cache. By
+      // now the server's session ticket has been read, so invalidate the session to keep doing a
+      // full handshake on every connection.
+      session.invalidate();
+    }
+
+    logger.debug(String.format("[%s] Connected to instance successfully.", address));
+
+    return socket;
+  }
+
+  /**
+   * Returns the addresses of the instance for the configured IP types, in order of preference. PSC
+   * DNS names may resolve to several addresses. They are resolved through the DNS cache, so that
+   * the connect does not wait for a lookup.
+   */
+  private List<InetSocketAddress> getAddresses(ConnectDeadline deadline) throws IOException {
+    List<InetSocketAddress> addresses = new ArrayList<>();
+    UnknownHostException lookupError = null;
+    for (IpType ipType : connectionConfig.getIpTypes()) {
+      switch (ipType) {
+        case PUBLIC:
+          addAddress(addresses, connectionInfo.getPublicIpAddress());
+          break;
+        case PSC:
+          String pscDnsName = connectionInfo.getPscDnsName();
+          if (pscDnsName == null || pscDnsName.isEmpty()) {
+            break;
+          }
+          // DNS names always end with a period (.), so remove it.
+          pscDnsName = pscDnsName.replaceFirst("\\.$", "");
+          try {
+            // The addresses keep the hostname they were resolved from, which the TLS handshake
+            // verifies.
+            InetAddress[] resolved = resolve(pscDnsName, deadline);
+            for (InetAddress a : resolved) {
+              addAddress(addresses, new InetSocketAddress(a, SERVER_SIDE_PROXY_PORT));
+            }
+          } catch (UnknownHostException e) {
+            logger.debug(String.format("[%s] Failed to resolve PSC DNS name.", pscDnsName), e);
+            lookupError = e;
+          }
+          break;
+        default:
+          addAddress(addresses, connectionInfo.getIpAddress());
+          break;
+      }
+    }
+
+    if (addresses.isEmpty()) {
+      if (lookupError != null) {
+        throw lookupError;
+      }
+      List<IpType> ipTypes = connectionConfig.getIpTypes();
       throw new RuntimeException(
           String.format(
-              "Instance does not have an address matching type: %s", connectionConfig.getIpType()));
+              "Instance does not have an address matching type: %s",
+              ipTypes.size() == 1 ? ipTypes.get(0) : ipTypes));
     }
+    return addresses;
+  }
 
-    logger.debug(String.format("[%s] Connecting to instance.", address));
+  /**
+   * Resolves the PSC DNS name. With a deadline, a lookup that is not cached runs on the attempt
+   * executor, since lookups cannot be interrupted, and the connect stops waiting for it when the
+   * time runs out.
+   */
+  private InetAddress[] resolve(String pscDnsName, ConnectDeadline deadline) throws IOException {
+    DnsCache.Resolver resolver = dnsCache == null ? InetAddress::getAllByName : dnsCache::resolve;
+    if (deadline == null || attemptExecutor == null) {
+      return resolver.resolve(pscDnsName);
+    }
+    deadline.remainingNanos(ConnectDeadline.Stage.DNS_LOOKUP);
+    ListenableFutureTask<InetAddress[]> lookup =
+        ListenableFutureTask.create(() -> resolver.resolve(pscDnsName));
+    attemptExecutor.execute(lookup);
+    return deadline.await(lookup, ConnectDeadline.Stage.DNS_LOOKUP);
+  }
 
-    SSLParameters sslParameters = socket.getSSLParameters();
-    // Set HTTPS as the the endpoint identification algorithm
-    // in order to verify the identity of the certificate as
-    // suggested at https://stackoverflow.com/a/17979954/927514
-    sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
-    sslParameters.setServerNames(Collections.singletonList(new SNIHostName(address)));
+  private static void addAddress(List<InetSocketAddress> addresses, String ipAddress) {
+    if (ipAddress != null && !ipAddress.isEmpty()) {
+      addAddress(addresses, new InetSocketAddress(ipAddress, SERVER_SIDE_PROXY_PORT));
+    }
+  }
 
-    socket.setSSLParameters(sslParameters);
-    socket.setKeepAlive(true);
-    socket.setTcpNoDelay(true);
-    socket.connect(new InetSocketAddress(address, SERVER_SIDE_PROXY_PORT));
+  private static void addAddress(List<InetSocketAddress> addresses, InetSocketAddress address) {
+    // A PSC DNS name may resolve to an IP address of another type.
+    if (!addresses.contains(address)) {
+      addresses.add(address);
+    }
+  }
 
-    try {
-      socket.startHandshake();
-    } catch (IOException e) {
-      logger.debug("TLS handshake failed!");
-      throw e;
+  /** Connects to the addresses one at a time, and returns the first socket to complete TLS. */
+  private SSLSocket connectInTurn(List<InetSocketAddress> addresses, ConnectDeadline deadline)
+      throws IOException {
+    IOException error = null;
+    for (InetSocketAddress address : addresses) {
+      try {
+        return handshake(address, null, deadline);
+      } catch (IOException e) {
+        error = addError(error, e);
+      }
     }
+    throw error;
+  }
 
-    // The metadata exchange must occur after the TLS connection is established
-    // to avoid leaking sensitive information.
-    metadataExchange(socket);
+  /**
+   * Races connections to the addresses, as described in RFC 8305. The next address is tried once
+   * the previous attempt failed or took longer than the attempt delay. Returns the socket of the
+   * first attempt to complete TLS, and closes the sockets of the others.
+   */
+  private SSLSocket race(List<InetSocketAddress> addresses, ConnectDeadline deadline)
+      throws IOException {
+    Attempts attempts = new Attempts();
+    CompletionService<SSLSocket> completion = new ExecutorCompletionService<>(attemptExecutor);
+    int started = 0;
+    int failed = 0;
+    IOException error = null;
+    try {
+      startAttempt(completion, addresses.get(started++), attempts, deadline);
+      while (true) {
+        Future<SSLSocket> done =
+            started < addresses.size()
+                ? completion.poll(ATTEMPT_DELAY_MS, TimeUnit.MILLISECONDS)
+                : completion.take();
+        if (done == null) {
+          startAttempt(completion, addresses.get(started++), attempts, deadline);
+          continue;
+        }
+        try {
+          SSLSocket socket = done.get();
+          attempts.end(socket);
+          return socket;
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          Throwables.throwIfUnchecked(cause);
+          error = addError(error, (IOException) cause);
+          if (++failed == addresses.size()) {
+            throw error;
+          }
+          if (started < addresses.size()) {
+            // Do not wait out the attempt delay when an attempt fails.
+            startAttempt(completion, addresses.get(started++), attempts, deadline);
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while connecting to instance.");
+    } finally {
+      attempts.end(null);
+    }
+  }
 
-    logger.debug(String.format("[%s] Connected to instance successfully.", address));
+  private void startAttempt(
+      CompletionService<SSLSocket> completion,
+      InetSocketAddress address,
+      Attempts attempts,
+      ConnectDeadline deadline) {
+    completion.submit(() -> handshake(address, attempts, deadline));
+  }
 
-    return socket;
+  private static IOException addError(IOException error, IOException e) {
+    if (error == null) {
+      return e;
+    }
+    error.addSuppressed(e);
+    return error;
   }
 
-  private SSLSocket buildSocket(
-      X509Certificate caCertificate,
-      List<X509Certificate> certificateChain,
-      PrivateKey privateKey) {
+  /**
+   * Connects to the address and completes the TLS handshake. The socket is added to attempts, when
+   * not null, so that it is closed if another attempt completes first.
+   */
+  private SSLSocket handshake(
+      InetSocketAddress address, Attempts attempts, ConnectDeadline deadline) throws IOException {
+    SSLSocket socket =
+        (SSLSocket)
+            connectionInfo
+                .getSslContext(this.clientConnectorKeyPair.getPrivate())
+                .getSocketFactory()
+                .createSocket();
+    if (attempts != null && !attempts.add(socket)) {
+      socket.close();
+      throw new SocketException("Another connection attempt completed first.");
+    }
+
+    String host = address.getHostString();
+    logger.debug(String.format("[%s] Connecting to instance.", host));
+
     try {
-      // First initialize a KeyManager with the ephemeral certificate
-      // (including the chain of trust to the root CA cert) and the connector's private key.
-      KeyManager[] keyManagers = initializeKeyManager(certificateChain, privateKey);
-
-      // Next, initialize a TrustManager with the root CA certificate.
-      TrustManager[] trustManagers = initializeTrustManager(caCertificate);
-
-      // Now, create a TLS 1.3 SSLContext initialized with the KeyManager and the TrustManager,
-      // and create the SSL Socket.
-      SSLContext sslContext = SSLContext.getInstance(TLS_1_3);
-      sslContext.init(keyManagers, trustManagers, new SecureRandom());
-      return (SSLSocket) sslContext.getSocketFactory().createSocket();
-    } catch (GeneralSecurityException | IOException ex) {
-      throw new RuntimeException("Unable to create an SSL Context for the instance.", ex);
+      SSLParameters sslParameters = socket.getSSLParameters();
+      // Set HTTPS as the the endpoint identification algorithm
+      // in order to verify the identity of the certificate as
+      // suggested at https://stackoverflow.com/a/17979954/927514
+      sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+      sslParameters.setServerNames(Collections.singletonList(new SNIHostName(host)));
+
+      socket.setSSLParameters(sslParameters);
+      socket.setKeepAlive(true);
+      socket.setTcpNoDelay(true);
+      if (deadline == null) {
+        socket.connect(address);
+      } else {
+        try {
+          socket.connect(address, deadline.remainingMillis(ConnectDeadline.Stage.TCP_CONNECT));
+        } catch (SocketTimeoutException e) {
+          throw deadline.checkExpired(e, ConnectDeadline.Stage.TCP_CONNECT);
+        }
+        socket.setSoTimeout(deadline.remainingMillis(ConnectDeadline.Stage.TLS_HANDSHAKE));
+      }
+
+      try {
+        socket.startHandshake();
+      } catch (SocketTimeoutException e) {
+        logger.debug(String.format("[%s] TLS handshake failed!", host));
+        throw deadline == null ? e : deadline.checkExpired(e, ConnectDeadline.Stage.TLS_HANDSHAKE);
+      } catch (IOException e) {
+        logger.debug(String.format("[%s] TLS handshake failed!", host));
+        throw e;
+      }
+      socket.setSoTimeout(0);
+      return socket;
+    } catch (IOException | RuntimeException e) {
+      socket.close();
+      throw e;
     }
   }
 
-  private TrustManager[] initializeTrustManager(X509Certificate caCertificate)
-      throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
-    KeyStore trustedKeyStore = KeyStore.getInstance(KeyStore.getDefaultType());
-    trustedKeyStore.load(
-        null, // don't load the key store from an input stream
-        null // there is no password
-        );
-    trustedKeyStore.setCertificateEntry(ROOT_CA_CERT, caCertificate);
-    TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(X_509);
-    trustManagerFactory.init(trustedKeyStore);
-    return trustManagerFactory.getTrustManagers();
-  }
+  /** The sockets of the attempts of a race, so that the sockets of the losers can be closed. */
+  private static class Attempts {
+    private final Object socketsGuard = new Object();
+
+    @GuardedBy("socketsGuard")
+    private final List<SSLSocket> sockets = new ArrayList<>();
 
-  private KeyManager[] initializeKeyManager(
-      List<X509Certificate> certificateChain, PrivateKey privateKey)
-      throws KeyStoreException,
-          IOException,
-          NoSuchAlgorithmException,
-          CertificateException,
-          UnrecoverableKeyException {
-    KeyStore clientAuthenticationKeyStore = KeyStore.getInstance(KeyStore.getDefaultType());
-    clientAuthenticationKeyStore.load(
-        null, // don't load the key store from an input stream
-        null // there is no password
-        );
-    List<Certificate> chain = new ArrayList<>();
-    chain.addAll(certificateChain);
-    Certificate[] chainArray = chain.toArray(new Certificate[] {});
-    PrivateKeyEntry privateKeyEntry = new PrivateKeyEntry(privateKey, chainArray);
-    clientAuthenticationKeyStore.setEntry(
-        CLIENT_CERT, privateKeyEntry, new PasswordProtection(new char[0]) /* no password */);
-    KeyManagerFactory keyManagerFactory =
-        KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
-    keyManagerFactory.init(clientAuthenticationKeyStore, new char[0] /* no password */);
-    return keyManagerFactory.getKeyManagers();
+    @GuardedBy("socketsGuard")
+    private boolean ended;
+
+    /** Adds the socket of an attempt. Returns false if the race has already ended. */
+    boolean add(SSLSocket socket) {
+      synchronized (socketsGuard) {
+        if (ended) {
+          return false;
+        }
+        sockets.add(socket);
+        return true;
+      }
+    }
+
+    /** Ends the race, and closes all sockets but the winner's, which may be null. */
+    void end(SSLSocket winner) {
+      List<SSLSocket> losers;
+      synchronized (socketsGuard) {
+        if (ended) {
+          return;
+        }
+        ended = true;
+        losers = new ArrayList<>(sockets);
+      }
+      for (SSLSocket socket : losers) {
+        if (socket != winner) {
+          try {
+            socket.close();
+          } catch (IOException e) {
+            // ignore
+          }
+        }
+      }
+    }
   }
 
   // metadataExchange sends metadata about the connection prior to the database
@@ -216,7 +435,7 @@ class ConnectionSocket {
   //     metadata exchange has succeeded and the connection is complete.
   //
   // Subsequent interactions with the test server use the database protocol.
-  private void metadataExchange(SSLSocket socket) throws IOException {
+  private void metadataExchange(SSLSocket socket, ConnectDeadline deadline) throws IOException {
 
     logger.debug("Metadata exchange initiated.");
 
@@ -240,13 +459,25 @@ class ConnectionSocket {
     out.flush();
 
     // Set timeout for read.
-    socket.setSoTimeout(IO_TIMEOUT_MS);
+    int timeoutMs = IO_TIMEOUT_MS;
+    if (deadline != null) {
+      timeoutMs =
+          Math.min(timeoutMs, deadline.remainingMillis(ConnectDeadline.Stage.METADATA_EXCHANGE));
+    }
+    socket.setSoTimeout(timeoutMs);
 
     // Read data from the server.
     DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
-    int respSize = in.readInt();
-    byte[] respData = new byte[respSize];
-    in.readFully(respData);
+    byte[] respData;
+    try {
+      int respSize = in.readInt();
+      respData = new byte[respSize];
+      in.readFully(respData);
+    } catch (SocketTimeoutException e) {
+      throw deadline == null
+          ? e
+          : deadline.checkExpired(e, ConnectDeadline.Stage.METADATA_EXCHANGE);
+    }
 
     // Clear the timeout.
     socket.setSoTimeout(0);
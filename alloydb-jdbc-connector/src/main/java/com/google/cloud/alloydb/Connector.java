@@ -15,12 +15,36 @@
  */
 package com.google.cloud.alloydb;
 
+import com.google.cloud.alloydb.v1alpha.ClusterName;
+import com.google.cloud.alloydb.v1alpha.InstanceName;
 import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.IOException;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,15 +52,41 @@ class Connector {
 
   private static final Logger logger = LoggerFactory.getLogger(Connector.class);
   private static final long MIN_RATE_LIMIT_MS = 30000;
+  // Upper bound on how often idle connection info caches are looked for.
+  private static final long MAX_EVICTION_INTERVAL_MS = 60000;
+  // Bounds warm socket refills when the connection config has no connect timeout.
+  private static final long WARM_SOCKET_TIMEOUT_MS = 30000;
 
   private final ListeningScheduledExecutorService executor;
   private final ConnectionInfoRepository connectionInfoRepo;
-  private final KeyPair clientConnectorKeyPair;
+  // Generated in the background. Connects wait for it before they create a connection info cache.
+  private final ListenableFuture<KeyPair> clientConnectorKeyPair;
   private final ConnectionInfoCacheFactory connectionInfoCacheFactory;
-  private final ConcurrentHashMap<ConnectionConfig, ConnectionInfoCache> instances;
+  private final ConcurrentHashMap<ClusterName, ConnectionInfoCache> clusters;
   private final ConnectorConfig config;
   private final AccessTokenSupplier accessTokenSupplier;
   private final String userAgents;
+  private final ConnectorMetrics metrics;
+  private final long idleTimeoutNanos;
+  private final int maxSize;
+  // The System.nanoTime() of the last connection to each cluster. Only tracked when eviction is
+  // enabled.
+  private final ConcurrentHashMap<ClusterName, AtomicLong> lastUsedNanos =
+      new ConcurrentHashMap<>();
+  private final ScheduledFuture<?> evictionTask;
+  // Warm sockets, per instance, IP type and auth type. The executor and task are null when the
+  // reserve is disabled.
+  private final ConcurrentHashMap<ConnectionConfig, WarmSocketReserve> warmSocketReserves =
+      new ConcurrentHashMap<>();
+  private final ExecutorService warmSocketExecutor;
+  private final ScheduledFuture<?> warmSocketTask;
+  // Limits concurrent connects per instance. Empty when the limit is disabled.
+  private final ConcurrentHashMap<InstanceName, ConnectLimiter> connectLimiters =
+      new ConcurrentHashMap<>();
+  // Runs blocking work in the background: PSC DNS lookups, and connection attempts that race each
+  // other when an instance has several addresses.
+  private final ExecutorService workerExecutor;
+  private final DnsCache dnsCache;
 
   Connector(
       ConnectorConfig config,
@@ -44,17 +94,88 @@ class Connector {
       ConnectionInfoRepository connectionInfoRepo,
       KeyPair clientConnectorKeyPair,
       ConnectionInfoCacheFactory connectionInfoCacheFactory,
-      ConcurrentHashMap<ConnectionConfig, ConnectionInfoCache> instances,
+      ConcurrentHashMap<ClusterName, ConnectionInfoCache> clusters,
       AccessTokenSupplier accessTokenSupplier,
       String userAgents) {
+    this(
+        config,
+        executor,
+        connectionInfoRepo,
+        clientConnectorKeyPair,
+        connectionInfoCacheFactory,
+        clusters,
+        accessTokenSupplier,
+        userAgents,
+        new ConnectorMetrics());
+  }
+
+  Connector(
+      ConnectorConfig config,
+      ListeningScheduledExecutorService executor,
+      ConnectionInfoRepository connectionInfoRepo,
+      KeyPair clientConnectorKeyPair,
+      ConnectionInfoCacheFactory connectionInfoCacheFactory,
+      ConcurrentHashMap<ClusterName, ConnectionInfoCache> clusters,
+      AccessTokenSupplier accessTokenSupplier,
+      String userAgents,
+      ConnectorMetrics metrics) {
+    this(
+        config,
+        executor,
+        connectionInfoRepo,
+        Futures.immediateFuture(clientConnectorKeyPair),
+        connectionInfoCacheFactory,
+        clusters,
+        accessTokenSupplier,
+        userAgents,
+        metrics);
+  }
+
+  Connector(
+      ConnectorConfig config,
+      ListeningScheduledExecutorService executor,
+      ConnectionInfoRepository connectionInfoRepo,
+      ListenableFuture<KeyPair> clientConnectorKeyPair,
+      ConnectionInfoCacheFactory connectionInfoCacheFactory,
+      ConcurrentHashMap<ClusterName, ConnectionInfoCache> clusters,
+      AccessTokenSupplier accessTokenSupplier,
+      String userAgents,
+      ConnectorMetrics metrics) {
     this.config = config;
     this.executor = executor;
     this.connectionInfoRepo = connectionInfoRepo;
     this.clientConnectorKeyPair = clientConnectorKeyPair;
     this.connectionInfoCacheFactory = connectionInfoCacheFactory;
-    this.instances = instances;
+    this.clusters = clusters;
     this.accessTokenSupplier = accessTokenSupplier;
     this.userAgents = userAgents;
+    this.metrics = metrics;
+    this.idleTimeoutNanos = config.getConnectionInfoCacheIdleTimeout().toNanos();
+    this.maxSize = config.getConnectionInfoCacheMaxSize();
+    if (idleTimeoutNanos > 0) {
+      long intervalMs =
+          Math.min(TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos), MAX_EVICTION_INTERVAL_MS);
+      this.evictionTask =
+          executor.scheduleWithFixedDelay(
+              () -> evictIdle(System.nanoTime()), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    } else {
+      this.evictionTask = null;
+    }
+    if (config.getWarmSocketReserveSize() > 0) {
+      this.warmSocketExecutor = ConnectorExecutors.newWorkerExecutor();
+      long intervalMs = Math.max(1, config.getWarmSocketMaxIdleTime().toMillis() / 2);
+      this.warmSocketTask =
+          executor.scheduleWithFixedDelay(
+              () -> closeIdleWarmSockets(System.nanoTime()),
+              intervalMs,
+              intervalMs,
+              TimeUnit.MILLISECONDS);
+    } else {
+      this.warmSocketExecutor = null;
+      this.warmSocketTask = null;
+    }
+    this.workerExecutor = ConnectorExecutors.newWorkerExecutor();
+    this.dnsCache = new DnsCache(executor, workerExecutor);
   }
 
   public ConnectorConfig getConfig() {
@@ -63,36 +184,386 @@ class Connector {
 
   public void close() throws IOException {
     logger.debug("Close all connections and remove them from cache.");
-    this.instances.forEach((key, c) -> c.close());
-    this.instances.clear();
+    if (evictionTask != null) {
+      evictionTask.cancel(false);
+    }
+    this.clusters.forEach(
+        (key, c) -> {
+          if (this.clusters.remove(key, c)) {
+            c.close();
+            metrics.recordConnectionInfoCacheRemoved(false);
+          }
+        });
+    this.lastUsedNanos.clear();
+    if (warmSocketTask != null) {
+      warmSocketTask.cancel(false);
+      warmSocketReserves.forEach(
+          (key, r) -> {
+            if (warmSocketReserves.remove(key, r)) {
+              r.close();
+            }
+          });
+      warmSocketExecutor.shutdown();
+    }
+    this.dnsCache.close();
+    this.workerExecutor.shutdown();
+    this.accessTokenSupplier.close();
     this.connectionInfoRepo.close();
   }
 
   Socket connect(ConnectionConfig config) throws IOException {
-    ConnectionInfoCache connectionInfoCache = getConnection(config);
-    ConnectionInfo connectionInfo = connectionInfoCache.getConnectionInfo();
+    ConnectDeadline deadline = ConnectDeadline.start(config);
+    if (deadline != null) {
+      return connect(config, deadline, true);
+    }
+    return connect(config, true);
+  }
+
+  private Socket connect(ConnectionConfig config, boolean retryIfEvicted) throws IOException {
+    ClusterName clusterName = getClusterName(config.getInstanceName());
+    ConnectionInfoCache connectionInfoCache = getConnectionInfoCache(clusterName);
+    ConnectionInfo connectionInfo;
+    try {
+      // Like getConnection(), check that the client certificate is valid before proceeding.
+      connectionInfoCache.refreshIfExpired();
+      connectionInfo = connectionInfoCache.getConnectionInfo(config.getInstanceName());
+    } catch (IllegalStateException e) {
+      // The cache was evicted and closed after it was looked up. Retry once with a new cache.
+      if (!retryIfEvicted || clusters.get(clusterName) == connectionInfoCache) {
+        throw e;
+      }
+      return connect(config, false);
+    }
+    return connect(config, connectionInfoCache, connectionInfo, null);
+  }
 
+  /**
+   * Connects to an instance within the deadline. The connection info is looked up like in
+   * connectAsync(), so that the caller stops waiting for it when the time runs out.
+   */
+  private Socket connect(ConnectionConfig config, ConnectDeadline deadline, boolean retryIfEvicted)
+      throws IOException {
+    deadline.await(clientConnectorKeyPair, ConnectDeadline.Stage.CONNECTION_INFO);
+    ClusterName clusterName = getClusterName(config.getInstanceName());
+    ConnectionInfoCache connectionInfoCache = getConnectionInfoCache(clusterName);
+    ConnectionInfo connectionInfo;
+    try {
+      connectionInfo =
+          deadline.await(
+              connectionInfoCache.getConnectionInfoAsync(config.getInstanceName()),
+              ConnectDeadline.Stage.CONNECTION_INFO);
+      // Like refreshIfExpired() in getConnection(), start a refresh if the certificate expired,
+      // but do not wait for it.
+      if (Instant.now().isAfter(connectionInfo.getExpiration())) {
+        connectionInfoCache.forceRefresh();
+      }
+    } catch (IllegalStateException e) {
+      // The cache was evicted and closed after it was looked up. Retry once with a new cache.
+      if (!retryIfEvicted || clusters.get(clusterName) == connectionInfoCache) {
+        throw e;
+      }
+      return connect(config, deadline, false);
+    }
+    return connect(config, connectionInfoCache, connectionInfo, deadline);
+  }
+
+  /**
+   * Connects to an instance without blocking the caller. The connection info is looked up without
+   * holding a thread while the certificate or metadata is fetched. Once it is available, the socket
+   * is opened, and the TLS handshake and metadata exchange run, on socketExecutor.
+   */
+  ListenableFuture<Socket> connectAsync(ConnectionConfig config, Executor socketExecutor) {
+    return connectAsync(config, socketExecutor, ConnectDeadline.start(config), true);
+  }
+
+  /**
+   * Opens count connections to an instance without blocking the caller, starting the next one when
+   * one of at most maxParallelism connects in progress completes. The returned futures are in the
+   * order the connects are started. Cancelling a future cancels its connect, or skips it if it has
+   * not started yet.
+   */
+  List<ListenableFuture<Socket>> connectMany(
+      ConnectionConfig config, int count, int maxParallelism, Executor socketExecutor) {
+    List<SettableFuture<Socket>> sockets = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      sockets.add(SettableFuture.create());
+    }
+    AtomicInteger next = new AtomicInteger();
+    for (int i = 0; i < Math.min(count, maxParallelism); i++) {
+      startNextConnect(config, sockets, next, socketExecutor);
+    }
+    return new ArrayList<>(sockets);
+  }
+
+  private void startNextConnect(
+      ConnectionConfig config,
+      List<SettableFuture<Socket>> sockets,
+      AtomicInteger next,
+      Executor socketExecutor) {
+    int i;
+    while ((i = next.getAndIncrement()) < sockets.size()) {
+      SettableFuture<Socket> socket = sockets.get(i);
+      if (socket.isCancelled()) {
+        continue;
+      }
+      ListenableFuture<Socket> f = connectAsync(config, socketExecutor);
+      socket.setFuture(f);
+      f.addListener(
+          () -> startNextConnect(config, sockets, next, socketExecutor),
+          MoreExecutors.directExecutor());
+      return;
+    }
+  }
+
+  private ListenableFuture<Socket> connectAsync(
+      ConnectionConfig config,
+      Executor socketExecutor,
+      ConnectDeadline deadline,
+      boolean retryIfEvicted) {
+    if (!clientConnectorKeyPair.isDone()) {
+      // Wait for the key pair without blocking the caller. Cancelling the connect must not cancel
+      // the key pair, which other connects share.
+      return Futures.transformAsync(
+          withDeadline(Futures.nonCancellationPropagating(clientConnectorKeyPair), deadline),
+          k -> connectAsync(config, socketExecutor, deadline, retryIfEvicted),
+          MoreExecutors.directExecutor());
+    }
+    ClusterName clusterName = getClusterName(config.getInstanceName());
+    ConnectionInfoCache connectionInfoCache;
+    try {
+      connectionInfoCache = getConnectionInfoCache(clusterName);
+    } catch (RuntimeException e) {
+      return Futures.immediateFailedFuture(e);
+    }
+    ListenableFuture<ConnectionInfo> connectionInfo =
+        withDeadline(
+            connectionInfoCache.getConnectionInfoAsync(config.getInstanceName()), deadline);
+    SettableFuture<Socket> socket = SettableFuture.create();
+    Futures.addCallback(
+        connectionInfo,
+        new FutureCallback<ConnectionInfo>() {
+          @Override
+          public void onSuccess(ConnectionInfo info) {
+            try {
+              socketExecutor.execute(
+                  () -> connect(config, connectionInfoCache, info, deadline, socket));
+            } catch (RejectedExecutionException e) {
+              socket.setException(e);
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            socket.setException(t);
+          }
+        },
+        MoreExecutors.directExecutor());
+    if (!retryIfEvicted) {
+      return socket;
+    }
+    return Futures.catchingAsync(
+        socket,
+        IllegalStateException.class,
+        e -> {
+          // The cache was evicted and closed after it was looked up. Retry once with a new cache.
+          if (clusters.get(clusterName) == connectionInfoCache) {
+            throw e;
+          }
+          return connectAsync(config, socketExecutor, deadline, false);
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  /**
+   * Fails the connection info lookup of connectAsync() with the stage that ran out of time when the
+   * deadline passes first. Cancelling the lookup on timeout does not cancel refreshes shared with
+   * other connects.
+   */
+  private <T> ListenableFuture<T> withDeadline(
+      ListenableFuture<T> future, ConnectDeadline deadline) {
+    if (deadline == null || future.isDone()) {
+      return future;
+    }
+    long remainingNanos;
+    try {
+      remainingNanos = deadline.remainingNanos(ConnectDeadline.Stage.CONNECTION_INFO);
+    } catch (SocketTimeoutException e) {
+      return Futures.immediateFailedFuture(e);
+    }
+    return Futures.catchingAsync(
+        Futures.withTimeout(future, remainingNanos, TimeUnit.NANOSECONDS, executor),
+        TimeoutException.class,
+        e -> {
+          throw deadline.exceeded(ConnectDeadline.Stage.CONNECTION_INFO, e);
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  /** Connects on a worker thread for connectAsync(), and closes the socket if it was cancelled. */
+  private void connect(
+      ConnectionConfig config,
+      ConnectionInfoCache connectionInfoCache,
+      ConnectionInfo info,
+      ConnectDeadline deadline,
+      SettableFuture<Socket> result) {
+    if (result.isCancelled()) {
+      return;
+    }
+    try {
+      // Like refreshIfExpired() in getConnection(), start a refresh if the certificate expired
+      // while the refresh cycle could not run.
+      if (Instant.now().isAfter(info.getExpiration())) {
+        connectionInfoCache.forceRefresh();
+      }
+      Socket socket = connect(config, connectionInfoCache, info, deadline);
+      if (!result.set(socket)) {
+        socket.close();
+      }
+    } catch (IOException | RuntimeException e) {
+      result.setException(e);
+    }
+  }
+
+  /**
+   * Takes a socket from the warm socket reserve if there is one, and opens a new one otherwise. The
+   * deadline may be null.
+   */
+  private Socket connect(
+      ConnectionConfig config,
+      ConnectionInfoCache connectionInfoCache,
+      ConnectionInfo connectionInfo,
+      ConnectDeadline deadline)
+      throws IOException {
+    if (warmSocketExecutor != null) {
+      Socket socket = getWarmSocketReserve(config).take(connectionInfo.getCertificateInfo());
+      metrics.recordWarmSocketReserveTake(socket != null);
+      if (socket != null) {
+        return socket;
+      }
+    }
+    return openSocket(config, connectionInfoCache, connectionInfo, deadline);
+  }
+
+  private WarmSocketReserve getWarmSocketReserve(ConnectionConfig config) {
+    WarmSocketReserve reserve = warmSocketReserves.get(config);
+    if (reserve != null) {
+      return reserve;
+    }
+    return warmSocketReserves.computeIfAbsent(
+        config,
+        k ->
+            new WarmSocketReserve(
+                config.getInstanceName().toString(),
+                this.config.getWarmSocketReserveSize(),
+                this.config.getWarmSocketMaxIdleTime().toNanos(),
+                () -> openWarmSocket(config),
+                warmSocketExecutor));
+  }
+
+  /**
+   * Opens a socket for the warm socket reserve. Refills run on warmSocketExecutor, so they are
+   * bounded by a deadline even if the config has no connect timeout.
+   */
+  private WarmSocketReserve.WarmSocket openWarmSocket(ConnectionConfig config) throws IOException {
+    ConnectDeadline deadline = ConnectDeadline.start(config);
+    if (deadline == null) {
+      deadline =
+          new ConnectDeadline(
+              config.getInstanceName().toString(), Duration.ofMillis(WARM_SOCKET_TIMEOUT_MS));
+    }
+    ConnectionInfoCache cache = getConnection(config);
+    ConnectionInfo info =
+        deadline.await(
+            cache.getConnectionInfoAsync(config.getInstanceName()),
+            ConnectDeadline.Stage.CONNECTION_INFO);
+    return new WarmSocketReserve.WarmSocket(
+        openSocket(config, cache, info, deadline), info.getCertificateInfo());
+  }
+
+  /**
+   * Closes warm sockets that waited longer than the max idle time before nowNanos, a
+   * System.nanoTime() value.
+   */
+  void closeIdleWarmSockets(long nowNanos) {
+    for (WarmSocketReserve reserve : warmSocketReserves.values()) {
+      reserve.closeIdle(nowNanos);
+    }
+  }
+
+  private Socket openSocket(
+      ConnectionConfig config,
+      ConnectionInfoCache connectionInfoCache,
+      ConnectionInfo connectionInfo,
+      ConnectDeadline deadline)
+      throws IOException {
+    ConnectLimiter limiter = getConnectLimiter(config.getInstanceName());
+    long startNanos = limiter == null ? 0 : acquire(limiter, deadline);
+    boolean succeeded = false;
     try {
       ConnectionSocket socket =
           new ConnectionSocket(
-              connectionInfo, config, clientConnectorKeyPair, accessTokenSupplier, userAgents);
-      return socket.connect();
+              connectionInfo,
+              config,
+              getClientKeyPair(),
+              accessTokenSupplier,
+              userAgents,
+              metrics,
+              dnsCache,
+              workerExecutor);
+      Socket result = socket.connect(deadline);
+      succeeded = true;
+      return result;
     } catch (IOException e) {
       logger.debug(
           String.format(
               "[%s] Socket connection failed! Trigger a refresh.", config.getInstanceName()));
+      connectionInfoCache.refreshInstanceMetadata(config.getInstanceName());
       connectionInfoCache.forceRefresh();
       // The Socket methods above will throw an IOException or a SocketException (subclass of
       // IOException). Catch that exception, trigger a refresh, and then throw it again so
-      // the caller sees the problem, but the connector will have a refreshed certificate on the
-      // next invocation.
+      // the caller sees the problem, but the connector will have refreshed instance metadata and
+      // a refreshed certificate on the next invocation.
       throw e;
+    } finally {
+      if (limiter != null) {
+        limiter.release(startNanos, succeeded);
+      }
+    }
+  }
+
+  /** Waits for the connect limit, for at most the queue timeout and the time left. */
+  private long acquire(ConnectLimiter limiter, ConnectDeadline deadline) throws IOException {
+    long timeoutNanos = this.config.getConnectQueueTimeout().toNanos();
+    if (deadline == null) {
+      return limiter.acquire(timeoutNanos);
+    }
+    long remainingNanos = deadline.remainingNanos(ConnectDeadline.Stage.CONNECT_QUEUE);
+    try {
+      return limiter.acquire(Math.min(timeoutNanos, remainingNanos));
+    } catch (SocketTimeoutException e) {
+      throw remainingNanos < timeoutNanos
+          ? deadline.exceeded(ConnectDeadline.Stage.CONNECT_QUEUE, e)
+          : e;
+    }
+  }
+
+  private ConnectLimiter getConnectLimiter(InstanceName instanceName) {
+    if (this.config.getMaxConcurrentConnects() == 0) {
+      return null;
+    }
+    ConnectLimiter limiter = connectLimiters.get(instanceName);
+    if (limiter != null) {
+      return limiter;
     }
+    return connectLimiters.computeIfAbsent(
+        instanceName,
+        k ->
+            new ConnectLimiter(
+                instanceName.toString(), this.config.getMaxConcurrentConnects(), metrics));
   }
 
   ConnectionInfoCache getConnection(ConnectionConfig config) {
-    ConnectionInfoCache instance =
-        instances.computeIfAbsent(config, k -> createConnectionInfo(config));
+    ConnectionInfoCache instance = getConnectionInfoCache(getClusterName(config.getInstanceName()));
 
     // If the client certificate has expired (as when the computer goes to
     // sleep, and the refresh cycle cannot run), force a refresh immediately.
@@ -104,14 +575,124 @@ class Connector {
     return instance;
   }
 
-  private ConnectionInfoCache createConnectionInfo(ConnectionConfig config) {
-    logger.debug(String.format("[%s] Connection info added to cache.", config.getInstanceName()));
+  /**
+   * Returns the cache of a cluster, creating it if needed. The client certificate is issued for the
+   * cluster, so every instance and IP type of a cluster shares one cache and one refresh cycle.
+   */
+  private ConnectionInfoCache getConnectionInfoCache(ClusterName clusterName) {
+    // Try a plain read first, computeIfAbsent may lock even when the cache exists.
+    ConnectionInfoCache instance = clusters.get(clusterName);
+    if (instance == null) {
+      // Wait for the key pair before computeIfAbsent, which blocks other threads that hash to the
+      // same bin.
+      KeyPair keyPair = getClientKeyPair();
+      instance =
+          clusters.computeIfAbsent(clusterName, k -> createConnectionInfo(clusterName, keyPair));
+      markUsed(clusterName);
+      if (maxSize > 0 && clusters.size() > maxSize) {
+        evictLeastRecentlyUsed();
+      }
+    } else {
+      markUsed(clusterName);
+    }
+    return instance;
+  }
+
+  private KeyPair getClientKeyPair() {
+    try {
+      return Uninterruptibles.getUninterruptibly(clientConnectorKeyPair);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException("Failed to generate the client key pair.", e.getCause());
+    }
+  }
+
+  private ConnectionInfoCache createConnectionInfo(ClusterName clusterName, KeyPair keyPair) {
+    logger.debug(String.format("[%s] Connection info added to cache.", clusterName));
+    metrics.recordConnectionInfoCacheAdded();
+    if (isEvictionEnabled()) {
+      lastUsedNanos.put(clusterName, new AtomicLong(System.nanoTime()));
+    }
     return connectionInfoCacheFactory.create(
-        this.executor,
-        this.connectionInfoRepo,
-        config.getInstanceName(),
-        this.clientConnectorKeyPair,
-        MIN_RATE_LIMIT_MS);
+        this.executor, this.connectionInfoRepo, clusterName, keyPair, MIN_RATE_LIMIT_MS);
+  }
+
+  private boolean isEvictionEnabled() {
+    return idleTimeoutNanos > 0 || maxSize > 0;
+  }
+
+  private void markUsed(ClusterName clusterName) {
+    if (!isEvictionEnabled()) {
+      return;
+    }
+    // The timestamp is added when the cache is created, and is missing once it was evicted.
+    AtomicLong t = lastUsedNanos.get(clusterName);
+    if (t != null) {
+      t.set(System.nanoTime());
+    }
+  }
+
+  /**
+   * Evicts the connection info of clusters that were not used within the idle timeout before
+   * nowNanos, a System.nanoTime() value.
+   */
+  void evictIdle(long nowNanos) {
+    for (Map.Entry<ClusterName, ConnectionInfoCache> e : clusters.entrySet()) {
+      AtomicLong t = lastUsedNanos.get(e.getKey());
+      if (t != null && nowNanos - t.get() > idleTimeoutNanos) {
+        evict(e.getKey(), e.getValue(), "idle");
+      }
+    }
+  }
+
+  private void evictLeastRecentlyUsed() {
+    while (clusters.size() > maxSize) {
+      Map.Entry<ClusterName, ConnectionInfoCache> oldest = null;
+      long oldestNanos = 0;
+      for (Map.Entry<ClusterName, ConnectionInfoCache> e : clusters.entrySet()) {
+        AtomicLong t = lastUsedNanos.get(e.getKey());
+        // Compare the difference, System.nanoTime() values may overflow.
+        if (t != null && (oldest == null || t.get() - oldestNanos < 0)) {
+          oldest = e;
+          oldestNanos = t.get();
+        }
+      }
+      if (oldest == null) {
+        return;
+      }
+      evict(oldest.getKey(), oldest.getValue(), "least recently used");
+    }
+  }
+
+  private void evict(ClusterName clusterName, ConnectionInfoCache cache, String reason) {
+    AtomicLong t = lastUsedNanos.get(clusterName);
+    if (!clusters.remove(clusterName, cache)) {
+      return;
+    }
+    // Only remove the timestamp of this cache, not of a new cache created in the meantime.
+    if (t != null) {
+      lastUsedNanos.remove(clusterName, t);
+    }
+    logger.debug(
+        String.format("[%s] Connection info evicted from cache, %s.", clusterName, reason));
+    // Close the warm sockets of the cluster too, refilling them would keep it in use.
+    warmSocketReserves.forEach(
+        (key, r) -> {
+          if (getClusterName(key.getInstanceName()).equals(clusterName)
+              && warmSocketReserves.remove(key, r)) {
+            r.close();
+          }
+        });
+    connectLimiters
+        .keySet()
+        .removeIf(instanceName -> getClusterName(instanceName).equals(clusterName));
+    cache.close();
+    metrics.recordConnectionInfoCacheRemoved(true);
+  }
+
+  private static ClusterName getClusterName(InstanceName instanceName) {
+    return ClusterName.of(
+        instanceName.getProject(), instanceName.getLocation(), instanceName.getCluster());
   }
 
   @Override
@@ -128,7 +709,7 @@ class Connector {
         && Objects.equal(connectionInfoRepo, that.connectionInfoRepo)
         && Objects.equal(clientConnectorKeyPair, that.clientConnectorKeyPair)
         && Objects.equal(connectionInfoCacheFactory, that.connectionInfoCacheFactory)
-        && Objects.equal(instances, that.instances)
+        && Objects.equal(clusters, that.clusters)
         && Objects.equal(accessTokenSupplier, that.accessTokenSupplier)
         && Objects.equal(userAgents, that.userAgents);
   }
@@ -141,7 +722,7 @@ class Connector {
         connectionInfoRepo,
         clientConnectorKeyPair,
         connectionInfoCacheFactory,
-        instances,
+        clusters,
         accessTokenSupplier,
         userAgents);
   }
@@ -18,7 +18,11 @@ package com.google.cloud.alloydb;
 
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.common.base.Objects;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
 
 /**
@@ -27,6 +31,21 @@ import java.util.function.Supplier;
  */
 public class ConnectorConfig {
 
+  static final Duration DEFAULT_CERTIFICATE_DURATION = Duration.ofHours(1);
+  static final Duration MAX_CERTIFICATE_DURATION = Duration.ofHours(24);
+  static final Duration DEFAULT_ADAPTIVE_REFRESH_IDLE_TIMEOUT = Duration.ofMinutes(30);
+  // Zero disables eviction of idle connection info caches.
+  static final Duration DEFAULT_CONNECTION_INFO_CACHE_IDLE_TIMEOUT = Duration.ZERO;
+  // Zero does not bound the number of connection info caches.
+  static final int DEFAULT_CONNECTION_INFO_CACHE_MAX_SIZE = 0;
+  // Zero disables the warm socket reserve.
+  static final int DEFAULT_WARM_SOCKET_RESERVE_SIZE = 0;
+  static final Duration DEFAULT_WARM_SOCKET_MAX_IDLE_TIME = Duration.ofSeconds(30);
+  // Zero does not limit concurrent connects.
+  static final int DEFAULT_MAX_CONCURRENT_CONNECTS = 0;
+  static final Duration DEFAULT_CONNECT_QUEUE_TIMEOUT = Duration.ofSeconds(30);
+  static final ClientKeyType DEFAULT_CLIENT_KEY_TYPE = ClientKeyType.RSA_2048;
+
   // go into ConnectorConfig
   private final String targetPrincipal;
   private final List<String> delegates;
@@ -36,6 +55,19 @@ public class ConnectorConfig {
   private final String googleCredentialsPath;
   private final String quotaProject;
   private final RefreshStrategy refreshStrategy;
+  private final boolean tlsSessionResumption;
+  private final Duration certificateDuration;
+  private final Duration adaptiveRefreshIdleTimeout;
+  private final Duration connectionInfoCacheIdleTimeout;
+  private final int connectionInfoCacheMaxSize;
+  private final int warmSocketReserveSize;
+  private final Duration warmSocketMaxIdleTime;
+  private final int maxConcurrentConnects;
+  private final Duration connectQueueTimeout;
+  private final ClientKeyType clientKeyType;
+  private final ScheduledExecutorService executor;
+  // The config is immutable, and is used as a map key for every connection.
+  private final int hashCode;
 
   private ConnectorConfig(
       String targetPrincipal,
@@ -45,15 +77,60 @@ public class ConnectorConfig {
       GoogleCredentials googleCredentials,
       String googleCredentialsPath,
       String quotaProject,
-      RefreshStrategy refreshStrategy) {
+      RefreshStrategy refreshStrategy,
+      boolean tlsSessionResumption,
+      Duration certificateDuration,
+      Duration adaptiveRefreshIdleTimeout,
+      Duration connectionInfoCacheIdleTimeout,
+      int connectionInfoCacheMaxSize,
+      int warmSocketReserveSize,
+      Duration warmSocketMaxIdleTime,
+      int maxConcurrentConnects,
+      Duration connectQueueTimeout,
+      ClientKeyType clientKeyType,
+      ScheduledExecutorService executor) {
     this.targetPrincipal = targetPrincipal;
-    this.delegates = delegates;
+    // Copy the delegates, so that changes to the caller's list cannot change the hash code.
+    this.delegates =
+        delegates == null ? null : Collections.unmodifiableList(new ArrayList<>(delegates));
     this.adminServiceEndpoint = adminServiceEndpoint;
     this.googleCredentialsSupplier = googleCredentialsSupplier;
     this.googleCredentials = googleCredentials;
     this.googleCredentialsPath = googleCredentialsPath;
     this.quotaProject = quotaProject;
     this.refreshStrategy = refreshStrategy;
+    this.tlsSessionResumption = tlsSessionResumption;
+    this.certificateDuration = certificateDuration;
+    this.adaptiveRefreshIdleTimeout = adaptiveRefreshIdleTimeout;
+    this.connectionInfoCacheIdleTimeout = connectionInfoCacheIdleTimeout;
+    this.connectionInfoCacheMaxSize = connectionInfoCacheMaxSize;
+    this.warmSocketReserveSize = warmSocketReserveSize;
+    this.warmSocketMaxIdleTime = warmSocketMaxIdleTime;
+    this.maxConcurrentConnects = maxConcurrentConnects;
+    this.connectQueueTimeout = connectQueueTimeout;
+    this.clientKeyType = clientKeyType;
+    this.executor = executor;
+    this.hashCode =
+        Objects.hashCode(
+            targetPrincipal,
+            delegates,
+            adminServiceEndpoint,
+            googleCredentialsSupplier,
+            googleCredentials,
+            googleCredentialsPath,
+            quotaProject,
+            refreshStrategy,
+            tlsSessionResumption,
+            certificateDuration,
+            adaptiveRefreshIdleTimeout,
+            connectionInfoCacheIdleTimeout,
+            connectionInfoCacheMaxSize,
+            warmSocketReserveSize,
+            warmSocketMaxIdleTime,
+            maxConcurrentConnects,
+            connectQueueTimeout,
+            clientKeyType,
+            executor);
   }
 
   @Override
@@ -72,20 +149,23 @@ public class ConnectorConfig {
         && Objects.equal(googleCredentials, that.googleCredentials)
         && Objects.equal(googleCredentialsPath, that.googleCredentialsPath)
         && Objects.equal(quotaProject, that.quotaProject)
-        && Objects.equal(refreshStrategy, that.refreshStrategy);
+        && Objects.equal(refreshStrategy, that.refreshStrategy)
+        && tlsSessionResumption == that.tlsSessionResumption
+        && Objects.equal(certificateDuration, that.certificateDuration)
+        && Objects.equal(adaptiveRefreshIdleTimeout, that.adaptiveRefreshIdleTimeout)
+        && Objects.equal(connectionInfoCacheIdleTimeout, that.connectionInfoCacheIdleTimeout)
+        && connectionInfoCacheMaxSize == that.connectionInfoCacheMaxSize
+        && warmSocketReserveSize == that.warmSocketReserveSize
+        && Objects.equal(warmSocketMaxIdleTime, that.warmSocketMaxIdleTime)
+        && maxConcurrentConnects == that.maxConcurrentConnects
+        && Objects.equal(connectQueueTimeout, that.connectQueueTimeout)
+        && Objects.equal(clientKeyType, that.clientKeyType)
+        && Objects.equal(executor, that.executor);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(
-        targetPrincipal,
-        delegates,
-        adminServiceEndpoint,
-        googleCredentialsSupplier,
-        googleCredentials,
-        googleCredentialsPath,
-        quotaProject,
-        refreshStrategy);
+    return hashCode;
   }
 
   public String getTargetPrincipal() {
@@ -120,6 +200,50 @@ public class ConnectorConfig {
     return refreshStrategy;
   }
 
+  public boolean isTlsSessionResumption() {
+    return tlsSessionResumption;
+  }
+
+  public Duration getCertificateDuration() {
+    return certificateDuration;
+  }
+
+  public Duration getAdaptiveRefreshIdleTimeout() {
+    return adaptiveRefreshIdleTimeout;
+  }
+
+  public Duration getConnectionInfoCacheIdleTimeout() {
+    return connectionInfoCacheIdleTimeout;
+  }
+
+  public int getConnectionInfoCacheMaxSize() {
+    return connectionInfoCacheMaxSize;
+  }
+
+  public int getWarmSocketReserveSize() {
+    return warmSocketReserveSize;
+  }
+
+  public Duration getWarmSocketMaxIdleTime() {
+    return warmSocketMaxIdleTime;
+  }
+
+  public int getMaxConcurrentConnects() {
+    return maxConcurrentConnects;
+  }
+
+  public Duration getConnectQueueTimeout() {
+    return connectQueueTimeout;
+  }
+
+  public ClientKeyType getClientKeyType() {
+    return clientKeyType;
+  }
+
+  public ScheduledExecutorService getExecutor() {
+    return executor;
+  }
+
   /** The builder for the ConnectionConfig. */
   public static class Builder {
 
@@ -131,6 +255,17 @@ public class ConnectorConfig {
     private String googleCredentialsPath;
     private String quotaProject;
     private RefreshStrategy refreshStrategy;
+    private boolean tlsSessionResumption;
+    private Duration certificateDuration = DEFAULT_CERTIFICATE_DURATION;
+    private Duration adaptiveRefreshIdleTimeout = DEFAULT_ADAPTIVE_REFRESH_IDLE_TIMEOUT;
+    private Duration connectionInfoCacheIdleTimeout = DEFAULT_CONNECTION_INFO_CACHE_IDLE_TIMEOUT;
+    private int connectionInfoCacheMaxSize = DEFAULT_CONNECTION_INFO_CACHE_MAX_SIZE;
+    private int warmSocketReserveSize = DEFAULT_WARM_SOCKET_RESERVE_SIZE;
+    private Duration warmSocketMaxIdleTime = DEFAULT_WARM_SOCKET_MAX_IDLE_TIME;
+    private int maxConcurrentConnects = DEFAULT_MAX_CONCURRENT_CONNECTS;
+    private Duration connectQueueTimeout = DEFAULT_CONNECT_QUEUE_TIMEOUT;
+    private ClientKeyType clientKeyType = DEFAULT_CLIENT_KEY_TYPE;
+    private ScheduledExecutorService executor;
 
     public Builder withTargetPrincipal(String targetPrincipal) {
       this.targetPrincipal = targetPrincipal;
@@ -173,6 +308,116 @@ public class ConnectorConfig {
       return this;
     }
 
+    /**
+     * Enables TLS 1.3 session resumption. When enabled, new connections to an instance resume a
+     * previous TLS session where possible instead of doing a full handshake. Sessions are discarded
+     * when the client certificate is refreshed.
+     */
+    public Builder withTlsSessionResumption(boolean tlsSessionResumption) {
+      this.tlsSessionResumption = tlsSessionResumption;
+      return this;
+    }
+
+    /**
+     * Sets the requested lifetime of the client certificates. Longer lifetimes mean fewer
+     * certificate refreshes. The duration must be longer than the 4 minute refresh buffer and at
+     * most 24 hours. Defaults to 1 hour.
+     */
+    public Builder withCertificateDuration(Duration certificateDuration) {
+      this.certificateDuration = certificateDuration;
+      return this;
+    }
+
+    /**
+     * Sets how long the {@link RefreshStrategy#ADAPTIVE} strategy keeps refreshing certificates in
+     * the background after the last connection. The duration must be positive. Defaults to 30
+     * minutes.
+     */
+    public Builder withAdaptiveRefreshIdleTimeout(Duration adaptiveRefreshIdleTimeout) {
+      this.adaptiveRefreshIdleTimeout = adaptiveRefreshIdleTimeout;
+      return this;
+    }
+
+    /**
+     * Sets how long the connection info of a cluster is kept after the last connection to it. Once
+     * evicted, its certificates are no longer refreshed, and the next connection to the cluster
+     * fetches them again. Zero, the default, keeps the connection info until the connector is
+     * closed.
+     */
+    public Builder withConnectionInfoCacheIdleTimeout(Duration connectionInfoCacheIdleTimeout) {
+      this.connectionInfoCacheIdleTimeout = connectionInfoCacheIdleTimeout;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of clusters whose connection info is kept. When a connection to a new
+     * cluster exceeds the maximum, the least recently used cluster is evicted. Zero, the default,
+     * does not limit the number of clusters.
+     */
+    public Builder withConnectionInfoCacheMaxSize(int connectionInfoCacheMaxSize) {
+      this.connectionInfoCacheMaxSize = connectionInfoCacheMaxSize;
+      return this;
+    }
+
+    /**
+     * Sets the number of sockets per instance that are kept connected, past the TLS handshake and
+     * the metadata exchange, and are handed out by the next connections without delay. Sockets
+     * taken from the reserve are replaced in the background. Zero, the default, disables the
+     * reserve.
+     */
+    public Builder withWarmSocketReserveSize(int warmSocketReserveSize) {
+      this.warmSocketReserveSize = warmSocketReserveSize;
+      return this;
+    }
+
+    /**
+     * Sets how long a socket may wait in the warm socket reserve before it is closed. The default
+     * is 30 seconds.
+     */
+    public Builder withWarmSocketMaxIdleTime(Duration warmSocketMaxIdleTime) {
+      this.warmSocketMaxIdleTime = warmSocketMaxIdleTime;
+      return this;
+    }
+
+    /**
+     * Sets the most sockets per instance that may run their TLS handshake at the same time. The
+     * connector lowers the limit while connects fail or slow down, and raises it again as they
+     * succeed. Connects over the limit wait for the connect queue timeout. Zero, the default, does
+     * not limit concurrent connects.
+     */
+    public Builder withMaxConcurrentConnects(int maxConcurrentConnects) {
+      this.maxConcurrentConnects = maxConcurrentConnects;
+      return this;
+    }
+
+    /**
+     * Sets how long a connect may wait for the concurrent connect limit before it fails with a
+     * {@link java.net.SocketTimeoutException}. The default is 30 seconds.
+     */
+    public Builder withConnectQueueTimeout(Duration connectQueueTimeout) {
+      this.connectQueueTimeout = connectQueueTimeout;
+      return this;
+    }
+
+    /**
+     * Sets the type of key pair the connector generates for its client certificates. The default is
+     * {@link ClientKeyType#RSA_2048}.
+     */
+    public Builder withClientKeyType(ClientKeyType clientKeyType) {
+      this.clientKeyType = clientKeyType;
+      return this;
+    }
+
+    /**
+     * Sets the executor that schedules certificate refreshes and runs their callbacks. The
+     * connector does not shut it down. By default, all connectors share a small scheduled thread
+     * pool. See {@link ConnectorExecutors} for an executor that runs refreshes in parallel.
+     */
+    public Builder withExecutor(ScheduledExecutorService executor) {
+      this.executor = executor;
+      return this;
+    }
+
     /** Builds a new instance of {@code ConnectionConfig}. */
     public ConnectorConfig build() {
       // validate only one GoogleCredentials configuration field set
@@ -192,6 +437,73 @@ public class ConnectorConfig {
                 + "(googleCredentials, googleCredentialsPath, googleCredentialsSupplier)");
       }
 
+      if (certificateDuration == null
+          || certificateDuration.compareTo(RefreshCalculator.DEFAULT_REFRESH_BUFFER) <= 0
+          || certificateDuration.compareTo(MAX_CERTIFICATE_DURATION) > 0) {
+        throw new IllegalStateException(
+            String.format(
+                "Invalid configuration, certificateDuration must be longer than %s and at most %s,"
+                    + " got %s",
+                RefreshCalculator.DEFAULT_REFRESH_BUFFER,
+                MAX_CERTIFICATE_DURATION,
+                certificateDuration));
+      }
+
+      if (adaptiveRefreshIdleTimeout == null
+          || adaptiveRefreshIdleTimeout.isZero()
+          || adaptiveRefreshIdleTimeout.isNegative()) {
+        throw new IllegalStateException(
+            String.format(
+                "Invalid configuration, adaptiveRefreshIdleTimeout must be positive, got %s",
+                adaptiveRefreshIdleTimeout));
+      }
+
+      if (connectionInfoCacheIdleTimeout == null || connectionInfoCacheIdleTimeout.isNegative()) {
+        throw new IllegalStateException(
+            String.format(
+                "Invalid configuration, connectionInfoCacheIdleTimeout must not be negative, got"
+                    + " %s",
+                connectionInfoCacheIdleTimeout));
+      }
+      if (connectionInfoCacheMaxSize < 0) {
+        throw new IllegalStateException(
+            String.format(
+                "Invalid configuration, connectionInfoCacheMaxSize must not be negative, got %d",
+                connectionInfoCacheMaxSize));
+      }
+
+      if (warmSocketReserveSize < 0) {
+        throw new IllegalStateException(
+            String.format(
+                "Invalid configuration, warmSocketReserveSize must not be negative, got %d",
+                warmSocketReserveSize));
+      }
+      if (warmSocketMaxIdleTime == null
+          || warmSocketMaxIdleTime.isZero()
+          || warmSocketMaxIdleTime.isNegative()) {
+        throw new IllegalStateException(
+            String.format(
+                "Invalid configuration, warmSocketMaxIdleTime must be positive, got %s",
+                warmSocketMaxIdleTime));
+      }
+
+      if (maxConcurrentConnects < 0) {
+        throw new IllegalStateException(
+            String.format(
+                "Invalid configuration, maxConcurrentConnects must not be negative, got %d",
+                maxConcurrentConnects));
+      }
+      if (connectQueueTimeout == null || connectQueueTimeout.isNegative()) {
+        throw new IllegalStateException(
+            String.format(
+                "Invalid configuration, connectQueueTimeout must not be negative, got %s",
+                connectQueueTimeout));
+      }
+
+      if (clientKeyType == null) {
+        throw new IllegalStateException("Invalid configuration, clientKeyType must not be null");
+      }
+
       return new ConnectorConfig(
           targetPrincipal,
           delegates,
@@ -200,7 +512,18 @@ public class ConnectorConfig {
           googleCredentials,
           googleCredentialsPath,
           quotaProject,
-          refreshStrategy);
+          refreshStrategy,
+          tlsSessionResumption,
+          certificateDuration,
+          adaptiveRefreshIdleTimeout,
+          connectionInfoCacheIdleTimeout,
+          connectionInfoCacheMaxSize,
+          warmSocketReserveSize,
+          warmSocketMaxIdleTime,
+          maxConcurrentConnects,
+          connectQueueTimeout,
+          clientKeyType,
+          executor);
     }
   }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates executors for use with {@link ConnectorConfig.Builder#withExecutor}. By default, all
+ * connectors share a small scheduled thread pool.
+ */
+public final class ConnectorExecutors {
+
+  private static final Logger logger = LoggerFactory.getLogger(ConnectorExecutors.class);
+
+  private ConnectorExecutors() {}
+
+  /**
+   * Returns an executor that keeps time on a single thread and runs certificate refreshes and their
+   * callbacks on separate worker threads. On Java 21 and later the workers are virtual threads,
+   * otherwise they come from a cached thread pool. Use it when many clusters refresh at the same
+   * time. The caller owns the executor and should shut it down when its connectors are closed.
+   */
+  public static ScheduledExecutorService newSplitScheduledExecutor() {
+    return new SplitScheduledExecutorService();
+  }
+
+  /**
+   * Returns an executor for tasks that block, like opening sockets. It runs each task on a virtual
+   * thread on Java 21 and later, and on a cached pool of daemon threads otherwise. Virtual threads
+   * are looked up reflectively so that the connector still runs on Java 8.
+   */
+  static ExecutorService newWorkerExecutor() {
+    try {
+      Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) m.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      logger.debug("Virtual threads are not available, using a cached thread pool.");
+      return Executors.newCachedThreadPool(
+          r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+          });
+    }
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConnectorMetrics holds counters describing the work done by the AlloyDB connectors. Apart from
+ * the connection info cache size, the counters only ever increase, so callers should sample them
+ * periodically and compute the difference. Use {@link ConnectorRegistry#getMetrics()} to get the
+ * metrics of the AlloyDB JDBC Connector.
+ */
+public final class ConnectorMetrics {
+
+  private final LongAdder tlsSessionResumptionHits = new LongAdder();
+  private final LongAdder tlsSessionResumptionMisses = new LongAdder();
+  private final LongAdder connectionInfoCacheSize = new LongAdder();
+  private final LongAdder connectionInfoCacheEvictions = new LongAdder();
+  private final LongAdder warmSocketReserveHits = new LongAdder();
+  private final LongAdder warmSocketReserveMisses = new LongAdder();
+  private final LongAdder connectsQueued = new LongAdder();
+  private final LongAdder connectQueueTimeNanos = new LongAdder();
+  private final LongAdder connectQueueTimeouts = new LongAdder();
+  private final LongAdder keyPairsGenerated = new LongAdder();
+  private final LongAdder keyPairGenerationTimeNanos = new LongAdder();
+  // The executors used by the connectors. Weak, so that executors of closed connectors are not
+  // kept.
+  private final Set<Executor> executors =
+      Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+  ConnectorMetrics() {}
+
+  /**
+   * Returns the number of connections that resumed a previous TLS session. Only connectors with TLS
+   * session resumption enabled are counted.
+   */
+  public long getTlsSessionResumptionHits() {
+    return tlsSessionResumptionHits.sum();
+  }
+
+  /**
+   * Returns the number of connections that did a full TLS handshake because there was no session to
+   * resume. Only connectors with TLS session resumption enabled are counted.
+   */
+  public long getTlsSessionResumptionMisses() {
+    return tlsSessionResumptionMisses.sum();
+  }
+
+  /**
+   * Returns the number of clusters whose connection info is currently cached, summed over all
+   * connectors.
+   */
+  public long getConnectionInfoCacheSize() {
+    return connectionInfoCacheSize.sum();
+  }
+
+  /**
+   * Returns the number of clusters whose connection info was evicted because it was idle or because
+   * the cache was full.
+   */
+  public long getConnectionInfoCacheEvictions() {
+    return connectionInfoCacheEvictions.sum();
+  }
+
+  /**
+   * Returns the number of connections that were handed a socket from the warm socket reserve. Only
+   * connectors with a warm socket reserve are counted.
+   */
+  public long getWarmSocketReserveHits() {
+    return warmSocketReserveHits.sum();
+  }
+
+  /**
+   * Returns the number of connections that opened their own socket because the warm socket reserve
+   * was empty. Only connectors with a warm socket reserve are counted.
+   */
+  public long getWarmSocketReserveMisses() {
+    return warmSocketReserveMisses.sum();
+  }
+
+  /**
+   * Returns the number of connections that waited for the concurrent connect limit. Only connectors
+   * with a concurrent connect limit are counted.
+   */
+  public long getConnectsQueued() {
+    return connectsQueued.sum();
+  }
+
+  /**
+   * Returns the total time, in nanoseconds, that connections waited for the concurrent connect
+   * limit. Divide its increase by the increase of {@link #getConnectsQueued()} for the average
+   * wait.
+   */
+  public long getConnectQueueTimeNanos() {
+    return connectQueueTimeNanos.sum();
+  }
+
+  /**
+   * Returns the number of connections that failed because they waited longer than the connect queue
+   * timeout.
+   */
+  public long getConnectQueueTimeouts() {
+    return connectQueueTimeouts.sum();
+  }
+
+  /** Returns the number of client key pairs that were generated. */
+  public long getKeyPairsGenerated() {
+    return keyPairsGenerated.sum();
+  }
+
+  /**
+   * Returns the total time, in nanoseconds, spent generating client key pairs. Key pairs are
+   * generated in the background, but the first connection of a connector waits for its key pair.
+   */
+  public long getKeyPairGenerationTimeNanos() {
+    return keyPairGenerationTimeNanos.sum();
+  }
+
+  /**
+   * Returns the number of tasks that are due on the connectors' executors but have not started yet.
+   * A growing queue means that certificate refreshes wait for each other. Executors supplied with
+   * {@link ConnectorConfig.Builder#withExecutor} are only counted if they are a {@link
+   * ScheduledThreadPoolExecutor} or were created by {@link ConnectorExecutors}.
+   */
+  public long getExecutorQueueDepth() {
+    long depth = 0;
+    synchronized (executors) {
+      for (Executor executor : executors) {
+        depth += getQueueDepth(executor);
+      }
+    }
+    return depth;
+  }
+
+  private static long getQueueDepth(Executor executor) {
+    if (executor instanceof SplitScheduledExecutorService) {
+      return ((SplitScheduledExecutorService) executor).getQueueDepth();
+    }
+    if (executor instanceof ScheduledThreadPoolExecutor) {
+      // The queue also holds tasks scheduled for later, like the next refresh. Only count the tasks
+      // that are due.
+      long depth = 0;
+      for (Runnable r : ((ScheduledThreadPoolExecutor) executor).getQueue()) {
+        if (!(r instanceof Delayed) || ((Delayed) r).getDelay(TimeUnit.NANOSECONDS) <= 0) {
+          depth++;
+        }
+      }
+      return depth;
+    }
+    return 0;
+  }
+
+  /** Tracks the queue depth of the executor. Does nothing if it is null or already tracked. */
+  void addExecutor(Executor executor) {
+    if (executor != null) {
+      executors.add(executor);
+    }
+  }
+
+  void recordTlsSessionResumption(boolean resumed) {
+    if (resumed) {
+      tlsSessionResumptionHits.increment();
+    } else {
+      tlsSessionResumptionMisses.increment();
+    }
+  }
+
+  void recordWarmSocketReserveTake(boolean hit) {
+    if (hit) {
+      warmSocketReserveHits.increment();
+    } else {
+      warmSocketReserveMisses.increment();
+    }
+  }
+
+  void recordConnectQueued(long queueTimeNanos, boolean timedOut) {
+    connectsQueued.increment();
+    connectQueueTimeNanos.add(queueTimeNanos);
+    if (timedOut) {
+      connectQueueTimeouts.increment();
+    }
+  }
+
+  void recordKeyPairGenerated(long generationTimeNanos) {
+    keyPairsGenerated.increment();
+    keyPairGenerationTimeNanos.add(generationTimeNanos);
+  }
+
+  void recordConnectionInfoCacheAdded() {
+    connectionInfoCacheSize.increment();
+  }
+
+  void recordConnectionInfoCacheRemoved(boolean evicted) {
+    connectionInfoCacheSize.decrement();
+    if (evicted) {
+      connectionInfoCacheEvictions.increment();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ConnectorMetrics{"
+        + "tlsSessionResumptionHits="
+        + getTlsSessionResumptionHits()
+        + ", tlsSessionResumptionMisses="
+        + getTlsSessionResumptionMisses()
+        + ", connectionInfoCacheSize="
+        + getConnectionInfoCacheSize()
+        + ", connectionInfoCacheEvictions="
+        + getConnectionInfoCacheEvictions()
+        + ", warmSocketReserveHits="
+        + getWarmSocketReserveHits()
+        + ", warmSocketReserveMisses="
+        + getWarmSocketReserveMisses()
+        + ", connectsQueued="
+        + getConnectsQueued()
+        + ", connectQueueTimeNanos="
+        + getConnectQueueTimeNanos()
+        + ", connectQueueTimeouts="
+        + getConnectQueueTimeouts()
+        + ", keyPairsGenerated="
+        + getKeyPairsGenerated()
+        + ", keyPairGenerationTimeNanos="
+        + getKeyPairGenerationTimeNanos()
+        + ", executorQueueDepth="
+        + getExecutorQueueDepth()
+        + '}';
+  }
+}
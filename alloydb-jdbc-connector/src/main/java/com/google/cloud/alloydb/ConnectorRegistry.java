@@ -15,11 +15,18 @@
  */
 package com.google.cloud.alloydb;
 
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
 /** Configure the AlloyDB JDBC Connector. */
 public final class ConnectorRegistry {
 
   /**
-   * Register a named connection so that it can later be referenced by name in a JDBC or R2DBC URL.
+   * Register a named connection so that it can later be referenced by name in a JDBC URL, or in the
+   * properties passed to {@link #connectAsync(String, Properties)}.
    *
    * @param name the named connection name.
    * @param config the full configuration of the connection.
@@ -28,6 +35,79 @@ public final class ConnectorRegistry {
     InternalConnectorRegistry.INSTANCE.register(name, config);
   }
 
+  /**
+   * Opens a connection to an AlloyDB instance without blocking the calling thread. The certificate
+   * and instance metadata are looked up without holding a thread while they are fetched. Then the
+   * socket is opened, and the TLS handshake and metadata exchange run, on a virtual thread on Java
+   * 21 and later, and on a pooled thread otherwise. Errors are reported through the returned
+   * future.
+   *
+   * @param instanceName the instance name, in the form
+   *     projects/PROJECT/locations/REGION/clusters/CLUSTER/instances/INSTANCE.
+   * @param connectionProperties the connector configuration properties, as in a JDBC URL. For
+   *     example, alloydbIpType or alloydbNamedConnector. May be null.
+   * @return a future of a socket connected to the instance.
+   */
+  public static CompletableFuture<Socket> connectAsync(
+      String instanceName, Properties connectionProperties) {
+    ConnectionConfig config;
+    try {
+      config = toConnectionConfig(instanceName, connectionProperties);
+    } catch (RuntimeException e) {
+      CompletableFuture<Socket> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    return InternalConnectorRegistry.INSTANCE.connectAsync(config);
+  }
+
+  /**
+   * Opens count connections to an AlloyDB instance concurrently, for example to fill a connection
+   * pool at startup. At most maxParallelism connections are being opened at a time, and each one
+   * starts as soon as an earlier one completes. Like {@link #connectAsync(String, Properties)},
+   * this does not block the calling thread.
+   *
+   * <p>The futures are returned in the order the connections were started, and complete as each
+   * connection is opened or fails. Cancelling a future that has not started yet skips its
+   * connection, and a socket opened for a cancelled future is closed.
+   *
+   * @param instanceName the instance name, in the form
+   *     projects/PROJECT/locations/REGION/clusters/CLUSTER/instances/INSTANCE.
+   * @param connectionProperties the connector configuration properties, as in a JDBC URL. May be
+   *     null.
+   * @param count the number of connections to open.
+   * @param maxParallelism the maximum number of connections to open at a time.
+   * @return a future of a socket connected to the instance for each connection.
+   */
+  public static List<CompletableFuture<Socket>> connectMany(
+      String instanceName, Properties connectionProperties, int count, int maxParallelism) {
+    ConnectionConfig config;
+    try {
+      config = toConnectionConfig(instanceName, connectionProperties);
+    } catch (RuntimeException e) {
+      List<CompletableFuture<Socket>> failed = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        CompletableFuture<Socket> f = new CompletableFuture<>();
+        f.completeExceptionally(e);
+        failed.add(f);
+      }
+      return failed;
+    }
+    return InternalConnectorRegistry.INSTANCE.connectMany(config, count, maxParallelism);
+  }
+
+  private static ConnectionConfig toConnectionConfig(
+      String instanceName, Properties connectionProperties) {
+    Properties props = new Properties();
+    if (connectionProperties != null) {
+      props.putAll(connectionProperties);
+    }
+    if (instanceName != null) {
+      props.setProperty(ConnectionConfig.ALLOYDB_INSTANCE_NAME, instanceName);
+    }
+    return ConnectionConfig.fromConnectionProperties(props);
+  }
+
   /**
    * Close a named connector. This will stop all background credential refresh processes. All future
    * attempts to connect via this named connection will fail.
@@ -63,4 +143,12 @@ public final class ConnectorRegistry {
   public static void addArtifactId(String artifactId) {
     InternalConnectorRegistry.INSTANCE.addArtifactId(artifactId);
   }
+
+  /**
+   * Returns the metrics of the AlloyDB JDBC Connector. The metrics are shared by all named and
+   * unnamed connectors, and are not cleared by {@link #reset()}.
+   */
+  public static ConnectorMetrics getMetrics() {
+    return InternalConnectorRegistry.INSTANCE.getMetrics();
+  }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.auth.oauth2.GoogleCredentials;
+
+/** Decides whether a credential factory returned the same credentials again. */
+final class CredentialsComparison {
+
+  // Whether credentials of a class define equals, see isSame().
+  private static final ClassValue<Boolean> COMPARED_BY_VALUE =
+      new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+          try {
+            return type.getMethod("equals", Object.class).getDeclaringClass()
+                != GoogleCredentials.class;
+          } catch (NoSuchMethodException e) {
+            return false;
+          }
+        }
+      };
+
+  private CredentialsComparison() {}
+
+  /**
+   * Returns whether a and b are the same credentials. Factories may return equal credentials as new
+   * objects, for example when they read a file, so credentials are compared by value when their
+   * class defines equals. GoogleCredentials.equals itself ignores the token, so plain
+   * GoogleCredentials are only the same if they are the same object.
+   */
+  static boolean isSame(GoogleCredentials a, GoogleCredentials b) {
+    return a == b
+        || (a != null
+            && b != null
+            && a.getClass() == b.getClass()
+            && COMPARED_BY_VALUE.get(a.getClass())
+            && a.equals(b));
+  }
+}
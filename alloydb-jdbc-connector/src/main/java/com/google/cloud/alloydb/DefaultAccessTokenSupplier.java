@@ -18,24 +18,95 @@ package com.google.cloud.alloydb;
 
 import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Supplies the OAuth2 token sent in the metadata exchange. The scoped credentials and the current
+ * access token are cached, so that connecting to an instance only reads the token. The credential
+ * factory is only asked for credentials when a new token is needed, and the credentials are scoped
+ * again when it returns different ones, so that rotated credentials take effect with the next token
+ * without a restart. When the supplier has an executor, it refreshes the token in the background
+ * before it expires.
+ */
 class DefaultAccessTokenSupplier implements AccessTokenSupplier {
 
+  private static final Logger logger = LoggerFactory.getLogger(DefaultAccessTokenSupplier.class);
+
   public static final String ALLOYDB_LOGIN_SCOPE = "https://www.googleapis.com/auth/alloydb.login";
+
+  // Tokens closer than this to their expiration are refreshed before they are returned.
+  private static final Duration EXPIRATION_BUFFER = Duration.ofMinutes(1);
+
+  // The background refresh starts this long before the token expires.
+  private static final Duration REFRESH_BUFFER = Duration.ofMinutes(5);
+
   private final CredentialFactory credentialFactory;
+  private final ListeningScheduledExecutorService executor;
+  private final Executor refreshExecutor;
+  // A lock rather than a monitor, because refreshing the token blocks on the network and a virtual
+  // thread waiting on a monitor pins its carrier thread.
+  private final ReentrantLock credentialsLock = new ReentrantLock();
+
+  @GuardedBy("credentialsLock")
+  private ScopedCredentials credentials;
+
+  @GuardedBy("credentialsLock")
+  private ScheduledFuture<?> nextRefresh;
+
+  @GuardedBy("credentialsLock")
+  private boolean closed;
+
+  private volatile AccessToken accessToken;
 
   /**
-   * Creates an instance with default retry settings.
+   * Creates an instance that refreshes the token only when it is requested.
    *
    * @param tokenSource the token source that produces auth tokens.
    */
   DefaultAccessTokenSupplier(CredentialFactory tokenSource) {
+    this(tokenSource, null);
+  }
+
+  /**
+   * Creates an instance that refreshes the token in the background before it expires.
+   *
+   * @param tokenSource the token source that produces auth tokens.
+   * @param executor the executor used to refresh the token, or null to only refresh on request.
+   */
+  DefaultAccessTokenSupplier(
+      CredentialFactory tokenSource, ListeningScheduledExecutorService executor) {
+    this(tokenSource, executor, executor);
+  }
+
+  /**
+   * Creates an instance that schedules the background refresh on executor and runs it on
+   * refreshExecutor, so that a slow token endpoint does not hold up the scheduler.
+   *
+   * @param tokenSource the token source that produces auth tokens.
+   * @param executor the executor used to schedule the refresh, or null to only refresh on request.
+   * @param refreshExecutor the executor the blocking refresh runs on.
+   */
+  DefaultAccessTokenSupplier(
+      CredentialFactory tokenSource,
+      ListeningScheduledExecutorService executor,
+      Executor refreshExecutor) {
     this.credentialFactory = tokenSource;
+    this.executor = executor;
+    this.refreshExecutor = refreshExecutor;
   }
 
   /**
@@ -50,22 +121,166 @@ class DefaultAccessTokenSupplier implements AccessTokenSupplier {
       return null;
     }
 
-    GoogleCredentials credentials =
-        credentialFactory.getCredentials().createScoped(ALLOYDB_LOGIN_SCOPE);
+    AccessToken token = accessToken;
+    if (token != null && !expiresWithin(token, EXPIRATION_BUFFER)) {
+      return token.getTokenValue();
+    }
+
+    credentialsLock.lock();
+    try {
+      token = accessToken;
+      if (token != null && !expiresWithin(token, EXPIRATION_BUFFER)) {
+        return token.getTokenValue();
+      }
+      // Only ask the factory when a new token is needed, since factories may read a file.
+      ScopedCredentials scopedCredentials =
+          getScopedCredentials(credentialFactory.getCredentials());
+      try {
+        scopedCredentials.scoped.refreshIfExpired();
+      } catch (IllegalStateException e) {
+        throw new IllegalStateException(
+            "Error refreshing credentials " + scopedCredentials.scoped, e);
+      }
+      return updateAccessToken(scopedCredentials).getTokenValue();
+    } finally {
+      credentialsLock.unlock();
+    }
+  }
 
+  /** Stops the background refresh. */
+  @Override
+  public void close() {
+    credentialsLock.lock();
     try {
-      credentials.refreshIfExpired();
-    } catch (IllegalStateException e) {
-      throw new IllegalStateException("Error refreshing credentials " + credentials, e);
+      closed = true;
+      if (nextRefresh != null) {
+        nextRefresh.cancel(false);
+        nextRefresh = null;
+      }
+    } finally {
+      credentialsLock.unlock();
     }
-    if (credentials.getAccessToken() == null
-        || "".equals(credentials.getAccessToken().getTokenValue())) {
+  }
+
+  /** Returns the scoped credentials, scoping sourceCredentials again if they changed. */
+  @GuardedBy("credentialsLock")
+  private ScopedCredentials getScopedCredentials(GoogleCredentials sourceCredentials) {
+    if (credentials == null || !credentials.isFor(sourceCredentials)) {
+      if (credentials != null) {
+        logger.debug("The credentials changed, scoping the new credentials.");
+      }
+      credentials =
+          new ScopedCredentials(
+              sourceCredentials, sourceCredentials.createScoped(ALLOYDB_LOGIN_SCOPE));
+    }
+    return credentials;
+  }
+
+  /** Validates and caches the current access token, then schedules its background refresh. */
+  @GuardedBy("credentialsLock")
+  private AccessToken updateAccessToken(ScopedCredentials scopedCredentials) {
+    AccessToken token = scopedCredentials.scoped.getAccessToken();
+    if (token == null || "".equals(token.getTokenValue())) {
       String errorMessage = "Access Token has length of zero";
       throw new IllegalStateException(errorMessage);
     }
 
-    validateAccessTokenExpiration(credentials.getAccessToken());
-    return credentials.getAccessToken().getTokenValue();
+    validateAccessTokenExpiration(token);
+    accessToken = token;
+    scheduleRefresh(token);
+    return token;
+  }
+
+  @GuardedBy("credentialsLock")
+  private void scheduleRefresh(AccessToken token) {
+    if (executor == null || closed || token.getExpirationTime() == null) {
+      return;
+    }
+    if (nextRefresh != null) {
+      nextRefresh.cancel(false);
+    }
+    long delayMs =
+        Math.max(
+            0,
+            token.getExpirationTime().getTime()
+                - REFRESH_BUFFER.toMillis()
+                - System.currentTimeMillis());
+    logger.debug(String.format("Next access token refresh in %d ms.", delayMs));
+    nextRefresh = executor.schedule(this::startBackgroundRefresh, delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  private void startBackgroundRefresh() {
+    try {
+      // The refresh blocks on the network, so it does not run on the scheduler thread.
+      refreshExecutor.execute(this::refreshInBackground);
+    } catch (RejectedExecutionException e) {
+      // The executor is shutting down, the next call to getTokenValue() refreshes the token.
+      logger.debug("Background access token refresh was rejected.", e);
+    }
+  }
+
+  /**
+   * Refreshes the token without holding the lock, so that callers keep reading the current token
+   * while the token endpoint responds, then publishes the new token under the lock.
+   */
+  private void refreshInBackground() {
+    ScopedCredentials scopedCredentials;
+    credentialsLock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      nextRefresh = null;
+    } finally {
+      credentialsLock.unlock();
+    }
+    try {
+      GoogleCredentials sourceCredentials = credentialFactory.getCredentials();
+      credentialsLock.lock();
+      try {
+        scopedCredentials = getScopedCredentials(sourceCredentials);
+      } finally {
+        credentialsLock.unlock();
+      }
+
+      scopedCredentials.scoped.refresh();
+
+      credentialsLock.lock();
+      try {
+        // Skip the token if the supplier was closed, or if the credentials changed meanwhile and
+        // a caller already fetched a token for the new ones.
+        if (!closed && credentials == scopedCredentials) {
+          updateAccessToken(scopedCredentials);
+        }
+      } finally {
+        credentialsLock.unlock();
+      }
+    } catch (IOException | RuntimeException e) {
+      // The current token is still used until it is close to its expiration. Then, the next call
+      // to getTokenValue() refreshes it and reports the error to the caller.
+      logger.debug("Background access token refresh failed.", e);
+    }
+  }
+
+  /** Credentials from the factory, and the same credentials scoped to the AlloyDB login scope. */
+  private static final class ScopedCredentials {
+    private final GoogleCredentials source;
+    private final GoogleCredentials scoped;
+
+    private ScopedCredentials(GoogleCredentials source, GoogleCredentials scoped) {
+      this.source = source;
+      this.scoped = scoped;
+    }
+
+    private boolean isFor(GoogleCredentials sourceCredentials) {
+      return CredentialsComparison.isSame(source, sourceCredentials);
+    }
+  }
+
+  private static boolean expiresWithin(AccessToken token, Duration duration) {
+    Date expirationTime = token.getExpirationTime();
+    return expirationTime != null
+        && expirationTime.getTime() - duration.toMillis() <= System.currentTimeMillis();
   }
 
   private void validateAccessTokenExpiration(AccessToken accessToken) {
@@ -15,9 +15,10 @@
  */
 package com.google.cloud.alloydb;
 
-import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import java.security.KeyPair;
+import java.time.Duration;
 
 /**
  * DefaultConnectionInfoCacheFactory encapsulates the creation of ConnectionInfoCache objects,
@@ -26,22 +27,38 @@ import java.security.KeyPair;
 class DefaultConnectionInfoCacheFactory implements ConnectionInfoCacheFactory {
 
   private final RefreshStrategy refreshStrategy;
+  private final Duration adaptiveRefreshIdleTimeout;
 
   public DefaultConnectionInfoCacheFactory(RefreshStrategy refreshStrategy) {
+    this(refreshStrategy, ConnectorConfig.DEFAULT_ADAPTIVE_REFRESH_IDLE_TIMEOUT);
+  }
+
+  public DefaultConnectionInfoCacheFactory(
+      RefreshStrategy refreshStrategy, Duration adaptiveRefreshIdleTimeout) {
     this.refreshStrategy = refreshStrategy;
+    this.adaptiveRefreshIdleTimeout = adaptiveRefreshIdleTimeout;
   }
 
   @Override
   public ConnectionInfoCache create(
       ListeningScheduledExecutorService executor,
       ConnectionInfoRepository connectionInfoRepo,
-      InstanceName instanceName,
+      ClusterName clusterName,
       KeyPair clientConnectorKeyPair,
       long minRefreshDelayMs) {
     if (refreshStrategy == RefreshStrategy.LAZY) {
-      return new LazyConnectionInfoCache(connectionInfoRepo, instanceName, clientConnectorKeyPair);
+      return new LazyConnectionInfoCache(connectionInfoRepo, clusterName, clientConnectorKeyPair);
+    }
+    if (refreshStrategy == RefreshStrategy.ADAPTIVE) {
+      return new RefreshAheadConnectionInfoCache(
+          executor,
+          connectionInfoRepo,
+          clusterName,
+          clientConnectorKeyPair,
+          minRefreshDelayMs,
+          adaptiveRefreshIdleTimeout);
     }
     return new RefreshAheadConnectionInfoCache(
-        executor, connectionInfoRepo, instanceName, clientConnectorKeyPair, minRefreshDelayMs);
+        executor, connectionInfoRepo, clusterName, clientConnectorKeyPair, minRefreshDelayMs);
   }
 }
@@ -24,6 +24,7 @@ import com.google.cloud.alloydb.v1alpha.GenerateClientCertificateRequest;
 import com.google.cloud.alloydb.v1alpha.GenerateClientCertificateResponse;
 import com.google.cloud.alloydb.v1alpha.GetConnectionInfoRequest;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.common.base.Supplier;
 import com.google.common.io.BaseEncoding;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -36,34 +37,59 @@ import io.grpc.Status.Code;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.security.KeyPair;
+import java.security.PrivateKey;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 class DefaultConnectionInfoRepository implements ConnectionInfoRepository, Closeable {
 
+  private static final Logger logger =
+      LoggerFactory.getLogger(DefaultConnectionInfoRepository.class);
+
   private static final String OPENSSL_PUBLIC_KEY_BEGIN = "-----BEGIN PUBLIC KEY-----";
   private static final String OPENSSL_PUBLIC_KEY_END = "-----END PUBLIC KEY-----";
   private static final String X_509 = "X.509";
   private static final int PEM_LINE_LENGTH = 64;
+  private static final String RSA = "RSA";
   private static final List<Code> TERMINAL_STATUS_CODES =
       Arrays.asList(Code.NOT_FOUND, Code.PERMISSION_DENIED, Code.INVALID_ARGUMENT);
   private final ListeningScheduledExecutorService executor;
   private final AlloyDBAdminClient alloyDBAdminClient;
-
+  private final java.time.Duration certificateDuration;
+  private final Runnable closeClient;
+  // Supplies the RSA key pair to fall back to, from the KeyPairCache. It is generated off the
+  // refresh executor and shared by concurrent fallbacks.
+  private final Supplier<ListenableFuture<KeyPair>> rsaKeyPairSupplier;
+  // Set once the AlloyDB Admin API rejected a client key that is not RSA. Later certificates are
+  // requested for this RSA key pair instead.
+  private volatile ListenableFuture<KeyPair> rsaFallbackKeyPair;
+
+  /**
+   * Creates a repository that calls closeClient when it is closed, which releases clients shared
+   * with other repositories, and gets the RSA key pair to fall back to from rsaKeyPairSupplier.
+   */
   DefaultConnectionInfoRepository(
-      ListeningScheduledExecutorService executor, AlloyDBAdminClient alloyDBAdminClient) {
+      ListeningScheduledExecutorService executor,
+      AlloyDBAdminClient alloyDBAdminClient,
+      java.time.Duration certificateDuration,
+      Runnable closeClient,
+      Supplier<ListenableFuture<KeyPair>> rsaKeyPairSupplier) {
     this.executor = executor;
     this.alloyDBAdminClient = alloyDBAdminClient;
+    this.certificateDuration = certificateDuration;
+    this.closeClient = closeClient;
+    this.rsaKeyPairSupplier = rsaKeyPairSupplier;
   }
 
   @Override
-  public ListenableFuture<ConnectionInfo> getConnectionInfo(
-      InstanceName instanceName, KeyPair keyPair) {
-
+  public ListenableFuture<InstanceMetadata> getInstanceMetadata(InstanceName instanceName) {
     ListenableFuture<com.google.cloud.alloydb.v1alpha.ConnectionInfo> infoFuture =
         toListenableFuture(
             alloyDBAdminClient
@@ -72,22 +98,90 @@ class DefaultConnectionInfoRepository implements ConnectionInfoRepository, Close
                     GetConnectionInfoRequest.newBuilder()
                         .setParent(instanceName.toString())
                         .build()));
+
+    return Futures.transform(
+        infoFuture,
+        info ->
+            new InstanceMetadata(
+                info.getIpAddress(),
+                info.getPublicIpAddress(),
+                info.getPscDnsName(),
+                info.getInstanceUid()),
+        executor);
+  }
+
+  @Override
+  public ListenableFuture<CertificateInfo> getCertificateInfo(
+      ClusterName clusterName, KeyPair keyPair) {
+    if (RSA.equals(keyPair.getPublic().getAlgorithm())) {
+      return generateClientCertificate(clusterName, keyPair, null);
+    }
+    ListenableFuture<KeyPair> fallback = rsaFallbackKeyPair;
+    if (fallback != null) {
+      return generateFallbackClientCertificate(clusterName, fallback);
+    }
+    return Futures.catchingAsync(
+        generateClientCertificate(clusterName, keyPair, null),
+        TerminalException.class,
+        e -> {
+          if (!isClientKeyRejected(e)) {
+            throw e;
+          }
+          logger.debug(
+              String.format(
+                  "[%s] The AlloyDB Admin API rejected the %s client key, falling back to RSA.",
+                  clusterName, keyPair.getPublic().getAlgorithm()),
+              e);
+          // The supplier shares one key pair between concurrent fallbacks.
+          ListenableFuture<KeyPair> rsaKeyPair = rsaKeyPairSupplier.get();
+          rsaFallbackKeyPair = rsaKeyPair;
+          return generateFallbackClientCertificate(clusterName, rsaKeyPair);
+        },
+        executor);
+  }
+
+  /**
+   * Returns true if the AlloyDB Admin API rejected the client key. Other invalid arguments, like a
+   * malformed cluster name, fail the same way with an RSA key, so they do not fall back.
+   */
+  private static boolean isClientKeyRejected(Throwable e) {
+    Status status = Status.fromThrowable(e);
+    return status.getCode() == Code.INVALID_ARGUMENT
+        && status.getDescription() != null
+        && status.getDescription().toLowerCase(Locale.ROOT).contains("key");
+  }
+
+  /** Requests a client certificate for the RSA key pair once it has been generated. */
+  private ListenableFuture<CertificateInfo> generateFallbackClientCertificate(
+      ClusterName clusterName, ListenableFuture<KeyPair> rsaKeyPair) {
+    return Futures.transformAsync(
+        rsaKeyPair,
+        keyPair -> generateClientCertificate(clusterName, keyPair, keyPair.getPrivate()),
+        executor);
+  }
+
+  /**
+   * Requests a client certificate for the key pair. fallbackPrivateKey is the private key of the
+   * key pair if it is not the connector's key pair, otherwise null.
+   */
+  private ListenableFuture<CertificateInfo> generateClientCertificate(
+      ClusterName clusterName, KeyPair keyPair, PrivateKey fallbackPrivateKey) {
     ListenableFuture<GenerateClientCertificateResponse> clientCertificateResponseFuture =
         toListenableFuture(
             alloyDBAdminClient
                 .generateClientCertificateCallable()
                 .futureCall(
                     GenerateClientCertificateRequest.newBuilder()
-                        .setParent(getParent(instanceName))
-                        .setCertDuration(Duration.newBuilder().setSeconds(3600 /* 1 hour */))
+                        .setParent(clusterName.toString())
+                        .setCertDuration(
+                            Duration.newBuilder().setSeconds(certificateDuration.getSeconds()))
                         .setPublicKey(generatePublicKeyCert(keyPair))
                         .setUseMetadataExchange(true)
                         .build()));
 
-    return Futures.whenAllComplete(infoFuture, clientCertificateResponseFuture)
+    return Futures.whenAllComplete(clientCertificateResponseFuture)
         .call(
             () -> {
-              com.google.cloud.alloydb.v1alpha.ConnectionInfo info = Futures.getDone(infoFuture);
               GenerateClientCertificateResponse certificateResponse =
                   Futures.getDone(clientCertificateResponseFuture);
 
@@ -101,14 +195,8 @@ class DefaultConnectionInfoRepository implements ConnectionInfoRepository, Close
               ByteString caCertificateBytes = certificateResponse.getCaCertBytes();
               X509Certificate caCertificate = parseCertificate(caCertificateBytes);
 
-              return new ConnectionInfo(
-                  info.getIpAddress(),
-                  info.getPublicIpAddress(),
-                  info.getPscDnsName(),
-                  info.getInstanceUid(),
-                  clientCertificate,
-                  certificateChain,
-                  caCertificate);
+              return new CertificateInfo(
+                  clientCertificate, certificateChain, caCertificate, fallbackPrivateKey);
             },
             executor);
   }
@@ -125,7 +213,7 @@ class DefaultConnectionInfoRepository implements ConnectionInfoRepository, Close
 
   @Override
   public void close() {
-    this.alloyDBAdminClient.close();
+    this.closeClient.run();
   }
 
   private RuntimeException handleException(Exception e) {
@@ -141,12 +229,6 @@ class DefaultConnectionInfoRepository implements ConnectionInfoRepository, Close
     return new RuntimeException(message, e);
   }
 
-  private String getParent(InstanceName instanceName) {
-    return ClusterName.of(
-            instanceName.getProject(), instanceName.getLocation(), instanceName.getCluster())
-        .toString();
-  }
-
   private String generatePublicKeyCert(KeyPair keyPair) {
     StringBuilder sb = new StringBuilder();
     sb.append(OPENSSL_PUBLIC_KEY_BEGIN).append("\n");
@@ -20,26 +20,40 @@ import com.google.cloud.alloydb.v1alpha.AlloyDBAdminClient;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import java.io.IOException;
 
-/** Factory for creating a AlloyDBAdminClient that interacts with the real AlloyDB Admin API. */
+/**
+ * Factory for creating a AlloyDBAdminClient that interacts with the real AlloyDB Admin API. Clients
+ * are shared between connectors through an AlloyDBAdminClientPool.
+ */
 class DefaultConnectionInfoRepositoryFactory implements ConnectionInfoRepositoryFactory {
   private final ListeningScheduledExecutorService executor;
   private final String userAgents;
+  private final AlloyDBAdminClientPool clientPool;
+  private final KeyPairCache keyPairCache;
 
   DefaultConnectionInfoRepositoryFactory(
-      ListeningScheduledExecutorService executor, String userAgents) {
+      ListeningScheduledExecutorService executor,
+      String userAgents,
+      AlloyDBAdminClientPool clientPool,
+      KeyPairCache keyPairCache) {
     this.executor = executor;
     this.userAgents = userAgents;
+    this.clientPool = clientPool;
+    this.keyPairCache = keyPairCache;
   }
 
   @Override
   public DefaultConnectionInfoRepository create(
       CredentialFactory credentialFactory, ConnectorConfig config) {
 
-    AlloyDBAdminClient alloyDBAdminClient;
     try {
-      alloyDBAdminClient =
-          AlloyDBAdminClientFactory.create(credentialFactory.create(), config, userAgents);
-      return new DefaultConnectionInfoRepository(executor, alloyDBAdminClient);
+      AlloyDBAdminClient alloyDBAdminClient =
+          clientPool.acquire(credentialFactory.create(), config, userAgents);
+      return new DefaultConnectionInfoRepository(
+          executor,
+          alloyDBAdminClient,
+          config.getCertificateDuration(),
+          () -> clientPool.release(alloyDBAdminClient),
+          () -> keyPairCache.get(config, ClientKeyType.RSA_2048));
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DnsCache holds the addresses of the PSC DNS names of instances, so that connects do not wait for
+ * a DNS lookup. A name is resolved the first time it is connected to. After that, it is resolved
+ * again in the background every TTL while it is in use, and connects keep using the previous
+ * addresses until the new ones arrive. A name that was not connected to for a whole TTL is dropped.
+ *
+ * <p>Java does not expose the TTL of DNS records, so the TTL is the one the JVM caches lookups for,
+ * the networkaddress.cache.ttl security property.
+ */
+class DnsCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(DnsCache.class);
+
+  // The JVM caches successful lookups this long when networkaddress.cache.ttl is not set.
+  static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+  /** Resolves a hostname to its addresses. */
+  interface Resolver {
+    InetAddress[] resolve(String hostname) throws UnknownHostException;
+  }
+
+  private final ScheduledExecutorService scheduler;
+  private final Executor resolveExecutor;
+  private final Resolver resolver;
+  private final long ttlNanos;
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  DnsCache(ScheduledExecutorService scheduler, Executor resolveExecutor) {
+    this(scheduler, resolveExecutor, InetAddress::getAllByName, getJvmTtl());
+  }
+
+  DnsCache(
+      ScheduledExecutorService scheduler,
+      Executor resolveExecutor,
+      Resolver resolver,
+      Duration ttl) {
+    this.scheduler = scheduler;
+    this.resolveExecutor = resolveExecutor;
+    this.resolver = resolver;
+    this.ttlNanos = ttl.toNanos();
+  }
+
+  /**
+   * Returns the addresses of the hostname. Only looks them up on the caller's thread when the
+   * hostname is not cached yet, or when the background lookups failed for longer than a TTL.
+   */
+  InetAddress[] resolve(String hostname) throws UnknownHostException {
+    Entry entry = entries.get(hostname);
+    if (entry != null) {
+      InetAddress[] addresses = entry.get(System.nanoTime());
+      if (addresses != null) {
+        return addresses;
+      }
+    }
+    InetAddress[] addresses = resolver.resolve(hostname);
+    if (ttlNanos <= 0) {
+      // Lookups are not cached.
+      return addresses;
+    }
+    entries.computeIfAbsent(hostname, Entry::new).set(addresses, System.nanoTime());
+    return addresses;
+  }
+
+  /** Stops resolving in the background and drops all addresses. */
+  void close() {
+    entries.forEach(
+        (hostname, entry) -> {
+          if (entries.remove(hostname, entry)) {
+            entry.cancel();
+          }
+        });
+  }
+
+  /**
+   * Returns the TTL of networkaddress.cache.ttl. A negative TTL caches lookups forever, which is
+   * capped to a day here so that changed addresses are eventually seen.
+   */
+  private static Duration getJvmTtl() {
+    String ttl = Security.getProperty("networkaddress.cache.ttl");
+    if (ttl == null) {
+      return DEFAULT_TTL;
+    }
+    try {
+      long seconds = Long.parseLong(ttl.trim());
+      return seconds < 0 ? Duration.ofDays(1) : Duration.ofSeconds(seconds);
+    } catch (NumberFormatException e) {
+      return DEFAULT_TTL;
+    }
+  }
+
+  /** Addresses of a hostname, and when they were resolved. */
+  private static class Resolved {
+    private final InetAddress[] addresses;
+    private final long resolvedNanos;
+
+    Resolved(InetAddress[] addresses, long resolvedNanos) {
+      this.addresses = addresses;
+      this.resolvedNanos = resolvedNanos;
+    }
+  }
+
+  private class Entry {
+    private final String hostname;
+    // Guards scheduling the background lookups. Connects read the addresses without it.
+    private final Object lookupGuard = new Object();
+
+    private volatile Resolved current;
+
+    // Set by connects, and cleared by each background lookup.
+    private volatile boolean used;
+
+    @GuardedBy("lookupGuard")
+    private ScheduledFuture<?> nextLookup;
+
+    Entry(String hostname) {
+      this.hostname = hostname;
+    }
+
+    /**
+     * Returns the addresses, or null if there are none or they are older than two TTLs at nowNanos,
+     * which means the background lookups have been failing.
+     */
+    InetAddress[] get(long nowNanos) {
+      Resolved r = current;
+      if (r == null || nowNanos - r.resolvedNanos > 2 * ttlNanos) {
+        return null;
+      }
+      // Only write when needed, so that concurrent connects do not contend on the field.
+      if (!used) {
+        used = true;
+      }
+      return r.addresses;
+    }
+
+    void set(InetAddress[] addresses, long nowNanos) {
+      current = new Resolved(addresses, nowNanos);
+      used = true;
+      synchronized (lookupGuard) {
+        if (nextLookup == null) {
+          scheduleLookup();
+        }
+      }
+    }
+
+    void cancel() {
+      synchronized (lookupGuard) {
+        if (nextLookup != null) {
+          nextLookup.cancel(false);
+        }
+      }
+    }
+
+    @GuardedBy("lookupGuard")
+    private void scheduleLookup() {
+      try {
+        nextLookup = scheduler.schedule(this::lookUp, ttlNanos, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        // The executor is shutting down, so connects look up the name themselves.
+        entries.remove(hostname, this);
+      }
+    }
+
+    /** Looks the name up again if it was used since the last lookup, and drops it otherwise. */
+    private void lookUp() {
+      if (!used) {
+        logger.debug(String.format("[%s] Not used for a TTL, dropping its addresses.", hostname));
+        entries.remove(hostname, this);
+        return;
+      }
+      used = false;
+      try {
+        // Lookups block, so they do not run on the scheduler thread.
+        resolveExecutor.execute(this::resolveAndReschedule);
+      } catch (RejectedExecutionException e) {
+        entries.remove(hostname, this);
+      }
+    }
+
+    private void resolveAndReschedule() {
+      InetAddress[] resolved = null;
+      try {
+        resolved = resolver.resolve(hostname);
+      } catch (UnknownHostException | RuntimeException e) {
+        logger.debug(
+            String.format("[%s] Failed to resolve in the background, retrying later.", hostname),
+            e);
+      }
+      synchronized (lookupGuard) {
+        if (entries.get(hostname) != this) {
+          // The cache was closed.
+          return;
+        }
+        if (resolved != null) {
+          current = new Resolved(resolved, System.nanoTime());
+        }
+        scheduleLookup();
+      }
+    }
+  }
+}
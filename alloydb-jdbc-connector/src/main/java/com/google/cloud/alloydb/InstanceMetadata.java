@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.common.base.Objects;
+
+/** InstanceMetadata holds the addresses and identity of an instance from GetConnectionInfo. */
+class InstanceMetadata {
+
+  private final String ipAddress;
+  private final String publicIpAddress;
+  private final String pscDnsName;
+  private final String instanceUid;
+
+  InstanceMetadata(
+      String ipAddress, String publicIpAddress, String pscDnsName, String instanceUid) {
+    this.ipAddress = ipAddress;
+    this.publicIpAddress = publicIpAddress;
+    this.pscDnsName = pscDnsName;
+    this.instanceUid = instanceUid;
+  }
+
+  String getIpAddress() {
+    return ipAddress;
+  }
+
+  String getPublicIpAddress() {
+    return publicIpAddress;
+  }
+
+  String getPscDnsName() {
+    return pscDnsName;
+  }
+
+  String getInstanceUid() {
+    return instanceUid;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof InstanceMetadata)) {
+      return false;
+    }
+
+    InstanceMetadata that = (InstanceMetadata) o;
+    return Objects.equal(ipAddress, that.ipAddress)
+        && Objects.equal(publicIpAddress, that.publicIpAddress)
+        && Objects.equal(pscDnsName, that.pscDnsName)
+        && Objects.equal(instanceUid, that.instanceUid);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(ipAddress, publicIpAddress, pscDnsName, instanceUid);
+  }
+
+  @Override
+  public String toString() {
+    return "InstanceMetadata{"
+        + "ipAddress='"
+        + ipAddress
+        + '\''
+        + ", publicIpAddress='"
+        + publicIpAddress
+        + '\''
+        + ", pscDnsName='"
+        + pscDnsName
+        + '\''
+        + ", instanceUid='"
+        + instanceUid
+        + '\''
+        + '}';
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * InstanceMetadataCache holds the metadata of the instances of a cluster. Metadata rarely changes,
+ * so it is refreshed on its own schedule, independently of the client certificate. The metadata of
+ * an instance is fetched the first time it is needed. Once it is older than the max age, it is
+ * re-fetched in the background while the old metadata is still served. A connection failure may
+ * also request a refresh, which likewise keeps serving the old metadata until the new metadata
+ * arrives. After a failed fetch, callers get the error again until the min refresh interval has
+ * passed, so that an Admin API outage does not turn every connect into an API call. Connects read
+ * fetched metadata without locking.
+ */
+class InstanceMetadataCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(InstanceMetadataCache.class);
+
+  // The metadata is re-fetched in the background after this long.
+  static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+
+  // Limits how often connection failures, and callers after a failed fetch, may re-fetch the
+  // metadata of an instance.
+  static final Duration DEFAULT_MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+  private final ConnectionInfoRepository connectionInfoRepo;
+  private final Duration maxAge;
+  private final Duration minRefreshInterval;
+  private final ConcurrentHashMap<InstanceName, Entry> entries = new ConcurrentHashMap<>();
+
+  InstanceMetadataCache(ConnectionInfoRepository connectionInfoRepo) {
+    this(connectionInfoRepo, DEFAULT_MAX_AGE, DEFAULT_MIN_REFRESH_INTERVAL);
+  }
+
+  InstanceMetadataCache(
+      ConnectionInfoRepository connectionInfoRepo, Duration maxAge, Duration minRefreshInterval) {
+    this.connectionInfoRepo = connectionInfoRepo;
+    this.maxAge = maxAge;
+    this.minRefreshInterval = minRefreshInterval;
+  }
+
+  /**
+   * Returns the metadata of the instance. Only waits, up to timeoutMs milliseconds, when no
+   * metadata has been fetched yet. Concurrent callers share a single fetch.
+   */
+  InstanceMetadata getInstanceMetadata(InstanceName instanceName, long timeoutMs) {
+    return getEntry(instanceName).get(timeoutMs);
+  }
+
+  /**
+   * Returns a future of the metadata of the instance, which is already done unless no metadata has
+   * been fetched yet.
+   */
+  ListenableFuture<InstanceMetadata> getInstanceMetadataAsync(InstanceName instanceName) {
+    return getEntry(instanceName).getAsync();
+  }
+
+  private Entry getEntry(InstanceName instanceName) {
+    // Try a plain read first, computeIfAbsent may lock even when the entry exists.
+    Entry entry = entries.get(instanceName);
+    return entry != null ? entry : entries.computeIfAbsent(instanceName, Entry::new);
+  }
+
+  /**
+   * Re-fetches the metadata of the instance, for example after a connection to one of its addresses
+   * failed. Callers keep getting the current metadata until the fetch succeeds. Does nothing if the
+   * metadata was fetched less than the min refresh interval ago.
+   */
+  void refresh(InstanceName instanceName) {
+    Entry entry = entries.get(instanceName);
+    if (entry != null) {
+      entry.refresh();
+    }
+  }
+
+  /** Drops the metadata of all instances so that it is fetched again on next use. */
+  void invalidate() {
+    entries.clear();
+  }
+
+  private class Entry {
+    private final InstanceName instanceName;
+    private final Object metadataGuard = new Object();
+
+    // Written under metadataGuard, read without locking by every connect.
+    private volatile Fetched current;
+
+    // Written under metadataGuard, read without locking to skip starting a fetch that is running.
+    private volatile ListenableFuture<InstanceMetadata> pending;
+
+    @GuardedBy("metadataGuard")
+    private Instant lastFetchStartedAt;
+
+    // The error of the last fetch, or null if it succeeded.
+    @GuardedBy("metadataGuard")
+    private Throwable lastError;
+
+    Entry(InstanceName instanceName) {
+      this.instanceName = instanceName;
+    }
+
+    InstanceMetadata get(long timeoutMs) {
+      ListenableFuture<InstanceMetadata> f = getAsync();
+      try {
+        return f.get(timeoutMs, TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        throw new RuntimeException(
+            String.format(
+                "[%s] Unable to get instance metadata within %d ms.", instanceName, timeoutMs),
+            e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        Throwables.throwIfUnchecked(cause);
+        throw new RuntimeException(cause);
+      }
+    }
+
+    ListenableFuture<InstanceMetadata> getAsync() {
+      Fetched fetched = current;
+      if (fetched != null) {
+        if (pending == null && Instant.now().isAfter(fetched.fetchedAt.plus(maxAge))) {
+          synchronized (metadataGuard) {
+            logger.debug(
+                String.format(
+                    "[%s] Instance metadata is older than %s. Refreshing in the background.",
+                    instanceName, maxAge));
+            startFetch();
+          }
+        }
+        return Futures.immediateFuture(fetched.metadata);
+      }
+      synchronized (metadataGuard) {
+        if (current != null) {
+          return Futures.immediateFuture(current.metadata);
+        }
+        if (pending == null && lastError != null && fetchedRecently()) {
+          return Futures.immediateFailedFuture(lastError);
+        }
+        // The fetch is shared, callers that give up waiting must not cancel it.
+        return Futures.nonCancellationPropagating(startFetch());
+      }
+    }
+
+    void refresh() {
+      synchronized (metadataGuard) {
+        if (fetchedRecently()) {
+          logger.debug(
+              String.format(
+                  "[%s] Instance metadata was fetched recently. Skipping refresh.", instanceName));
+          return;
+        }
+        logger.debug(String.format("[%s] Refreshing instance metadata.", instanceName));
+        startFetch();
+      }
+    }
+
+    @GuardedBy("metadataGuard")
+    private boolean fetchedRecently() {
+      return lastFetchStartedAt != null
+          && Instant.now().isBefore(lastFetchStartedAt.plus(minRefreshInterval));
+    }
+
+    /** Starts a fetch unless one is in progress, and returns the fetch in progress. */
+    @GuardedBy("metadataGuard")
+    private ListenableFuture<InstanceMetadata> startFetch() {
+      if (pending != null) {
+        return pending;
+      }
+      ListenableFuture<InstanceMetadata> f = connectionInfoRepo.getInstanceMetadata(instanceName);
+      pending = f;
+      lastFetchStartedAt = Instant.now();
+      Futures.addCallback(
+          f,
+          new FutureCallback<InstanceMetadata>() {
+            @Override
+            public void onSuccess(InstanceMetadata result) {
+              synchronized (metadataGuard) {
+                current = new Fetched(result, Instant.now());
+                lastError = null;
+                if (pending == f) {
+                  pending = null;
+                }
+              }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+              logger.debug(
+                  String.format("[%s] Failed to fetch instance metadata.", instanceName), t);
+              synchronized (metadataGuard) {
+                lastError = t;
+                if (pending == f) {
+                  pending = null;
+                }
+              }
+            }
+          },
+          MoreExecutors.directExecutor());
+      return f;
+    }
+  }
+
+  /** Metadata and the time it was fetched. */
+  private static final class Fetched {
+    private final InstanceMetadata metadata;
+    private final Instant fetchedAt;
+
+    private Fetched(InstanceMetadata metadata, Instant fetchedAt) {
+      this.metadata = metadata;
+      this.fetchedAt = fetchedAt;
+    }
+  }
+}
@@ -17,28 +17,47 @@ package com.google.cloud.alloydb;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
-import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * InternalConnectorRegistry is a singleton that creates a single Executor, KeyPair, and AlloyDB
- * Admin Client for the lifetime of the SocketFactory. When callers are finished with the Connector,
- * they should use the InternalConnectorRegistry to shut down all the associated resources.
+ * InternalConnectorRegistry is a singleton that creates a single Executor, the client KeyPairs, and
+ * AlloyDB Admin Clients for the lifetime of the SocketFactory. When callers are finished with the
+ * Connector, they should use the InternalConnectorRegistry to shut down all the associated
+ * resources.
  */
 enum InternalConnectorRegistry implements Closeable {
   INSTANCE;
 
+  private static final Logger logger = LoggerFactory.getLogger(InternalConnectorRegistry.class);
+
   @SuppressWarnings("ImmutableEnumChecker")
   private final ListeningScheduledExecutorService executor;
 
+  // The scheduler behind executor, shared by connectors that do not have their own executor.
+  @SuppressWarnings("ImmutableEnumChecker")
+  private final ScheduledExecutorService sharedScheduler;
+
+  // Opens the sockets of asynchronous connects.
+  @SuppressWarnings("ImmutableEnumChecker")
+  private final ExecutorService socketExecutor = ConnectorExecutors.newWorkerExecutor();
+
   @SuppressWarnings("ImmutableEnumChecker")
   private CredentialFactoryProvider credentialFactoryProvider;
 
@@ -51,25 +70,40 @@ enum InternalConnectorRegistry implements Closeable {
   @SuppressWarnings("ImmutableEnumChecker")
   private final Object shutdownGuard = new Object();
 
+  // Written under shutdownGuard, so that shutdowns do not overlap. Read without locking on every
+  // connection.
   @SuppressWarnings("ImmutableEnumChecker")
-  @GuardedBy("shutdownGuard")
-  private boolean shutdown = false;
+  private volatile boolean shutdown = false;
+
+  @SuppressWarnings("ImmutableEnumChecker")
+  private ConnectionInfoRepositoryFactory connectionInfoRepositoryFactory;
 
   @SuppressWarnings("ImmutableEnumChecker")
   private List<String> userAgents = new ArrayList<>();
 
+  @SuppressWarnings("ImmutableEnumChecker")
+  private final ConnectorMetrics metrics = new ConnectorMetrics();
+
+  @SuppressWarnings("ImmutableEnumChecker")
+  private final AlloyDBAdminClientPool adminClientPool = new AlloyDBAdminClientPool();
+
+  // Starts generating a key pair when the registry is initialized, before the first connector.
+  @SuppressWarnings("ImmutableEnumChecker")
+  private final KeyPairCache keyPairCache = new KeyPairCache(socketExecutor, metrics);
+
   private static final String USER_AGENT = "alloydb-java-connector/" + Version.VERSION;
 
   InternalConnectorRegistry() {
-    this.executor =
-        MoreExecutors.listeningDecorator(
-            Executors.newScheduledThreadPool(
-                2,
-                r -> {
-                  Thread t = new Thread(r);
-                  t.setDaemon(true);
-                  return t;
-                }));
+    this.sharedScheduler =
+        Executors.newScheduledThreadPool(
+            2,
+            r -> {
+              Thread t = new Thread(r);
+              t.setDaemon(true);
+              return t;
+            });
+    this.executor = MoreExecutors.listeningDecorator(sharedScheduler);
+    this.metrics.addExecutor(sharedScheduler);
     this.unnamedConnectors = new ConcurrentHashMap<>();
     this.namedConnectors = new ConcurrentHashMap<>();
     this.credentialFactoryProvider = new CredentialFactoryProvider();
@@ -82,6 +116,13 @@ enum InternalConnectorRegistry implements Closeable {
     this.credentialFactoryProvider = credentialFactoryProvider;
   }
 
+  /** Test use only: Set a new ConnectionInfoRepositoryFactory */
+  @VisibleForTesting
+  void setConnectionInfoRepositoryFactory(
+      ConnectionInfoRepositoryFactory connectionInfoRepositoryFactory) {
+    this.connectionInfoRepositoryFactory = connectionInfoRepositoryFactory;
+  }
+
   /**
    * Internal use only: Creates a socket representing a connection to a AlloyDB instance.
    *
@@ -90,11 +131,7 @@ enum InternalConnectorRegistry implements Closeable {
    * @throws IOException if error occurs during socket creation.
    */
   public Socket connect(ConnectionConfig config) throws IOException {
-    synchronized (shutdownGuard) {
-      if (shutdown) {
-        throw new IllegalStateException("ConnectorRegistry was shut down.");
-      }
-    }
+    checkNotShutdown();
 
     if (config.getNamedConnector() != null) {
       Connector connector = getNamedConnector(config.getNamedConnector());
@@ -110,27 +147,112 @@ enum InternalConnectorRegistry implements Closeable {
     return getConnector(config).connect(config);
   }
 
-  /** Register the configuration for a named connector. */
-  public void register(String name, ConnectorConfig config) {
-    synchronized (shutdownGuard) {
-      if (shutdown) {
-        throw new IllegalStateException("ConnectorRegistry was shut down.");
+  /**
+   * Internal use only: Connects to an AlloyDB instance without blocking the caller. Errors are
+   * reported through the returned future.
+   *
+   * @param config used to configure the connection.
+   * @return a future of the newly created Socket.
+   */
+  public CompletableFuture<Socket> connectAsync(ConnectionConfig config) {
+    return connectMany(config, 1, 1).get(0);
+  }
+
+  /**
+   * Internal use only: Opens count connections to an AlloyDB instance, at most maxParallelism at a
+   * time, without blocking the caller. Errors are reported through the returned futures.
+   *
+   * @param config used to configure the connections.
+   * @param count the number of connections to open.
+   * @param maxParallelism the maximum number of connections that are opened at the same time.
+   * @return the futures of the newly created Sockets, in the order the connections were started.
+   */
+  public List<CompletableFuture<Socket>> connectMany(
+      ConnectionConfig config, int count, int maxParallelism) {
+    Preconditions.checkArgument(count >= 0, "count must not be negative, got %s", count);
+    Preconditions.checkArgument(
+        maxParallelism > 0, "maxParallelism must be positive, got %s", maxParallelism);
+
+    List<ListenableFuture<Socket>> sockets;
+    try {
+      checkNotShutdown();
+
+      if (config.getNamedConnector() != null) {
+        Connector connector = getNamedConnector(config.getNamedConnector());
+        sockets =
+            connector.connectMany(
+                config.withConnectorConfig(connector.getConfig()),
+                count,
+                maxParallelism,
+                socketExecutor);
+      } else {
+        Preconditions.checkArgument(
+            config.getInstanceName() != null,
+            "alloydbInstance property not set. Please specify the instance name.");
+        sockets = getConnector(config).connectMany(config, count, maxParallelism, socketExecutor);
       }
+    } catch (RuntimeException e) {
+      sockets = Collections.nCopies(count, Futures.immediateFailedFuture(e));
+    }
+
+    List<CompletableFuture<Socket>> result = new ArrayList<>(count);
+    for (ListenableFuture<Socket> socket : sockets) {
+      result.add(toCompletableFuture(socket));
     }
+    return result;
+  }
+
+  /**
+   * Adapts the future to the CompletableFuture of the public API. Cancelling the result cancels the
+   * connect, and a socket that connects after the result was cancelled is closed.
+   */
+  private static CompletableFuture<Socket> toCompletableFuture(ListenableFuture<Socket> socket) {
+    CompletableFuture<Socket> result =
+        new CompletableFuture<Socket>() {
+          @Override
+          public boolean cancel(boolean mayInterruptIfRunning) {
+            socket.cancel(mayInterruptIfRunning);
+            return super.cancel(mayInterruptIfRunning);
+          }
+        };
+    Futures.addCallback(
+        socket,
+        new FutureCallback<Socket>() {
+          @Override
+          public void onSuccess(Socket s) {
+            if (!result.complete(s)) {
+              try {
+                s.close();
+              } catch (IOException e) {
+                logger.debug("Failed to close the socket of a cancelled connect.", e);
+              }
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            result.completeExceptionally(t);
+          }
+        },
+        MoreExecutors.directExecutor());
+    return result;
+  }
+
+  /** Register the configuration for a named connector. */
+  public void register(String name, ConnectorConfig config) {
+    checkNotShutdown();
 
     if (this.namedConnectors.containsKey(name)) {
       throw new IllegalArgumentException("Named connection " + name + " exists.");
     }
-    this.namedConnectors.put(name, createConnector(config));
+    Connector connector = createConnector(config);
+    this.namedConnectors.put(name, connector);
+    closeIfShutdown(namedConnectors, name, connector);
   }
 
   /** Close a named connector, stopping the refresh process and removing it from the registry. */
   public void close(String name) {
-    synchronized (shutdownGuard) {
-      if (shutdown) {
-        throw new IllegalStateException("ConnectorRegistry was shut down.");
-      }
-    }
+    checkNotShutdown();
 
     Connector connector = namedConnectors.remove(name);
     if (connector == null) {
@@ -143,6 +265,32 @@ enum InternalConnectorRegistry implements Closeable {
     }
   }
 
+  private void checkNotShutdown() {
+    if (shutdown) {
+      throw new IllegalStateException("ConnectorRegistry was shut down.");
+    }
+  }
+
+  /**
+   * Closes a connector that was added while the registry was shutting down. shutdownInstance() sets
+   * the shutdown flag before it closes the connectors, so a connector added to the map is either
+   * closed by shutdownInstance() or sees the flag here.
+   */
+  private <K> void closeIfShutdown(
+      ConcurrentHashMap<K, Connector> connectors, K key, Connector connector) {
+    if (!shutdown) {
+      return;
+    }
+    if (connectors.remove(key, connector)) {
+      try {
+        connector.close();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    throw new IllegalStateException("ConnectorRegistry was shut down.");
+  }
+
   /** Shutdown all connectors. */
   private void shutdownConnectors() {
     this.unnamedConnectors.forEach(
@@ -181,6 +329,7 @@ enum InternalConnectorRegistry implements Closeable {
       shutdown = true;
       shutdownConnectors();
       this.executor.shutdown();
+      this.socketExecutor.shutdown();
     }
   }
 
@@ -201,30 +350,56 @@ enum InternalConnectorRegistry implements Closeable {
     return String.join(" ", userAgents);
   }
 
+  /** Returns the metrics shared by all connectors in the registry. */
+  public ConnectorMetrics getMetrics() {
+    return metrics;
+  }
+
   private Connector getConnector(ConnectionConfig config) {
-    return unnamedConnectors.computeIfAbsent(
-        config.getConnectorConfig(), k -> createConnector(config.getConnectorConfig()));
+    // Try a plain read first, computeIfAbsent may lock even when the connector exists.
+    Connector connector = unnamedConnectors.get(config.getConnectorConfig());
+    if (connector != null) {
+      return connector;
+    }
+    connector =
+        unnamedConnectors.computeIfAbsent(
+            config.getConnectorConfig(), k -> createConnector(config.getConnectorConfig()));
+    closeIfShutdown(unnamedConnectors, config.getConnectorConfig(), connector);
+    return connector;
   }
 
   private Connector createConnector(ConnectorConfig config) {
+    ListeningScheduledExecutorService connectorExecutor = executor;
+    if (config.getExecutor() != null && config.getExecutor() != sharedScheduler) {
+      connectorExecutor = MoreExecutors.listeningDecorator(config.getExecutor());
+      // Connectors may share an executor, the metrics only track it once.
+      metrics.addExecutor(config.getExecutor());
+    }
     CredentialFactory instanceCredentialFactory =
         credentialFactoryProvider.getInstanceCredentialFactory(config);
-    DefaultConnectionInfoRepositoryFactory connectionInfoRepositoryFactory =
-        new DefaultConnectionInfoRepositoryFactory(executor, getUserAgents());
-    DefaultConnectionInfoRepository connectionInfoRepository =
-        connectionInfoRepositoryFactory.create(instanceCredentialFactory, config);
+    ConnectionInfoRepositoryFactory repositoryFactory = this.connectionInfoRepositoryFactory;
+    if (repositoryFactory == null) {
+      repositoryFactory =
+          new DefaultConnectionInfoRepositoryFactory(
+              connectorExecutor, getUserAgents(), adminClientPool, keyPairCache);
+    }
+    ConnectionInfoRepository connectionInfoRepository =
+        repositoryFactory.create(instanceCredentialFactory, config);
     AccessTokenSupplier accessTokenSupplier =
-        new DefaultAccessTokenSupplier(instanceCredentialFactory);
+        new DefaultAccessTokenSupplier(
+            instanceCredentialFactory, connectorExecutor, socketExecutor);
 
     return new Connector(
         config,
-        executor,
+        connectorExecutor,
         connectionInfoRepository,
-        RsaKeyPairGenerator.generateKeyPair(),
-        new DefaultConnectionInfoCacheFactory(config.getRefreshStrategy()),
+        keyPairCache.get(config),
+        new DefaultConnectionInfoCacheFactory(
+            config.getRefreshStrategy(), config.getAdaptiveRefreshIdleTimeout()),
         new ConcurrentHashMap<>(),
         accessTokenSupplier,
-        getUserAgents());
+        getUserAgents(),
+        metrics);
   }
 
   private Connector getNamedConnector(String name) {
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.common.base.Objects;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.security.KeyPair;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * KeyPairCache generates the client key pairs of connectors in the background, and shares them
+ * between connectors that authenticate as the same identity with the same type of key. Generating
+ * an RSA key pair may take hundreds of milliseconds on a throttled CPU, so one key pair of the
+ * default type is generated as soon as the cache is created, before the first connector asks for
+ * it.
+ *
+ * <p>A key pair is kept for as long as a connector uses it, and dropped once the connectors that
+ * used it are closed and collected. A key pair that failed to generate is dropped right away, so
+ * that the next connector generates a new one.
+ */
+class KeyPairCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(KeyPairCache.class);
+
+  private final Executor executor;
+  private final ConnectorMetrics metrics;
+  // Serializes adding and removing key pairs, so that each key pair is only generated once.
+  private final Object keyPairsGuard = new Object();
+  // Weak values, since connectors hold on to the key pair futures they use.
+  private final ConcurrentMap<Key, ListenableFuture<KeyPair>> keyPairs =
+      new MapMaker().weakValues().makeMap();
+
+  // The key pair of the default type generated ahead for the first identity, or null once it was
+  // taken.
+  private final AtomicReference<ListenableFuture<KeyPair>> pregenerated;
+
+  KeyPairCache(Executor executor, ConnectorMetrics metrics) {
+    this.executor = executor;
+    this.metrics = metrics;
+    this.pregenerated = new AtomicReference<>(generate(ConnectorConfig.DEFAULT_CLIENT_KEY_TYPE));
+  }
+
+  /**
+   * Returns the key pair for connectors with the credentials of the config. The future completes
+   * once the key pair was generated.
+   */
+  ListenableFuture<KeyPair> get(ConnectorConfig config) {
+    return get(config, config.getClientKeyType());
+  }
+
+  /**
+   * Returns the key pair of the given type for connectors with the credentials of the config, for
+   * example the RSA key pair a connector falls back to when its key type is rejected.
+   */
+  ListenableFuture<KeyPair> get(ConnectorConfig config, ClientKeyType clientKeyType) {
+    Key key = new Key(config, clientKeyType);
+    ListenableFuture<KeyPair> keyPair = keyPairs.get(key);
+    if (keyPair != null) {
+      return keyPair;
+    }
+    synchronized (keyPairsGuard) {
+      keyPair = keyPairs.get(key);
+      if (keyPair != null) {
+        return keyPair;
+      }
+      if (key.clientKeyType == ConnectorConfig.DEFAULT_CLIENT_KEY_TYPE) {
+        keyPair = pregenerated.getAndSet(null);
+      }
+      if (keyPair == null) {
+        keyPair = generate(key.clientKeyType);
+      }
+      keyPairs.put(key, keyPair);
+    }
+    removeOnFailure(key, keyPair);
+    return keyPair;
+  }
+
+  /** Drops the key pair once it failed to generate, unless it was replaced already. */
+  private void removeOnFailure(Key key, ListenableFuture<KeyPair> keyPair) {
+    Futures.addCallback(
+        keyPair,
+        new FutureCallback<KeyPair>() {
+          @Override
+          public void onSuccess(KeyPair result) {}
+
+          @Override
+          public void onFailure(Throwable t) {
+            logger.debug("Failed to generate a client key pair.", t);
+            synchronized (keyPairsGuard) {
+              keyPairs.remove(key, keyPair);
+            }
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private ListenableFuture<KeyPair> generate(ClientKeyType clientKeyType) {
+    ListenableFutureTask<KeyPair> task =
+        ListenableFutureTask.create(
+            () -> {
+              long start = System.nanoTime();
+              KeyPair keyPair = clientKeyType.generateKeyPair();
+              long elapsed = System.nanoTime() - start;
+              metrics.recordKeyPairGenerated(elapsed);
+              logger.debug(
+                  String.format(
+                      "Generated a %s client key pair in %d ms.",
+                      clientKeyType, elapsed / 1_000_000));
+              return keyPair;
+            });
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // The registry is shutting down. Fail instead of generating the key pair on the caller's
+      // thread, which may hold keyPairsGuard. The failed key pair is dropped like any other.
+      return Futures.immediateFailedFuture(e);
+    }
+    return task;
+  }
+
+  /**
+   * The fields of a connector config that determine the identity it authenticates as, and the type
+   * of its key.
+   */
+  private static class Key {
+    private final String targetPrincipal;
+    private final List<String> delegates;
+    private final Supplier<GoogleCredentials> googleCredentialsSupplier;
+    private final GoogleCredentials googleCredentials;
+    private final String googleCredentialsPath;
+    private final ClientKeyType clientKeyType;
+
+    Key(ConnectorConfig config, ClientKeyType clientKeyType) {
+      this.targetPrincipal = config.getTargetPrincipal();
+      this.delegates = config.getDelegates();
+      this.googleCredentialsSupplier = config.getGoogleCredentialsSupplier();
+      this.googleCredentials = config.getGoogleCredentials();
+      this.googleCredentialsPath = config.getGoogleCredentialsPath();
+      this.clientKeyType = clientKeyType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return Objects.equal(targetPrincipal, that.targetPrincipal)
+          && Objects.equal(delegates, that.delegates)
+          && Objects.equal(googleCredentialsSupplier, that.googleCredentialsSupplier)
+          && Objects.equal(googleCredentials, that.googleCredentials)
+          && Objects.equal(googleCredentialsPath, that.googleCredentialsPath)
+          && clientKeyType == that.clientKeyType;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(
+          targetPrincipal,
+          delegates,
+          googleCredentialsSupplier,
+          googleCredentials,
+          googleCredentialsPath,
+          clientKeyType);
+    }
+  }
+}
@@ -16,12 +16,18 @@
 
 package com.google.cloud.alloydb;
 
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.security.KeyPair;
 import java.time.Instant;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,64 +39,161 @@ public class LazyConnectionInfoCache implements ConnectionInfoCache {
   private final Logger logger = LoggerFactory.getLogger(LazyConnectionInfoCache.class);
 
   private final ConnectionInfoRepository connectionInfoRepo;
-  private final InstanceName instanceURI;
+  private final ClusterName clusterName;
   private final KeyPair clientConnectorKeyPair;
+  private final InstanceMetadataCache instanceMetadataCache;
 
   private final Object connectionInfoGuard = new Object();
 
   @GuardedBy("connectionInfoGuard")
-  private ConnectionInfo connectionInfo;
+  private CertificateInfo certificateInfo;
+
+  // The refresh in progress, shared by all callers until it completes.
+  @GuardedBy("connectionInfoGuard")
+  private ListenableFuture<CertificateInfo> pending;
 
   @GuardedBy("connectionInfoGuard")
   private boolean closed;
 
   public LazyConnectionInfoCache(
       ConnectionInfoRepository connectionInfoRepo,
-      InstanceName instanceURI,
+      ClusterName clusterName,
       KeyPair clientConnectorKeyPair) {
     this.connectionInfoRepo = connectionInfoRepo;
-    this.instanceURI = instanceURI;
+    this.clusterName = clusterName;
     this.clientConnectorKeyPair = clientConnectorKeyPair;
+    this.instanceMetadataCache = new InstanceMetadataCache(connectionInfoRepo);
+  }
+
+  @Override
+  public ConnectionInfo getConnectionInfo(InstanceName instanceName) {
+    CertificateInfo certificateInfo = getCertificateInfo();
+    InstanceMetadata instanceMetadata =
+        instanceMetadataCache.getInstanceMetadata(
+            instanceName, TimeUnit.SECONDS.toMillis(CLIENT_TIMEOUT_SECONDS));
+    return new ConnectionInfo(instanceMetadata, certificateInfo);
+  }
+
+  /**
+   * Returns a valid client certificate. A certificate close to expiration starts a refresh but is
+   * still served until the refresh completes. Callers only wait when no valid certificate exists,
+   * and concurrent callers share a single refresh.
+   */
+  private CertificateInfo getCertificateInfo() {
+    ListenableFuture<CertificateInfo> f = getCertificateInfoFuture();
+    try {
+      return f.get(CLIENT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof TerminalException) {
+        logger.debug(
+            String.format(
+                "[%s] Lazy Refresh Operation: Failed with a terminal error.", clusterName),
+            e.getCause());
+        throw (TerminalException) e.getCause();
+      }
+      throw new RuntimeException(
+          String.format("[%s] Refresh Operation: Failed!", clusterName), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(
+          String.format("[%s] Refresh Operation: Interrupted!", clusterName), e);
+    } catch (TimeoutException e) {
+      throw new RuntimeException(String.format("[%s] Refresh Operation: Failed!", clusterName), e);
+    }
   }
 
   @Override
-  public ConnectionInfo getConnectionInfo() {
+  public ListenableFuture<ConnectionInfo> getConnectionInfoAsync(InstanceName instanceName) {
+    ListenableFuture<CertificateInfo> certificateInfo;
+    try {
+      // The refresh is shared, callers that give up waiting must not cancel it.
+      certificateInfo = Futures.nonCancellationPropagating(getCertificateInfoFuture());
+    } catch (IllegalStateException e) {
+      return Futures.immediateFailedFuture(e);
+    }
+    ListenableFuture<InstanceMetadata> instanceMetadata =
+        instanceMetadataCache.getInstanceMetadataAsync(instanceName);
+    return Futures.whenAllSucceed(certificateInfo, instanceMetadata)
+        .call(
+            () ->
+                new ConnectionInfo(
+                    Futures.getDone(instanceMetadata), Futures.getDone(certificateInfo)),
+            MoreExecutors.directExecutor());
+  }
+
+  /**
+   * Returns a future of a valid client certificate, starting a refresh if needed. The future is
+   * already done unless no valid certificate exists.
+   */
+  private ListenableFuture<CertificateInfo> getCertificateInfoFuture() {
     synchronized (connectionInfoGuard) {
       if (closed) {
         throw new IllegalStateException(
-            String.format("[%s] Lazy Refresh: Named connection closed.", instanceURI));
+            String.format("[%s] Lazy Refresh: Named connection closed.", clusterName));
       }
 
-      if (connectionInfo == null || needsRefresh(connectionInfo.getExpiration())) {
+      if (certificateInfo != null && !needsRefresh(certificateInfo.getExpiration())) {
+        return Futures.immediateFuture(certificateInfo);
+      }
+
+      ListenableFuture<CertificateInfo> f = startRefresh();
+
+      if (certificateInfo != null && Instant.now().isBefore(certificateInfo.getExpiration())) {
         logger.debug(
             String.format(
-                "[%s] Lazy Refresh Operation: Client certificate needs refresh. Starting next "
-                    + "refresh operation...",
-                instanceURI));
-
-        try {
-          ListenableFuture<ConnectionInfo> infoFuture =
-              connectionInfoRepo.getConnectionInfo(instanceURI, clientConnectorKeyPair);
-          this.connectionInfo = infoFuture.get(CLIENT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-        } catch (TerminalException e) {
-          logger.debug(
-              String.format(
-                  "[%s] Lazy Refresh Operation: Failed with a terminal error.", instanceURI),
-              e);
-          throw e;
-        } catch (Exception e) {
-          throw new RuntimeException(
-              String.format("[%s] Refresh Operation: Failed!", instanceURI), e);
-        }
+                "[%s] Lazy Refresh Operation: Serving the current certificate while the refresh"
+                    + " runs.",
+                clusterName));
+        return Futures.immediateFuture(certificateInfo);
       }
+      return f;
+    }
+  }
 
-      logger.debug(
-          String.format(
-              "[%s] Lazy Refresh Operation: Completed refresh with new certificate "
-                  + "expiration at %s.",
-              instanceURI, this.connectionInfo.getExpiration().toString()));
-      return connectionInfo;
+  /** Starts a refresh unless one is in progress, and returns the refresh in progress. */
+  @GuardedBy("connectionInfoGuard")
+  private ListenableFuture<CertificateInfo> startRefresh() {
+    if (pending != null) {
+      return pending;
     }
+    logger.debug(
+        String.format(
+            "[%s] Lazy Refresh Operation: Client certificate needs refresh. Starting next "
+                + "refresh operation...",
+            clusterName));
+    ListenableFuture<CertificateInfo> f =
+        connectionInfoRepo.getCertificateInfo(clusterName, clientConnectorKeyPair);
+    pending = f;
+    Futures.addCallback(
+        f,
+        new FutureCallback<CertificateInfo>() {
+          @Override
+          public void onSuccess(CertificateInfo result) {
+            logger.debug(
+                String.format(
+                    "[%s] Lazy Refresh Operation: Completed refresh with new certificate "
+                        + "expiration at %s.",
+                    clusterName, result.getExpiration().toString()));
+            synchronized (connectionInfoGuard) {
+              certificateInfo = result;
+              if (pending == f) {
+                pending = null;
+              }
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            logger.debug(String.format("[%s] Lazy Refresh Operation: Failed!", clusterName), t);
+            synchronized (connectionInfoGuard) {
+              if (pending == f) {
+                pending = null;
+              }
+            }
+          }
+        },
+        MoreExecutors.directExecutor());
+    return f;
   }
 
   private boolean needsRefresh(Instant expiration) {
@@ -100,16 +203,28 @@ public class LazyConnectionInfoCache implements ConnectionInfoCache {
   /** Force a new refresh of the instance data if the client certificate has expired. */
   @Override
   public void forceRefresh() {
-    // invalidate connectionInfo so that the next call to getConectionInfo() will
+    // invalidate certificateInfo so that the next call to getConnectionInfo() will
     // fetch new data.
     synchronized (connectionInfoGuard) {
       if (closed) {
         throw new IllegalStateException(
-            String.format("[%s] Lazy Refresh: Named connection closed.", instanceURI));
+            String.format("[%s] Lazy Refresh: Named connection closed.", clusterName));
+      }
+      this.certificateInfo = null;
+      logger.debug(String.format("[%s] Lazy Refresh Operation: Forced refresh.", clusterName));
+    }
+  }
+
+  /** Re-fetches the metadata of an instance, for example after a connection to it failed. */
+  @Override
+  public void refreshInstanceMetadata(InstanceName instanceName) {
+    synchronized (connectionInfoGuard) {
+      if (closed) {
+        throw new IllegalStateException(
+            String.format("[%s] Lazy Refresh: Named connection closed.", clusterName));
       }
-      this.connectionInfo = null;
-      logger.debug(String.format("[%s] Lazy Refresh Operation: Forced refresh.", instanceURI));
     }
+    instanceMetadataCache.refresh(instanceName);
   }
 
   /** Force a new refresh of the instance data if the client certificate has expired. */
@@ -118,7 +233,7 @@ public class LazyConnectionInfoCache implements ConnectionInfoCache {
     synchronized (connectionInfoGuard) {
       if (closed) {
         throw new IllegalStateException(
-            String.format("[%s] Lazy Refresh: Named connection closed.", instanceURI));
+            String.format("[%s] Lazy Refresh: Named connection closed.", clusterName));
       }
     }
   }
@@ -127,7 +242,8 @@ public class LazyConnectionInfoCache implements ConnectionInfoCache {
   public void close() {
     synchronized (connectionInfoGuard) {
       closed = true;
-      logger.debug(String.format("[%s] Lazy Refresh Operation: Connector closed.", instanceURI));
+      instanceMetadataCache.invalidate();
+      logger.debug(String.format("[%s] Lazy Refresh Operation: Connector closed.", clusterName));
     }
   }
 }
@@ -16,9 +16,14 @@
 
 package com.google.cloud.alloydb;
 
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.security.KeyPair;
+import java.time.Duration;
 
 /**
  * RefreshAheadConnectionInfoCache is the cache used by default to hold connection info. In testing,
@@ -27,27 +32,78 @@ import java.security.KeyPair;
 class RefreshAheadConnectionInfoCache implements ConnectionInfoCache {
 
   private final Refresher refresher;
+  private final InstanceMetadataCache instanceMetadataCache;
+  // When not null, background refresh is suspended once the cache was not used for this long.
+  private final Duration idleTimeout;
+  private volatile long lastUsedMs = System.currentTimeMillis();
 
   private static final long DEFAULT_TIMEOUT_MS = 30000;
 
   RefreshAheadConnectionInfoCache(
       ListeningScheduledExecutorService executor,
       ConnectionInfoRepository connectionInfoRepo,
-      InstanceName instanceName,
+      ClusterName clusterName,
       KeyPair clientConnectorKeyPair,
       long minRefreshDelayMs) {
+    this(
+        executor, connectionInfoRepo, clusterName, clientConnectorKeyPair, minRefreshDelayMs, null);
+  }
+
+  /**
+   * Creates a cache that stops refreshing in the background after it was not used for idleTimeout,
+   * and starts again on the next use. A null idleTimeout keeps refreshing forever.
+   */
+  RefreshAheadConnectionInfoCache(
+      ListeningScheduledExecutorService executor,
+      ConnectionInfoRepository connectionInfoRepo,
+      ClusterName clusterName,
+      KeyPair clientConnectorKeyPair,
+      long minRefreshDelayMs,
+      Duration idleTimeout) {
+    this.idleTimeout = idleTimeout;
     this.refresher =
         new Refresher(
-            instanceName.toString(),
+            clusterName.toString(),
             executor,
-            () -> connectionInfoRepo.getConnectionInfo(instanceName, clientConnectorKeyPair),
-            new AsyncRateLimiter(minRefreshDelayMs));
+            () -> connectionInfoRepo.getCertificateInfo(clusterName, clientConnectorKeyPair),
+            new AsyncRateLimiter(minRefreshDelayMs),
+            this::isIdle);
+    this.instanceMetadataCache = new InstanceMetadataCache(connectionInfoRepo);
+  }
+
+  private boolean isIdle() {
+    return idleTimeout != null && System.currentTimeMillis() - lastUsedMs > idleTimeout.toMillis();
+  }
+
+  private void markUsed() {
+    if (idleTimeout != null) {
+      lastUsedMs = System.currentTimeMillis();
+      refresher.resume();
+    }
   }
 
-  /** Returns the most recent connection info. */
+  /** Returns the most recent connection info for an instance of the cluster. */
   @Override
-  public ConnectionInfo getConnectionInfo() {
-    return this.refresher.getConnectionInfo(DEFAULT_TIMEOUT_MS);
+  public ConnectionInfo getConnectionInfo(InstanceName instanceName) {
+    markUsed();
+    CertificateInfo certificateInfo = this.refresher.getCertificateInfo(DEFAULT_TIMEOUT_MS);
+    InstanceMetadata instanceMetadata =
+        this.instanceMetadataCache.getInstanceMetadata(instanceName, DEFAULT_TIMEOUT_MS);
+    return new ConnectionInfo(instanceMetadata, certificateInfo);
+  }
+
+  @Override
+  public ListenableFuture<ConnectionInfo> getConnectionInfoAsync(InstanceName instanceName) {
+    markUsed();
+    ListenableFuture<CertificateInfo> certificateInfo = this.refresher.getCertificateInfoAsync();
+    ListenableFuture<InstanceMetadata> instanceMetadata =
+        this.instanceMetadataCache.getInstanceMetadataAsync(instanceName);
+    return Futures.whenAllSucceed(certificateInfo, instanceMetadata)
+        .call(
+            () ->
+                new ConnectionInfo(
+                    Futures.getDone(instanceMetadata), Futures.getDone(certificateInfo)),
+            MoreExecutors.directExecutor());
   }
 
   /**
@@ -59,15 +115,23 @@ class RefreshAheadConnectionInfoCache implements ConnectionInfoCache {
     refresher.forceRefresh();
   }
 
+  /** Re-fetches the metadata of an instance, for example after a connection to it failed. */
+  @Override
+  public void refreshInstanceMetadata(InstanceName instanceName) {
+    instanceMetadataCache.refresh(instanceName);
+  }
+
   /** Closes the */
   @Override
   public void close() {
     refresher.close();
+    instanceMetadataCache.invalidate();
   }
 
   /** Refresh the certificate if expired */
   @Override
   public void refreshIfExpired() {
+    markUsed();
     this.refresher.refreshIfExpired();
   }
 }
@@ -19,5 +19,11 @@ package com.google.cloud.alloydb;
 public enum RefreshStrategy {
   /* Refresh ahead will use a background thread to refresh client certificates before they expire */
   REFRESH_AHEAD,
-  LAZY
+  LAZY,
+  /*
+   * Adaptive refreshes client certificates ahead of time like refresh ahead while the connector is
+   * in use, and stops refreshing in the background once no connection was made for the idle
+   * timeout.
+   */
+  ADAPTIVE
 }
@@ -26,50 +26,76 @@ import java.time.temporal.ChronoUnit;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Handles periodic refresh operations for an instance. */
+/** Handles periodic refresh operations for the client certificate of a cluster. */
 class Refresher {
   private static final Logger logger = LoggerFactory.getLogger(Refresher.class);
   private static final long DEFAULT_CONNECT_TIMEOUT_MS = 45000;
 
   private final ListeningScheduledExecutorService executor;
 
-  private final Object connectionInfoGuard = new Object();
+  private final Object certificateInfoGuard = new Object();
   private final AsyncRateLimiter rateLimiter;
 
   private final RefreshCalculator refreshCalculator;
-  private final Supplier<ListenableFuture<ConnectionInfo>> refreshOperation;
+  private final Supplier<ListenableFuture<CertificateInfo>> refreshOperation;
   private final String name;
 
-  @GuardedBy("connectionInfoGuard")
-  private ListenableFuture<ConnectionInfo> current;
+  @GuardedBy("certificateInfoGuard")
+  private ListenableFuture<CertificateInfo> current;
 
-  @GuardedBy("connectionInfoGuard")
-  private ListenableFuture<ConnectionInfo> next;
+  @GuardedBy("certificateInfoGuard")
+  private ListenableFuture<CertificateInfo> next;
 
-  @GuardedBy("connectionInfoGuard")
+  @GuardedBy("certificateInfoGuard")
   private boolean refreshRunning;
 
-  @GuardedBy("connectionInfoGuard")
+  @GuardedBy("certificateInfoGuard")
   private Throwable currentRefreshFailure;
 
-  @GuardedBy("connectionInfoGuard")
+  @GuardedBy("certificateInfoGuard")
   private boolean closed;
 
+  // The result of the last successful refresh, published for the lock-free read path. It is null
+  // until the first refresh succeeds and after the Refresher is closed. All other state changes
+  // happen under certificateInfoGuard.
+  private volatile CurrentCertificate currentCertificate;
+
+  // Set when a scheduled refresh was skipped because the certificate was idle. Written under
+  // certificateInfoGuard, volatile so that resume() can check it without locking.
+  private volatile boolean suspended;
+
+  private final BooleanSupplier idle;
+
   Refresher(
       String name,
       ListeningScheduledExecutorService executor,
-      Supplier<ListenableFuture<ConnectionInfo>> refreshOperation,
+      Supplier<ListenableFuture<CertificateInfo>> refreshOperation,
       AsyncRateLimiter rateLimiter) {
+    this(name, executor, refreshOperation, rateLimiter, () -> false);
+  }
+
+  /**
+   * Creates a Refresher that suspends its scheduled refreshes while idle returns true. Call {@link
+   * #resume()} to start refreshing again.
+   */
+  Refresher(
+      String name,
+      ListeningScheduledExecutorService executor,
+      Supplier<ListenableFuture<CertificateInfo>> refreshOperation,
+      AsyncRateLimiter rateLimiter,
+      BooleanSupplier idle) {
     this.name = name;
     this.executor = executor;
     this.refreshCalculator = new RefreshCalculator();
     this.refreshOperation = refreshOperation;
     this.rateLimiter = rateLimiter;
-    synchronized (connectionInfoGuard) {
+    this.idle = idle;
+    synchronized (certificateInfoGuard) {
       forceRefresh();
       this.current = this.next;
     }
@@ -85,10 +111,17 @@ class Refresher {
    * timeoutMs milliseconds. If a refresh attempt succeeds, returns immediately at the end of that
    * successful attempt. If no attempts succeed within the timeout, throws a RuntimeException with
    * the exception from the last failed refresh attempt as the cause.
+   *
+   * <p>Once a refresh has succeeded, this is a single volatile read without locking.
    */
-  ConnectionInfo getConnectionInfo(long timeoutMs) {
-    ListenableFuture<ConnectionInfo> f;
-    synchronized (connectionInfoGuard) {
+  CertificateInfo getCertificateInfo(long timeoutMs) {
+    CurrentCertificate c = currentCertificate;
+    if (c != null) {
+      return c.certificateInfo;
+    }
+
+    ListenableFuture<CertificateInfo> f;
+    synchronized (certificateInfoGuard) {
       if (closed) {
         throw new IllegalStateException("Connection closed");
       }
@@ -98,7 +131,7 @@ class Refresher {
     try {
       return f.get(timeoutMs, TimeUnit.MILLISECONDS);
     } catch (TimeoutException e) {
-      synchronized (connectionInfoGuard) {
+      synchronized (certificateInfoGuard) {
         if (currentRefreshFailure != null) {
           throw new RuntimeException(
               String.format(
@@ -121,13 +154,31 @@ class Refresher {
     }
   }
 
+  /**
+   * Returns a future of the current data, which is already done once a refresh has succeeded.
+   * Unlike {@link #getCertificateInfo(long)}, the caller does not wait and no timeout is applied.
+   */
+  ListenableFuture<CertificateInfo> getCertificateInfoAsync() {
+    CurrentCertificate c = currentCertificate;
+    if (c != null) {
+      return Futures.immediateFuture(c.certificateInfo);
+    }
+    synchronized (certificateInfoGuard) {
+      if (closed) {
+        return Futures.immediateFailedFuture(new IllegalStateException("Connection closed"));
+      }
+      // The refresh is shared, callers that give up waiting must not cancel it.
+      return Futures.nonCancellationPropagating(current);
+    }
+  }
+
   /**
    * Attempts to force a new refresh of the instance data. May fail if called too frequently or if a
    * new refresh is already in progress. If successful, other methods will block until refresh has
    * been completed.
    */
   void forceRefresh() {
-    synchronized (connectionInfoGuard) {
+    synchronized (certificateInfoGuard) {
       if (closed) {
         throw new IllegalStateException("Connection closed");
       }
@@ -154,7 +205,12 @@ class Refresher {
 
   /** Force a new refresh of the instance data if the client certificate has expired. */
   void refreshIfExpired() {
-    ConnectionInfo info = getConnectionInfo(DEFAULT_CONNECT_TIMEOUT_MS);
+    CurrentCertificate c = currentCertificate;
+    if (c != null && System.currentTimeMillis() <= c.expirationMs) {
+      return;
+    }
+
+    CertificateInfo info = getCertificateInfo(DEFAULT_CONNECT_TIMEOUT_MS);
     logger.debug(
         String.format(
             "[%s] Now = %s, Current client certificate expiration = %s",
@@ -174,10 +230,10 @@ class Refresher {
    * will 1. Acquire a rate limiter. 2. Attempt to fetch instance data. 3. Schedule the next attempt
    * to get instance data based on the success/failure of this attempt.
    */
-  private ListenableFuture<ConnectionInfo> startRefreshAttempt() {
+  private ListenableFuture<CertificateInfo> startRefreshAttempt() {
     // As soon as we begin submitting refresh attempts to the executor, mark a refresh
     // as "in-progress" so that subsequent forceRefresh() calls balk until this one completes.
-    synchronized (connectionInfoGuard) {
+    synchronized (certificateInfoGuard) {
       refreshRunning = true;
     }
 
@@ -190,19 +246,75 @@ class Refresher {
         executor);
 
     // Once rate limiter is done, attempt to getInstanceData.
-    ListenableFuture<ConnectionInfo> f =
+    ListenableFuture<CertificateInfo> f =
         Futures.whenAllComplete(delay).callAsync(refreshOperation::get, executor);
 
     // Finally, reschedule refresh after getInstanceData is complete.
     return Futures.whenAllComplete(f).callAsync(() -> handleRefreshResult(f), executor);
   }
 
-  private ListenableFuture<ConnectionInfo> handleRefreshResult(
-      ListenableFuture<ConnectionInfo> connectionInfoFuture) {
+  /**
+   * Starts a scheduled refresh attempt, unless the certificate is idle. In that case no further
+   * refresh is scheduled until {@link #resume()} is called.
+   */
+  private ListenableFuture<CertificateInfo> startScheduledRefreshAttempt() {
+    synchronized (certificateInfoGuard) {
+      if (idle.getAsBoolean()) {
+        logger.debug(
+            String.format("[%s] Refresh Operation: Idle, suspending background refresh.", name));
+        suspended = true;
+        return current;
+      }
+    }
+    return startRefreshAttempt();
+  }
+
+  /**
+   * Restarts the background refresh if it was suspended. If the current certificate has expired in
+   * the meantime, the next calls to {@link #getCertificateInfo(long)} wait for the refresh.
+   */
+  void resume() {
+    if (!suspended) {
+      return;
+    }
+    synchronized (certificateInfoGuard) {
+      if (!suspended || closed) {
+        return;
+      }
+      suspended = false;
+      // A forced refresh may already be running. It schedules the next refresh when it
+      // completes, so starting another attempt here would run two refresh chains.
+      if (refreshRunning) {
+        logger.debug(
+            String.format(
+                "[%s] Refresh Operation: Resuming background refresh after the running refresh.",
+                name));
+      } else {
+        if (next != null) {
+          next.cancel(false);
+        }
+        logger.debug(String.format("[%s] Refresh Operation: Resuming background refresh.", name));
+        next = startRefreshAttempt();
+      }
+
+      CurrentCertificate c = currentCertificate;
+      if (c == null || System.currentTimeMillis() > c.expirationMs) {
+        current = next;
+        currentCertificate = null;
+      }
+    }
+  }
+
+  boolean isSuspended() {
+    return suspended;
+  }
+
+  private ListenableFuture<CertificateInfo> handleRefreshResult(
+      ListenableFuture<CertificateInfo> certificateInfoFuture) {
     try {
-      // This does not block, because it only gets called when connectionInfoFuture has completed.
+      // This does not block, because it only gets called when certificateInfoFuture has completed.
       // This will throw an exception if the refresh attempt has failed.
-      ConnectionInfo info = connectionInfoFuture.get();
+      CertificateInfo info = certificateInfoFuture.get();
 
       logger.debug(
           String.format(
@@ -211,11 +323,14 @@ class Refresher {
       long secondsToRefresh =
           refreshCalculator.calculateSecondsUntilNextRefresh(Instant.now(), info.getExpiration());
 
-      synchronized (connectionInfoGuard) {
+      synchronized (certificateInfoGuard) {
         // Refresh completed successfully, reset forceRefreshRunning.
         refreshRunning = false;
         currentRefreshFailure = null;
         current = Futures.immediateFuture(info);
+        if (!closed) {
+          currentCertificate = new CurrentCertificate(info);
+        }
 
         // Now update nextInstanceData to perform a refresh after the
         // scheduled delay
@@ -231,7 +346,7 @@ class Refresher {
 
           next =
               Futures.scheduleAsync(
-                  this::startRefreshAttempt, secondsToRefresh, TimeUnit.SECONDS, executor);
+                  this::startScheduledRefreshAttempt, secondsToRefresh, TimeUnit.SECONDS, executor);
         }
 
         // Resolves to an T immediately
@@ -243,7 +358,7 @@ class Refresher {
       // No refresh retry when the TerminalException is raised.
       final Throwable cause = e.getCause();
       if (cause instanceof TerminalException) {
-        synchronized (connectionInfoGuard) {
+        synchronized (certificateInfoGuard) {
           refreshRunning = false;
         }
         logger.debug(String.format("[%s] Refresh Operation: Failed! No retry.", name), e);
@@ -254,7 +369,7 @@ class Refresher {
           String.format(
               "[%s] Refresh Operation: Failed! Starting next refresh operation immediately.", name),
           e);
-      synchronized (connectionInfoGuard) {
+      synchronized (certificateInfoGuard) {
         currentRefreshFailure = e;
         if (!closed) {
           next = this.startRefreshAttempt();
@@ -266,7 +381,7 @@ class Refresher {
   }
 
   void close() {
-    synchronized (connectionInfoGuard) {
+    synchronized (certificateInfoGuard) {
       if (closed) {
         return;
       }
@@ -280,14 +395,26 @@ class Refresher {
       }
 
       this.current = Futures.immediateFailedFuture(new RuntimeException("Connection is closed."));
+      this.currentCertificate = null;
 
       this.closed = true;
     }
   }
 
-  ListenableFuture<ConnectionInfo> getNext() {
-    synchronized (connectionInfoGuard) {
+  ListenableFuture<CertificateInfo> getNext() {
+    synchronized (certificateInfoGuard) {
       return this.next;
     }
   }
+
+  /** A certificate together with its expiration, so that readers need not compute it. */
+  private static class CurrentCertificate {
+    private final CertificateInfo certificateInfo;
+    private final long expirationMs;
+
+    CurrentCertificate(CertificateInfo certificateInfo) {
+      this.certificateInfo = certificateInfo;
+      this.expirationMs = certificateInfo.getExpiration().toEpochMilli();
+    }
+  }
 }
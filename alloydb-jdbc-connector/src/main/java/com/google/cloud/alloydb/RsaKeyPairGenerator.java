@@ -25,13 +25,17 @@ class RsaKeyPairGenerator {
   public static final int DEFAULT_KEY_SIZE = 2048;
 
   static KeyPair generateKeyPair() {
+    return generateKeyPair(DEFAULT_KEY_SIZE);
+  }
+
+  static KeyPair generateKeyPair(int keySize) {
     KeyPairGenerator generator;
     try {
       generator = java.security.KeyPairGenerator.getInstance("RSA");
     } catch (NoSuchAlgorithmException e) {
       throw new RuntimeException("Missing RSA generator");
     }
-    generator.initialize(DEFAULT_KEY_SIZE);
+    generator.initialize(keySize);
 
     return generator.generateKeyPair();
   }
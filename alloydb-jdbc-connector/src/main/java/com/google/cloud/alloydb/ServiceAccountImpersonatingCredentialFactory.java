@@ -16,6 +16,7 @@
 
 package com.google.cloud.alloydb;
 
+import com.google.auth.http.HttpTransportFactory;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.auth.oauth2.ImpersonatedCredentials;
 import java.util.Arrays;
@@ -34,6 +35,10 @@ import java.util.List;
  * the Token Creator on serviceAccountC. Finally, C must have Token Creator on target_principal. If
  * unset, sourceCredential must have that role on targetPrincipal.
  *
+ * <p>The impersonated credentials are reused for as long as the source credentials do not change,
+ * so that the access token they minted is reused, and refreshed ahead of its expiration, instead of
+ * minting a new token for every caller.
+ *
  * @see com.google.auth.oauth2.ImpersonatedCredentials
  */
 class ServiceAccountImpersonatingCredentialFactory implements CredentialFactory {
@@ -41,6 +46,12 @@ class ServiceAccountImpersonatingCredentialFactory implements CredentialFactory
   private final CredentialFactory source;
   private final List<String> delegates;
   private final String targetPrincipal;
+  private final HttpTransportFactory transportFactory;
+  // Serializes building new impersonated credentials.
+  private final Object credentialsGuard = new Object();
+
+  // Read without locking on every call, and replaced when the source credentials change.
+  private volatile Impersonated impersonated;
 
   /**
    * Creates a new ServiceAccountImpersonatingCredentialFactory.
@@ -51,25 +62,66 @@ class ServiceAccountImpersonatingCredentialFactory implements CredentialFactory
    */
   ServiceAccountImpersonatingCredentialFactory(
       CredentialFactory source, String targetPrincipal, List<String> delegates) {
+    this(source, targetPrincipal, delegates, null);
+  }
+
+  /**
+   * Creates a new ServiceAccountImpersonatingCredentialFactory that mints tokens using the HTTP
+   * transport from transportFactory.
+   */
+  ServiceAccountImpersonatingCredentialFactory(
+      CredentialFactory source,
+      String targetPrincipal,
+      List<String> delegates,
+      HttpTransportFactory transportFactory) {
     if (targetPrincipal == null || targetPrincipal.isEmpty()) {
       throw new IllegalArgumentException("targetPrincipal must not be empty");
     }
     this.source = source;
     this.delegates = delegates;
     this.targetPrincipal = targetPrincipal;
+    this.transportFactory = transportFactory;
   }
 
   @Override
   public GoogleCredentials getCredentials() {
-    GoogleCredentials credentials = source.getCredentials();
+    GoogleCredentials currentSourceCredentials = source.getCredentials();
+    Impersonated current = impersonated;
+    if (current != null && current.isFrom(currentSourceCredentials)) {
+      return current.credentials;
+    }
 
-    credentials =
-        ImpersonatedCredentials.newBuilder()
-            .setSourceCredentials(credentials)
-            .setTargetPrincipal(targetPrincipal)
-            .setDelegates(this.delegates)
-            .setScopes(Arrays.asList(SCOPE_CLOUD_PLATFORM))
-            .build();
-    return credentials;
+    synchronized (credentialsGuard) {
+      current = impersonated;
+      if (current == null || !current.isFrom(currentSourceCredentials)) {
+        ImpersonatedCredentials.Builder builder =
+            ImpersonatedCredentials.newBuilder()
+                .setSourceCredentials(currentSourceCredentials)
+                .setTargetPrincipal(targetPrincipal)
+                .setDelegates(this.delegates)
+                .setScopes(Arrays.asList(SCOPE_CLOUD_PLATFORM));
+        if (transportFactory != null) {
+          builder.setHttpTransportFactory(transportFactory);
+        }
+        current = new Impersonated(currentSourceCredentials, builder.build());
+        impersonated = current;
+      }
+      return current.credentials;
+    }
+  }
+
+  /** Impersonated credentials and the source credentials they impersonate with. */
+  private static final class Impersonated {
+    private final GoogleCredentials source;
+    private final GoogleCredentials credentials;
+
+    private Impersonated(GoogleCredentials source, GoogleCredentials credentials) {
+      this.source = source;
+      this.credentials = credentials;
+    }
+
+    private boolean isFrom(GoogleCredentials sourceCredentials) {
+      return CredentialsComparison.isSame(source, sourceCredentials);
+    }
   }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SplitScheduledExecutorService keeps time on a single timer thread and runs every task on a
+ * separate worker executor. Slow tasks, like parsing certificates, then never delay the timer, and
+ * tasks that are due at the same time run in parallel instead of queueing behind a few scheduler
+ * threads.
+ *
+ * <p>Periodic tasks follow the ScheduledExecutorService contract: the next run is only dispatched
+ * once the current run has finished, so runs never overlap, and a run that throws ends the schedule
+ * and fails the returned future.
+ */
+class SplitScheduledExecutorService extends AbstractExecutorService
+    implements ScheduledExecutorService {
+
+  private final ScheduledExecutorService timer;
+  private final ExecutorService workers;
+  // Tasks handed to the workers that have not started yet.
+  private final AtomicInteger queueDepth = new AtomicInteger();
+
+  /**
+   * Creates an executor that runs tasks on virtual threads when the JVM supports them, and on a
+   * cached pool of daemon threads otherwise.
+   */
+  SplitScheduledExecutorService() {
+    this(ConnectorExecutors.newWorkerExecutor());
+  }
+
+  SplitScheduledExecutorService(ExecutorService workers) {
+    this.timer =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "alloydb-connector-timer");
+              t.setDaemon(true);
+              return t;
+            });
+    this.workers = workers;
+  }
+
+  /** Returns the number of tasks that are due but have not started yet. */
+  int getQueueDepth() {
+    return queueDepth.get();
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    queueDepth.incrementAndGet();
+    try {
+      workers.execute(
+          () -> {
+            queueDepth.decrementAndGet();
+            command.run();
+          });
+    } catch (RejectedExecutionException e) {
+      queueDepth.decrementAndGet();
+      throw e;
+    }
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return schedule(Executors.callable(command, null), delay, unit);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    ScheduledTask<V> task = new ScheduledTask<>(callable);
+    task.dispatch = timer.schedule(() -> execute(task), delay, unit);
+    return task;
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(
+      Runnable command, long initialDelay, long period, TimeUnit unit) {
+    if (period <= 0) {
+      throw new IllegalArgumentException("period must be positive");
+    }
+    PeriodicTask task = new PeriodicTask(command, unit.toNanos(period), true);
+    task.dispatch(System.nanoTime() + unit.toNanos(initialDelay));
+    return task;
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(
+      Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    if (delay <= 0) {
+      throw new IllegalArgumentException("delay must be positive");
+    }
+    PeriodicTask task = new PeriodicTask(command, unit.toNanos(delay), false);
+    task.dispatch(System.nanoTime() + unit.toNanos(initialDelay));
+    return task;
+  }
+
+  @Override
+  public void shutdown() {
+    timer.shutdown();
+    workers.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    List<Runnable> pending = timer.shutdownNow();
+    pending.addAll(workers.shutdownNow());
+    return pending;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return timer.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return timer.isTerminated() && workers.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    return timer.awaitTermination(timeout, unit)
+        && workers.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * A periodic task. The timer hands each run to the workers, and the next run is only scheduled
+   * once the current one has finished.
+   */
+  private class PeriodicTask extends FutureTask<Void> implements ScheduledFuture<Void> {
+    private final long periodNanos;
+    private final boolean fixedRate;
+    private long nextRunNanos;
+    private volatile ScheduledFuture<?> dispatch;
+
+    PeriodicTask(Runnable command, long periodNanos, boolean fixedRate) {
+      super(command, null);
+      this.periodNanos = periodNanos;
+      this.fixedRate = fixedRate;
+    }
+
+    /** Hands the next run to the workers at runAtNanos. */
+    void dispatch(long runAtNanos) {
+      nextRunNanos = runAtNanos;
+      dispatch =
+          timer.schedule(() -> execute(this), runAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+      if (isCancelled()) {
+        // Cancelled while the run was being dispatched.
+        dispatch.cancel(false);
+      }
+    }
+
+    @Override
+    public void run() {
+      // runAndReset() returns false when the command threw, which completes this future with its
+      // exception and ends the schedule, or when the task was cancelled.
+      if (!runAndReset()) {
+        return;
+      }
+      try {
+        dispatch(fixedRate ? nextRunNanos + periodNanos : System.nanoTime() + periodNanos);
+      } catch (RejectedExecutionException e) {
+        // The executor is shutting down.
+        cancel(false);
+      }
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return dispatch.getDelay(unit);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      ScheduledFuture<?> d = dispatch;
+      if (d != null) {
+        d.cancel(false);
+      }
+      return cancelled;
+    }
+  }
+
+  /** A task that the timer hands to the workers when its delay has passed. */
+  private static class ScheduledTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+    private volatile ScheduledFuture<?> dispatch;
+
+    ScheduledTask(Callable<V> callable) {
+      super(callable);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return dispatch.getDelay(unit);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      dispatch.cancel(false);
+      return super.cancel(mayInterruptIfRunning);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.KeyStore.PasswordProtection;
+import java.security.KeyStore.PrivateKeyEntry;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+
+/**
+ * The SSL Context Factory builds the TLS 1.3 SSLContext used to connect to an instance from the
+ * ephemeral certificate, its chain of trust, and the connector's private key.
+ */
+class SslContextFactory {
+
+  private static final String TLS_1_3 = "TLSv1.3";
+  private static final String X_509 = "X.509";
+  private static final String ROOT_CA_CERT = "rootCaCert";
+  private static final String CLIENT_CERT = "clientCert";
+  // Bounds the number of TLS sessions kept for resumption by each SSLContext.
+  private static final int TLS_SESSION_CACHE_SIZE = 100;
+
+  static SSLContext create(
+      X509Certificate caCertificate,
+      List<X509Certificate> certificateChain,
+      PrivateKey privateKey) {
+    try {
+      // First initialize a KeyManager with the ephemeral certificate
+      // (including the chain of trust to the root CA cert) and the connector's private key.
+      KeyManager[] keyManagers = initializeKeyManager(certificateChain, privateKey);
+
+      // Next, initialize a TrustManager with the root CA certificate.
+      TrustManager[] trustManagers = initializeTrustManager(caCertificate);
+
+      // Now, create a TLS 1.3 SSLContext initialized with the KeyManager and the TrustManager.
+      SSLContext sslContext = SSLContext.getInstance(TLS_1_3);
+      sslContext.init(keyManagers, trustManagers, new SecureRandom());
+      sslContext.getClientSessionContext().setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+      return sslContext;
+    } catch (GeneralSecurityException | IOException ex) {
+      throw new RuntimeException("Unable to create an SSL Context for the instance.", ex);
+    }
+  }
+
+  private static TrustManager[] initializeTrustManager(X509Certificate caCertificate)
+      throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
+    KeyStore trustedKeyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+    trustedKeyStore.load(
+        null, // don't load the key store from an input stream
+        null // there is no password
+        );
+    trustedKeyStore.setCertificateEntry(ROOT_CA_CERT, caCertificate);
+    TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(X_509);
+    trustManagerFactory.init(trustedKeyStore);
+    return trustManagerFactory.getTrustManagers();
+  }
+
+  private static KeyManager[] initializeKeyManager(
+      List<X509Certificate> certificateChain, PrivateKey privateKey)
+      throws KeyStoreException,
+          IOException,
+          NoSuchAlgorithmException,
+          CertificateException,
+          UnrecoverableKeyException {
+    KeyStore clientAuthenticationKeyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+    clientAuthenticationKeyStore.load(
+        null, // don't load the key store from an input stream
+        null // there is no password
+        );
+    List<Certificate> chain = new ArrayList<>();
+    chain.addAll(certificateChain);
+    Certificate[] chainArray = chain.toArray(new Certificate[] {});
+    PrivateKeyEntry privateKeyEntry = new PrivateKeyEntry(privateKey, chainArray);
+    clientAuthenticationKeyStore.setEntry(
+        CLIENT_CERT, privateKeyEntry, new PasswordProtection(new char[0]) /* no password */);
+    KeyManagerFactory keyManagerFactory =
+        KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+    keyManagerFactory.init(clientAuthenticationKeyStore, new char[0] /* no password */);
+    return keyManagerFactory.getKeyManagers();
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * WarmSocketReserve keeps sockets to one instance that are connected, past the TLS handshake and
+ * the metadata exchange, so that a burst of new connections does not wait for them. Taking a socket
+ * opens a replacement in the background. Sockets are closed once they waited longer than the max
+ * idle time, or when the client certificate they were opened with was replaced.
+ *
+ * <p>Sockets closed for their age are only replaced while the reserve is in use, so that an idle
+ * application does not keep opening sockets. After a socket failed to open, the reserve waits
+ * before opening sockets again, twice as long after every further failure.
+ */
+class WarmSocketReserve {
+
+  private static final Logger logger = LoggerFactory.getLogger(WarmSocketReserve.class);
+  private static final long MIN_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  /** Opens a socket, and reports the client certificate it was opened with. */
+  interface SocketOpener {
+    WarmSocket open() throws IOException;
+  }
+
+  private final String name;
+  private final int size;
+  private final long maxIdleNanos;
+  private final SocketOpener opener;
+  private final Executor executor;
+  private final ConcurrentLinkedDeque<WarmSocket> sockets = new ConcurrentLinkedDeque<>();
+  // Sockets that are being opened.
+  private final AtomicInteger pending = new AtomicInteger();
+  // Sockets that failed to open since the last one that opened.
+  private final AtomicInteger failures = new AtomicInteger();
+  private volatile long retryAfterNanos;
+  private volatile long lastTakenNanos = System.nanoTime();
+  private volatile boolean closed;
+
+  WarmSocketReserve(
+      String name, int size, long maxIdleNanos, SocketOpener opener, Executor executor) {
+    this.name = name;
+    this.size = size;
+    this.maxIdleNanos = maxIdleNanos;
+    this.opener = opener;
+    this.executor = executor;
+  }
+
+  /**
+   * Returns a warm socket opened with the current client certificate, or null if there is none.
+   * Either way, starts opening sockets to fill the reserve.
+   */
+  Socket take(CertificateInfo currentCertificate) {
+    long now = System.nanoTime();
+    lastTakenNanos = now;
+    Socket result = null;
+    WarmSocket w;
+    while (result == null && (w = sockets.pollFirst()) != null) {
+      if (isUsable(w, currentCertificate, now)) {
+        result = w.socket;
+      } else {
+        close(w);
+      }
+    }
+    fill();
+    return result;
+  }
+
+  /**
+   * Closes the sockets that waited longer than the max idle time before nowNanos, a
+   * System.nanoTime() value. Replaces them if a socket was taken within the max idle time.
+   */
+  void closeIdle(long nowNanos) {
+    for (WarmSocket w : sockets) {
+      if (nowNanos - w.createdNanos > maxIdleNanos && sockets.remove(w)) {
+        close(w);
+      }
+    }
+    if (nowNanos - lastTakenNanos <= maxIdleNanos) {
+      fill();
+    }
+  }
+
+  /**
+   * Starts opening sockets until the open and pending sockets reach the reserve size, unless a
+   * socket failed to open within the retry delay.
+   */
+  void fill() {
+    while (!closed && !isBackingOff()) {
+      int n = pending.get();
+      if (sockets.size() + n >= size) {
+        return;
+      }
+      if (pending.compareAndSet(n, n + 1)) {
+        try {
+          executor.execute(this::openSocket);
+        } catch (RejectedExecutionException e) {
+          pending.decrementAndGet();
+          return;
+        }
+      }
+    }
+  }
+
+  private void openSocket() {
+    try {
+      WarmSocket w = opener.open();
+      failures.set(0);
+      sockets.addLast(w);
+      // close() may have drained the reserve before the socket was added.
+      if (closed && sockets.remove(w)) {
+        close(w);
+      }
+    } catch (IOException | RuntimeException e) {
+      // The next connection opens its socket itself. Wait before filling the reserve again, so
+      // that a failing instance is not flooded with connects.
+      int f = failures.get() + 1;
+      long delay = Math.min(MIN_RETRY_DELAY_NANOS << Math.min(f - 1, 6), MAX_RETRY_DELAY_NANOS);
+      retryAfterNanos = System.nanoTime() + delay;
+      failures.incrementAndGet();
+      logger.debug(String.format("[%s] Failed to open a warm socket.", name), e);
+    } finally {
+      pending.decrementAndGet();
+    }
+  }
+
+  private boolean isBackingOff() {
+    return failures.get() > 0 && System.nanoTime() - retryAfterNanos < 0;
+  }
+
+  /** Returns the number of warm sockets, for testing. */
+  int size() {
+    return sockets.size();
+  }
+
+  void close() {
+    closed = true;
+    WarmSocket w;
+    while ((w = sockets.pollFirst()) != null) {
+      close(w);
+    }
+  }
+
+  private boolean isUsable(WarmSocket w, CertificateInfo currentCertificate, long nowNanos) {
+    return nowNanos - w.createdNanos <= maxIdleNanos
+        && w.certificateInfo.equals(currentCertificate)
+        && !w.socket.isClosed();
+  }
+
+  private void close(WarmSocket w) {
+    try {
+      w.socket.close();
+    } catch (IOException e) {
+      logger.debug(String.format("[%s] Failed to close a warm socket.", name), e);
+    }
+  }
+
+  /** A connected socket, and the client certificate it was opened with. */
+  static class WarmSocket {
+    private final Socket socket;
+    private final CertificateInfo certificateInfo;
+    private final long createdNanos;
+
+    WarmSocket(Socket socket, CertificateInfo certificateInfo) {
+      this.socket = socket;
+      this.certificateInfo = certificateInfo;
+      this.createdNanos = System.nanoTime();
+    }
+  }
+}
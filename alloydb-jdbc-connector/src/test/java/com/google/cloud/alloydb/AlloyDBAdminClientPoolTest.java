@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.alloydb.v1alpha.AlloyDBAdminClient;
+import java.io.IOException;
+import org.junit.Test;
+
+public class AlloyDBAdminClientPoolTest {
+
+  private static final String USER_AGENT = "unit tests";
+
+  private final FixedCredentialsProvider credentials =
+      FixedCredentialsProvider.create(
+          GoogleCredentials.create(AccessToken.newBuilder().setTokenValue("valid").build()));
+
+  @Test
+  public void acquire_sharesClientBetweenCompatibleConfigs() throws IOException {
+    AlloyDBAdminClientPool pool = new AlloyDBAdminClientPool();
+    ConnectorConfig config = new ConnectorConfig.Builder().build();
+    ConnectorConfig lazyConfig =
+        new ConnectorConfig.Builder().withRefreshStrategy(RefreshStrategy.LAZY).build();
+
+    AlloyDBAdminClient client = pool.acquire(credentials, config, USER_AGENT);
+
+    assertThat(pool.acquire(credentials, lazyConfig, USER_AGENT)).isSameInstanceAs(client);
+    assertThat(pool.size()).isEqualTo(1);
+
+    pool.release(client);
+    assertThat(client.isShutdown()).isFalse();
+    pool.release(client);
+    assertThat(client.isShutdown()).isTrue();
+    assertThat(pool.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void acquire_createsClientPerQuotaProject() throws IOException {
+    AlloyDBAdminClientPool pool = new AlloyDBAdminClientPool();
+    ConnectorConfig config = new ConnectorConfig.Builder().build();
+    ConnectorConfig quotaConfig = new ConnectorConfig.Builder().withQuotaProject("other").build();
+
+    AlloyDBAdminClient client = pool.acquire(credentials, config, USER_AGENT);
+    AlloyDBAdminClient quotaClient = pool.acquire(credentials, quotaConfig, USER_AGENT);
+
+    assertThat(quotaClient).isNotSameInstanceAs(client);
+    assertThat(pool.size()).isEqualTo(2);
+
+    pool.release(client);
+    pool.release(quotaClient);
+    assertThat(client.isShutdown()).isTrue();
+    assertThat(quotaClient.isShutdown()).isTrue();
+  }
+}
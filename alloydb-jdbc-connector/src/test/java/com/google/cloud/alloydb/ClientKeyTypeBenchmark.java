@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.cloud.alloydb.v1alpha.InstanceName;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the client key types: the cost of generating a key pair, and of a full TLS handshake
+ * with the FakeSslServer, where the client key signs the CertificateVerify message.
+ *
+ * <p>Run the benchmark with the test classpath, for example from an IDE, by running the main method
+ * of this class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ClientKeyTypeBenchmark {
+
+  private static final String INSTANCE_NAME =
+      "projects/<PROJECT>/locations/<REGION>/clusters/<CLUSTER>/instances/<INSTANCE>";
+  private static final String PRIVATE_IP = "127.0.0.1";
+  private static final String USER_AGENT = "benchmark";
+
+  @Param({"RSA_2048", "RSA_3072", "EC_P256"})
+  public ClientKeyType clientKeyType;
+
+  private FakeSslServer sslServer;
+  private ConnectionConfig connectionConfig;
+  private KeyPair clientKeyPair;
+  private ConnectionInfo connectionInfo;
+
+  @Setup
+  public void setup() throws Exception {
+    sslServer = new FakeSslServer("HELLO");
+    sslServer.start(PRIVATE_IP);
+
+    connectionConfig =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withIpType(IpType.PRIVATE)
+            .build();
+    clientKeyPair = clientKeyType.generateKeyPair();
+    X509Certificate clientCertificate =
+        TestCertificates.INSTANCE.getEphemeralCertificate(
+            clientKeyPair.getPublic(), Instant.now().plus(1, ChronoUnit.HOURS));
+    connectionInfo =
+        new ConnectionInfo(
+            PRIVATE_IP,
+            null,
+            null,
+            "some-instance-id",
+            clientCertificate,
+            Arrays.asList(
+                clientCertificate,
+                TestCertificates.INSTANCE.getIntermediateCertificate(),
+                TestCertificates.INSTANCE.getRootCertificate()),
+            TestCertificates.INSTANCE.getRootCertificate());
+  }
+
+  @TearDown
+  public void tearDown() {
+    sslServer.stop();
+  }
+
+  @Benchmark
+  public KeyPair generateKeyPair() {
+    return clientKeyType.generateKeyPair();
+  }
+
+  @Benchmark
+  public void connect() throws IOException {
+    // TLS session resumption is disabled by default, so every connection does a full handshake.
+    Socket socket =
+        new ConnectionSocket(
+                connectionInfo,
+                connectionConfig,
+                clientKeyPair,
+                () -> "",
+                USER_AGENT,
+                new ConnectorMetrics())
+            .connect();
+    socket.close();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ClientKeyTypeBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.Range;
+import com.google.common.util.concurrent.SettableFuture;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ConnectDeadlineTest {
+
+  private static final String NAME = "test";
+
+  @Test
+  public void remainingMillis_isTimeLeftOfTimeout() throws Exception {
+    ConnectDeadline deadline = new ConnectDeadline(NAME, Duration.ofSeconds(10));
+
+    assertThat(deadline.remainingMillis(ConnectDeadline.Stage.TCP_CONNECT))
+        .isIn(Range.openClosed(9000, 10000));
+    assertThat(deadline.isExpired()).isFalse();
+  }
+
+  @Test
+  public void remainingNanos_failsWithStageOnceExpired() {
+    ConnectDeadline deadline =
+        new ConnectDeadline(
+            NAME, TimeUnit.SECONDS.toNanos(5), System.nanoTime() - TimeUnit.SECONDS.toNanos(6));
+
+    SocketTimeoutException e =
+        assertThrows(
+            SocketTimeoutException.class,
+            () -> deadline.remainingNanos(ConnectDeadline.Stage.TLS_HANDSHAKE));
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo("[test] Connect timed out after 5000 ms during the TLS handshake.");
+    assertThat(deadline.isExpired()).isTrue();
+  }
+
+  @Test
+  public void await_failsWithStageWhenFutureIsNotDoneInTime() {
+    ConnectDeadline deadline = new ConnectDeadline(NAME, Duration.ofMillis(50));
+    SettableFuture<String> future = SettableFuture.create();
+
+    SocketTimeoutException e =
+        assertThrows(
+            SocketTimeoutException.class,
+            () -> deadline.await(future, ConnectDeadline.Stage.CONNECTION_INFO));
+    assertThat(e).hasMessageThat().contains("during the connection info lookup");
+    assertThat(future.isCancelled()).isFalse();
+  }
+
+  @Test
+  public void await_rethrowsFailureOfFuture() {
+    ConnectDeadline deadline = new ConnectDeadline(NAME, Duration.ofSeconds(10));
+    SettableFuture<String> future = SettableFuture.create();
+    future.setException(new IOException("lookup failed"));
+
+    IOException e =
+        assertThrows(
+            IOException.class, () -> deadline.await(future, ConnectDeadline.Stage.DNS_LOOKUP));
+    assertThat(e).hasMessageThat().isEqualTo("lookup failed");
+  }
+
+  @Test
+  public void checkExpired_keepsSocketTimeoutBeforeDeadline() {
+    ConnectDeadline deadline = new ConnectDeadline(NAME, Duration.ofSeconds(10));
+    SocketTimeoutException e = new SocketTimeoutException("Read timed out");
+
+    assertThat(deadline.checkExpired(e, ConnectDeadline.Stage.METADATA_EXCHANGE))
+        .isSameInstanceAs(e);
+  }
+}
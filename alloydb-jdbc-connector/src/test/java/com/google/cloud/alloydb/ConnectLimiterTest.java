@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ConnectLimiterTest {
+
+  private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+  private static final long LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final ConnectorMetrics metrics = new ConnectorMetrics();
+
+  @Test
+  public void acquire_failsWhenWaitingLongerThanTimeout() throws Exception {
+    ConnectLimiter limiter = new ConnectLimiter("test", 2, metrics);
+    limiter.acquire(0);
+    limiter.acquire(0);
+
+    assertThrows(
+        SocketTimeoutException.class, () -> limiter.acquire(TimeUnit.MILLISECONDS.toNanos(50)));
+    assertThat(metrics.getConnectsQueued()).isEqualTo(1);
+    assertThat(metrics.getConnectQueueTimeouts()).isEqualTo(1);
+  }
+
+  @Test
+  public void acquire_startsQueuedConnectWhenOneCompletes() throws Exception {
+    ConnectLimiter limiter = new ConnectLimiter("test", 1, metrics);
+    long start = limiter.acquire(0);
+
+    CompletableFuture<Long> queued = new CompletableFuture<>();
+    Thread t =
+        new Thread(
+            () -> {
+              try {
+                queued.complete(limiter.acquire(TIMEOUT_NANOS));
+              } catch (Exception e) {
+                queued.completeExceptionally(e);
+              }
+            });
+    t.start();
+    Thread.sleep(50);
+    assertThat(queued.isDone()).isFalse();
+
+    limiter.release(start, true);
+
+    assertThat(queued.get(30, TimeUnit.SECONDS)).isAtLeast(start);
+    assertThat(metrics.getConnectsQueued()).isEqualTo(1);
+    assertThat(metrics.getConnectQueueTimeNanos()).isGreaterThan(0);
+    assertThat(metrics.getConnectQueueTimeouts()).isEqualTo(0);
+  }
+
+  @Test
+  public void release_halvesLimitOnceForConcurrentFailures() throws Exception {
+    ConnectLimiter limiter = new ConnectLimiter("test", 8, metrics);
+    long[] starts = new long[4];
+    for (int i = 0; i < starts.length; i++) {
+      starts[i] = limiter.acquire(0);
+    }
+
+    for (long start : starts) {
+      limiter.release(start, false);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(4);
+
+    // A connect that started after the decrease decreases the limit again.
+    limiter.release(limiter.acquire(0), false);
+    assertThat(limiter.getLimit()).isEqualTo(2);
+  }
+
+  @Test
+  public void release_halvesLimitWhenConnectIsSlow() throws Exception {
+    ConnectLimiter limiter = new ConnectLimiter("test", 8, metrics);
+    for (int i = 0; i < 5; i++) {
+      connect(limiter, LATENCY_NANOS, true);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(8);
+
+    connect(limiter, 10 * LATENCY_NANOS, true);
+
+    assertThat(limiter.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  public void release_growsLimitUpToMaximumAsConnectsSucceed() throws Exception {
+    ConnectLimiter limiter = new ConnectLimiter("test", 4, metrics);
+    connect(limiter, LATENCY_NANOS, false);
+    assertThat(limiter.getLimit()).isEqualTo(2);
+
+    connect(limiter, LATENCY_NANOS, true);
+    connect(limiter, LATENCY_NANOS, true);
+    assertThat(limiter.getLimit()).isEqualTo(2);
+    connect(limiter, LATENCY_NANOS, true);
+    assertThat(limiter.getLimit()).isEqualTo(3);
+
+    for (int i = 0; i < 20; i++) {
+      connect(limiter, LATENCY_NANOS, true);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(4);
+  }
+
+  /** Runs a connect that took latencyNanos. */
+  private static void connect(ConnectLimiter limiter, long latencyNanos, boolean succeeded)
+      throws Exception {
+    limiter.acquire(0);
+    limiter.release(System.nanoTime() - latencyNanos, succeeded);
+  }
+}
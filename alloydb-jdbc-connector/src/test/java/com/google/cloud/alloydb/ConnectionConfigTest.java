@@ -16,11 +16,14 @@
 package com.google.cloud.alloydb;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 
 import com.google.cloud.alloydb.v1alpha.InstanceName;
 import com.google.common.base.Objects;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.stream.Collectors;
@@ -42,7 +45,17 @@ public class ConnectionConfigTest {
     final String iamAuthN = "true";
     final String wantQuotaProject = "myNewProject";
     final String ipType = "PUBLIC";
-    final String refreshStrategy = "REFRESH_AHEAD";
+    final String refreshStrategy = "ADAPTIVE";
+    final String tlsSessionResumption = "true";
+    final String certificateDuration = "PT12H";
+    final String adaptiveRefreshIdleTimeout = "PT10M";
+    final String connectionInfoCacheIdleTimeout = "PT2H";
+    final String connectionInfoCacheMaxSize = "500";
+    final String warmSocketReserveSize = "4";
+    final String warmSocketMaxIdleTime = "PT10S";
+    final String maxConcurrentConnects = "16";
+    final String connectQueueTimeout = "PT5S";
+    final String clientKeyType = "ec_p256";
 
     Properties props = new Properties();
     props.setProperty(ConnectionConfig.ALLOYDB_INSTANCE_NAME, INSTANCE_NAME);
@@ -55,6 +68,20 @@ public class ConnectionConfigTest {
     props.setProperty(ConnectionConfig.ALLOYDB_QUOTA_PROJECT, wantQuotaProject);
     props.setProperty(ConnectionConfig.ALLOYDB_IP_TYPE, ipType);
     props.setProperty(ConnectionConfig.ALLOYDB_REFRESH_STRATEGY, refreshStrategy);
+    props.setProperty(ConnectionConfig.ALLOYDB_TLS_SESSION_RESUMPTION, tlsSessionResumption);
+    props.setProperty(ConnectionConfig.ALLOYDB_CERTIFICATE_DURATION, certificateDuration);
+    props.setProperty(
+        ConnectionConfig.ALLOYDB_ADAPTIVE_REFRESH_IDLE_TIMEOUT, adaptiveRefreshIdleTimeout);
+    props.setProperty(
+        ConnectionConfig.ALLOYDB_CONNECTION_INFO_CACHE_IDLE_TIMEOUT,
+        connectionInfoCacheIdleTimeout);
+    props.setProperty(
+        ConnectionConfig.ALLOYDB_CONNECTION_INFO_CACHE_MAX_SIZE, connectionInfoCacheMaxSize);
+    props.setProperty(ConnectionConfig.ALLOYDB_WARM_SOCKET_RESERVE_SIZE, warmSocketReserveSize);
+    props.setProperty(ConnectionConfig.ALLOYDB_WARM_SOCKET_MAX_IDLE_TIME, warmSocketMaxIdleTime);
+    props.setProperty(ConnectionConfig.ALLOYDB_MAX_CONCURRENT_CONNECTS, maxConcurrentConnects);
+    props.setProperty(ConnectionConfig.ALLOYDB_CONNECT_QUEUE_TIMEOUT, connectQueueTimeout);
+    props.setProperty(ConnectionConfig.ALLOYDB_CLIENT_KEY_TYPE, clientKeyType);
 
     ConnectionConfig config = ConnectionConfig.fromConnectionProperties(props);
 
@@ -69,7 +96,72 @@ public class ConnectionConfigTest {
     assertThat(config.getAuthType()).isEqualTo(AuthType.IAM);
     assertThat(config.getIpType()).isEqualTo(IpType.PUBLIC);
     assertThat(config.getConnectorConfig().getRefreshStrategy())
-        .isEqualTo(RefreshStrategy.REFRESH_AHEAD);
+        .isEqualTo(RefreshStrategy.ADAPTIVE);
+    assertThat(config.getConnectorConfig().isTlsSessionResumption()).isTrue();
+    assertThat(config.getConnectorConfig().getCertificateDuration())
+        .isEqualTo(Duration.ofHours(12));
+    assertThat(config.getConnectorConfig().getAdaptiveRefreshIdleTimeout())
+        .isEqualTo(Duration.ofMinutes(10));
+    assertThat(config.getConnectorConfig().getConnectionInfoCacheIdleTimeout())
+        .isEqualTo(Duration.ofHours(2));
+    assertThat(config.getConnectorConfig().getConnectionInfoCacheMaxSize()).isEqualTo(500);
+    assertThat(config.getConnectorConfig().getWarmSocketReserveSize()).isEqualTo(4);
+    assertThat(config.getConnectorConfig().getWarmSocketMaxIdleTime())
+        .isEqualTo(Duration.ofSeconds(10));
+    assertThat(config.getConnectorConfig().getMaxConcurrentConnects()).isEqualTo(16);
+    assertThat(config.getConnectorConfig().getConnectQueueTimeout())
+        .isEqualTo(Duration.ofSeconds(5));
+    assertThat(config.getConnectorConfig().getClientKeyType()).isEqualTo(ClientKeyType.EC_P256);
+  }
+
+  @Test
+  public void testConfigFromProps_withIpTypeList() {
+    Properties props = new Properties();
+    props.setProperty(ConnectionConfig.ALLOYDB_INSTANCE_NAME, INSTANCE_NAME);
+    props.setProperty(ConnectionConfig.ALLOYDB_IP_TYPE, "psc, private,PSC");
+
+    ConnectionConfig config = ConnectionConfig.fromConnectionProperties(props);
+
+    assertThat(config.getIpTypes()).containsExactly(IpType.PSC, IpType.PRIVATE).inOrder();
+    assertThat(config.getIpType()).isEqualTo(IpType.PSC);
+  }
+
+  @Test
+  public void testConfigFromProps_withConnectTimeout() {
+    Properties props = new Properties();
+    props.setProperty(ConnectionConfig.ALLOYDB_INSTANCE_NAME, INSTANCE_NAME);
+    props.setProperty(ConnectionConfig.ALLOYDB_CONNECT_TIMEOUT, "PT5S");
+
+    ConnectionConfig config = ConnectionConfig.fromConnectionProperties(props);
+
+    assertThat(config.getConnectTimeout()).isEqualTo(Duration.ofSeconds(5));
+  }
+
+  @Test
+  public void testConfigFromBuilder_rejectsNegativeConnectTimeout() {
+    ConnectionConfig.Builder builder =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withConnectTimeout(Duration.ofSeconds(-1));
+
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  public void testNotEqual_withIpTypeOrderNotEqual() {
+    InstanceName instanceName = InstanceName.parse(INSTANCE_NAME);
+    ConnectionConfig k1 =
+        new ConnectionConfig.Builder()
+            .withInstanceName(instanceName)
+            .withIpTypes(Arrays.asList(IpType.PSC, IpType.PRIVATE))
+            .build();
+    ConnectionConfig k2 =
+        new ConnectionConfig.Builder()
+            .withInstanceName(instanceName)
+            .withIpTypes(Arrays.asList(IpType.PRIVATE, IpType.PSC))
+            .build();
+
+    assertThat(k1).isNotEqualTo(k2);
   }
 
   @Test
@@ -186,6 +278,23 @@ public class ConnectionConfigTest {
     assertThat(k1.hashCode()).isNotEqualTo(k2.hashCode());
   }
 
+  @Test
+  public void testNotEqual_withAuthTypeNotEqual() {
+    ConnectionConfig k1 =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withAuthType(AuthType.IAM)
+            .build();
+    ConnectionConfig k2 =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withAuthType(AuthType.PASSWORD)
+            .build();
+
+    assertThat(k1).isNotEqualTo(k2);
+    assertThat(k1.hashCode()).isNotEqualTo(k2.hashCode());
+  }
+
   @Test
   public void testEqual_withConnectorConfigEqual() {
     ConnectionConfig k1 =
@@ -244,7 +353,33 @@ public class ConnectionConfigTest {
             .build();
 
     assertThat(config.hashCode())
-        .isEqualTo(Objects.hashCode(wantInstance, wantNamedConnector, ipType, cc));
+        .isEqualTo(
+            Objects.hashCode(
+                wantInstance,
+                wantNamedConnector,
+                ConnectionConfig.DEFAULT_AUTH_TYPE,
+                Collections.singletonList(ipType),
+                ConnectionConfig.DEFAULT_CONNECT_TIMEOUT,
+                cc));
+  }
+
+  @Test
+  public void testFromConnectionProperties_internsConfigWithEqualProperties() {
+    Properties props = new Properties();
+    props.setProperty(ConnectionConfig.ALLOYDB_INSTANCE_NAME, INSTANCE_NAME);
+    props.setProperty(ConnectionConfig.ALLOYDB_DELEGATES, "test1@example.com,test2@example.com");
+    Properties sameProps = new Properties();
+    sameProps.putAll(props);
+    Properties otherProps = new Properties();
+    otherProps.putAll(props);
+    otherProps.setProperty(ConnectionConfig.ALLOYDB_IP_TYPE, "PUBLIC");
+
+    ConnectionConfig config = ConnectionConfig.fromConnectionProperties(props);
+
+    assertThat(ConnectionConfig.fromConnectionProperties(sameProps)).isSameInstanceAs(config);
+    ConnectionConfig otherConfig = ConnectionConfig.fromConnectionProperties(otherProps);
+    assertThat(otherConfig).isNotEqualTo(config);
+    assertThat(otherConfig.getIpType()).isEqualTo(IpType.PUBLIC);
   }
 
   @Test
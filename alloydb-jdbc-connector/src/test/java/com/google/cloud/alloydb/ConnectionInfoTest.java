@@ -27,6 +27,7 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Collections;
+import javax.net.ssl.SSLContext;
 import org.bouncycastle.cert.CertIOException;
 import org.bouncycastle.operator.OperatorCreationException;
 import org.junit.Before;
@@ -64,6 +65,29 @@ public class ConnectionInfoTest {
     assertThat(connectionInfo.getClientCertificateExpiration()).isEqualTo(expected);
   }
 
+  @Test
+  public void testGetSslContext_isReused()
+      throws CertificateException, OperatorCreationException, CertIOException {
+    ConnectionInfo connectionInfo =
+        new ConnectionInfo(
+            IP_ADDRESS,
+            PUBLIC_IP_ADDRESS,
+            DNS_NAME,
+            INSTANCE_UID,
+            TestCertificates.INSTANCE.getEphemeralCertificate(
+                testKeyPair.getPublic(), Instant.now().plus(1, ChronoUnit.HOURS)),
+            Arrays.asList(
+                TestCertificates.INSTANCE.getIntermediateCertificate(),
+                TestCertificates.INSTANCE.getRootCertificate()),
+            TestCertificates.INSTANCE.getRootCertificate());
+
+    SSLContext sslContext = connectionInfo.getSslContext(testKeyPair.getPrivate());
+
+    assertThat(sslContext.getProtocol()).isEqualTo("TLSv1.3");
+    assertThat(sslContext.getClientSessionContext().getSessionCacheSize()).isGreaterThan(0);
+    assertThat(connectionInfo.getSslContext(testKeyPair.getPrivate())).isSameInstanceAs(sslContext);
+  }
+
   @Test
   @SuppressWarnings("TruthIncompatibleType")
   public void testEquals() throws CertificateException, OperatorCreationException, CertIOException {
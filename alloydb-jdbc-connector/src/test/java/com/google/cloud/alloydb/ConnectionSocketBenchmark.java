@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.cloud.alloydb.v1alpha.InstanceName;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the per-connect cost of ConnectionSocket against the FakeSslServer, with a new
+ * SSLContext for every connection and with the SSLContext cached on the ConnectionInfo.
+ *
+ * <p>Run the benchmark with the test classpath, for example from an IDE, by running the main method
+ * of this class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConnectionSocketBenchmark {
+
+  private static final String INSTANCE_NAME =
+      "projects/<PROJECT>/locations/<REGION>/clusters/<CLUSTER>/instances/<INSTANCE>";
+  private static final String PRIVATE_IP = "127.0.0.1";
+  private static final String USER_AGENT = "benchmark";
+
+  private FakeSslServer sslServer;
+  private ConnectionConfig connectionConfig;
+  private KeyPair clientKeyPair;
+  private X509Certificate clientCertificate;
+  private ConnectionInfo connectionInfo;
+
+  @Setup
+  public void setup() throws Exception {
+    sslServer = new FakeSslServer("HELLO");
+    sslServer.start(PRIVATE_IP);
+
+    connectionConfig =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withIpType(IpType.PRIVATE)
+            .build();
+    clientKeyPair = TestCertificates.INSTANCE.getClientKey();
+    clientCertificate =
+        TestCertificates.INSTANCE.getEphemeralCertificate(
+            clientKeyPair.getPublic(), Instant.now().plus(1, ChronoUnit.HOURS));
+    connectionInfo = newConnectionInfo();
+  }
+
+  @TearDown
+  public void tearDown() {
+    sslServer.stop();
+  }
+
+  @Benchmark
+  public SSLContext buildSslContext() {
+    return newConnectionInfo().getSslContext(clientKeyPair.getPrivate());
+  }
+
+  @Benchmark
+  public void connectWithNewSslContext() throws IOException {
+    // A new ConnectionInfo has no SSLContext yet, so every connection builds its own, just as
+    // ConnectionSocket did before the SSLContext was cached.
+    connect(newConnectionInfo());
+  }
+
+  @Benchmark
+  public void connectWithCachedSslContext() throws IOException {
+    connect(connectionInfo);
+  }
+
+  private void connect(ConnectionInfo info) throws IOException {
+    Socket socket =
+        new ConnectionSocket(
+                info, connectionConfig, clientKeyPair, () -> "", USER_AGENT, new ConnectorMetrics())
+            .connect();
+    socket.close();
+  }
+
+  private ConnectionInfo newConnectionInfo() {
+    return new ConnectionInfo(
+        PRIVATE_IP,
+        null,
+        null,
+        "some-instance-id",
+        clientCertificate,
+        Arrays.asList(
+            clientCertificate,
+            TestCertificates.INSTANCE.getIntermediateCertificate(),
+            TestCertificates.INSTANCE.getRootCertificate()),
+        TestCertificates.INSTANCE.getRootCertificate());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder().include(ConnectionSocketBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -21,8 +21,11 @@ import static org.junit.Assert.assertThrows;
 
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.common.base.Objects;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
 import org.junit.Test;
 
@@ -164,6 +167,208 @@ public class ConnectorConfigTest {
     assertThat(k1.hashCode()).isNotEqualTo(k2.hashCode());
   }
 
+  @Test
+  public void testEqual_withTlsSessionResumptionEqual() {
+    ConnectorConfig k1 = new ConnectorConfig.Builder().withTlsSessionResumption(true).build();
+    ConnectorConfig k2 = new ConnectorConfig.Builder().withTlsSessionResumption(true).build();
+
+    assertThat(k1).isEqualTo(k2);
+    assertThat(k1.hashCode()).isEqualTo(k2.hashCode());
+  }
+
+  @Test
+  public void testNotEqual_withTlsSessionResumptionNotEqual() {
+    ConnectorConfig k1 = new ConnectorConfig.Builder().withTlsSessionResumption(true).build();
+    ConnectorConfig k2 = new ConnectorConfig.Builder().withTlsSessionResumption(false).build();
+
+    assertThat(k1).isNotEqualTo(k2);
+    assertThat(k1.hashCode()).isNotEqualTo(k2.hashCode());
+  }
+
+  @Test
+  public void testEqual_withCertificateDurationEqual() {
+    ConnectorConfig k1 =
+        new ConnectorConfig.Builder().withCertificateDuration(Duration.ofHours(12)).build();
+    ConnectorConfig k2 =
+        new ConnectorConfig.Builder().withCertificateDuration(Duration.ofHours(12)).build();
+
+    assertThat(k1).isEqualTo(k2);
+    assertThat(k1.hashCode()).isEqualTo(k2.hashCode());
+  }
+
+  @Test
+  public void testNotEqual_withCertificateDurationNotEqual() {
+    ConnectorConfig k1 =
+        new ConnectorConfig.Builder().withCertificateDuration(Duration.ofHours(12)).build();
+    ConnectorConfig k2 = new ConnectorConfig.Builder().build();
+
+    assertThat(k1).isNotEqualTo(k2);
+    assertThat(k1.hashCode()).isNotEqualTo(k2.hashCode());
+  }
+
+  @Test
+  public void testBuild_withDefaultCertificateDuration() {
+    ConnectorConfig cc = new ConnectorConfig.Builder().build();
+    assertThat(cc.getCertificateDuration()).isEqualTo(Duration.ofHours(1));
+  }
+
+  @Test
+  @SuppressWarnings("AssertThrowsMinimizer")
+  public void testBuild_failsWhenCertificateDurationOutOfRange() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> new ConnectorConfig.Builder().withCertificateDuration(null).build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> new ConnectorConfig.Builder().withCertificateDuration(Duration.ofMinutes(4)).build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> new ConnectorConfig.Builder().withCertificateDuration(Duration.ofHours(25)).build());
+  }
+
+  @Test
+  public void testEqual_withAdaptiveRefreshIdleTimeoutEqual() {
+    ConnectorConfig k1 =
+        new ConnectorConfig.Builder()
+            .withRefreshStrategy(RefreshStrategy.ADAPTIVE)
+            .withAdaptiveRefreshIdleTimeout(Duration.ofMinutes(10))
+            .build();
+    ConnectorConfig k2 =
+        new ConnectorConfig.Builder()
+            .withRefreshStrategy(RefreshStrategy.ADAPTIVE)
+            .withAdaptiveRefreshIdleTimeout(Duration.ofMinutes(10))
+            .build();
+
+    assertThat(k1).isEqualTo(k2);
+    assertThat(k1.hashCode()).isEqualTo(k2.hashCode());
+  }
+
+  @Test
+  public void testNotEqual_withAdaptiveRefreshIdleTimeoutNotEqual() {
+    ConnectorConfig k1 =
+        new ConnectorConfig.Builder()
+            .withRefreshStrategy(RefreshStrategy.ADAPTIVE)
+            .withAdaptiveRefreshIdleTimeout(Duration.ofMinutes(10))
+            .build();
+    ConnectorConfig k2 =
+        new ConnectorConfig.Builder().withRefreshStrategy(RefreshStrategy.ADAPTIVE).build();
+
+    assertThat(k1).isNotEqualTo(k2);
+    assertThat(k1.hashCode()).isNotEqualTo(k2.hashCode());
+  }
+
+  @Test
+  @SuppressWarnings("AssertThrowsMinimizer")
+  public void testBuild_failsWhenAdaptiveRefreshIdleTimeoutNotPositive() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> new ConnectorConfig.Builder().withAdaptiveRefreshIdleTimeout(null).build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> new ConnectorConfig.Builder().withAdaptiveRefreshIdleTimeout(Duration.ZERO).build());
+  }
+
+  @Test
+  public void testNotEqual_withConnectionInfoCacheLimitsNotEqual() {
+    ConnectorConfig k1 =
+        new ConnectorConfig.Builder()
+            .withConnectionInfoCacheIdleTimeout(Duration.ofHours(1))
+            .build();
+    ConnectorConfig k2 = new ConnectorConfig.Builder().withConnectionInfoCacheMaxSize(100).build();
+    ConnectorConfig k3 = new ConnectorConfig.Builder().build();
+
+    assertThat(k1).isNotEqualTo(k3);
+    assertThat(k2).isNotEqualTo(k3);
+    assertThat(k1).isNotEqualTo(k2);
+  }
+
+  @Test
+  public void testNotEqual_withWarmSocketReserveNotEqual() {
+    ConnectorConfig k1 = new ConnectorConfig.Builder().withWarmSocketReserveSize(2).build();
+    ConnectorConfig k2 =
+        new ConnectorConfig.Builder().withWarmSocketMaxIdleTime(Duration.ofMinutes(1)).build();
+    ConnectorConfig k3 = new ConnectorConfig.Builder().build();
+
+    assertThat(k1).isNotEqualTo(k3);
+    assertThat(k2).isNotEqualTo(k3);
+    assertThat(k1).isNotEqualTo(k2);
+  }
+
+  @Test
+  @SuppressWarnings("AssertThrowsMinimizer")
+  public void testBuild_failsWhenWarmSocketReserveInvalid() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> new ConnectorConfig.Builder().withWarmSocketReserveSize(-1).build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> new ConnectorConfig.Builder().withWarmSocketMaxIdleTime(Duration.ZERO).build());
+  }
+
+  @Test
+  public void testNotEqual_withConnectLimitNotEqual() {
+    ConnectorConfig k1 = new ConnectorConfig.Builder().withMaxConcurrentConnects(8).build();
+    ConnectorConfig k2 =
+        new ConnectorConfig.Builder().withConnectQueueTimeout(Duration.ofSeconds(5)).build();
+    ConnectorConfig k3 = new ConnectorConfig.Builder().build();
+
+    assertThat(k1).isNotEqualTo(k3);
+    assertThat(k2).isNotEqualTo(k3);
+    assertThat(k1).isNotEqualTo(k2);
+  }
+
+  @Test
+  @SuppressWarnings("AssertThrowsMinimizer")
+  public void testBuild_failsWhenConnectLimitInvalid() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> new ConnectorConfig.Builder().withMaxConcurrentConnects(-1).build());
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            new ConnectorConfig.Builder().withConnectQueueTimeout(Duration.ofSeconds(-1)).build());
+  }
+
+  @Test
+  public void testNotEqual_withClientKeyTypeNotEqual() {
+    ConnectorConfig k1 =
+        new ConnectorConfig.Builder().withClientKeyType(ClientKeyType.EC_P256).build();
+    ConnectorConfig k2 = new ConnectorConfig.Builder().build();
+
+    assertThat(k1).isNotEqualTo(k2);
+    assertThat(k2.getClientKeyType()).isEqualTo(ClientKeyType.RSA_2048);
+  }
+
+  @Test
+  public void testNotEqual_withExecutorNotEqual() {
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    try {
+      ConnectorConfig k1 = new ConnectorConfig.Builder().withExecutor(executor).build();
+      ConnectorConfig k2 = new ConnectorConfig.Builder().withExecutor(executor).build();
+      ConnectorConfig k3 = new ConnectorConfig.Builder().build();
+
+      assertThat(k1).isEqualTo(k2);
+      assertThat(k1.hashCode()).isEqualTo(k2.hashCode());
+      assertThat(k1).isNotEqualTo(k3);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("AssertThrowsMinimizer")
+  public void testBuild_failsWhenConnectionInfoCacheLimitsNegative() {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            new ConnectorConfig.Builder()
+                .withConnectionInfoCacheIdleTimeout(Duration.ofMinutes(-1))
+                .build());
+    assertThrows(
+        IllegalStateException.class,
+        () -> new ConnectorConfig.Builder().withConnectionInfoCacheMaxSize(-1).build());
+  }
+
   @Test
   public void testBuild_withGoogleCredentialsPath() {
     final String wantGoogleCredentialsPath = "/path/to/credentials";
@@ -257,6 +462,17 @@ public class ConnectorConfigTest {
                 null, // googleCredentials
                 wantGoogleCredentialsPath,
                 wantQuotaProject,
-                RefreshStrategy.REFRESH_AHEAD));
+                RefreshStrategy.REFRESH_AHEAD,
+                false, // tlsSessionResumption
+                Duration.ofHours(1), // certificateDuration
+                Duration.ofMinutes(30), // adaptiveRefreshIdleTimeout
+                Duration.ZERO, // connectionInfoCacheIdleTimeout
+                0, // connectionInfoCacheMaxSize
+                0, // warmSocketReserveSize
+                Duration.ofSeconds(30), // warmSocketMaxIdleTime
+                0, // maxConcurrentConnects
+                Duration.ofSeconds(30), // connectQueueTimeout
+                ClientKeyType.RSA_2048, // clientKeyType
+                null)); // executor
   }
 }
@@ -19,17 +19,45 @@ package com.google.cloud.alloydb;
 import static com.google.common.truth.Truth.assertThat;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assume.assumeTrue;
 
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.rpc.Code;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -38,6 +66,8 @@ public class ConnectorTest {
 
   private static final String INSTANCE_NAME =
       "projects/<PROJECT>/locations/<REGION>/clusters/<CLUSTER>/instances/<INSTANCE>";
+  private static final String READ_POOL_INSTANCE_NAME =
+      "projects/<PROJECT>/locations/<REGION>/clusters/<CLUSTER>/instances/<READ_POOL>";
   private static final String SERVER_MESSAGE = "HELLO";
   private static final String ERROR_MESSAGE_NOT_FOUND = "Resource 'instance' was not found";
   private static final String USER_AGENT = "unit tests";
@@ -70,6 +100,43 @@ public class ConnectorTest {
     assertThat(readLine(socket)).isEqualTo(SERVER_MESSAGE);
   }
 
+  @Test
+  public void connect_sharesClientCertificateAcrossInstancesOfCluster() throws IOException {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig primary =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    ConnectionConfig readPool =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(READ_POOL_INSTANCE_NAME))
+            .build();
+    Connector connector = newConnector(primary.getConnectorConfig(), mock);
+
+    assertThat(readLine(connector.connect(primary))).isEqualTo(SERVER_MESSAGE);
+    assertThat(readLine(connector.connect(readPool))).isEqualTo(SERVER_MESSAGE);
+    assertThat(readLine(connector.connect(primary))).isEqualTo(SERVER_MESSAGE);
+
+    assertThat(connector.getConnection(readPool))
+        .isSameInstanceAs(connector.getConnection(primary));
+    assertThat(mock.getGenerateClientCertificateCount()).isEqualTo(1);
+    assertThat(mock.getGetConnectionInfoCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void connect_requestsConfiguredCertificateDuration() throws IOException {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withConnectorConfig(
+                new ConnectorConfig.Builder().withCertificateDuration(Duration.ofHours(12)).build())
+            .build();
+    Connector connector = newConnector(config.getConnectorConfig(), mock);
+
+    assertThat(readLine(connector.connect(config))).isEqualTo(SERVER_MESSAGE);
+
+    assertThat(mock.getCertDurationSeconds()).isEqualTo(Duration.ofHours(12).getSeconds());
+  }
+
   @Test
   public void create_throwsTerminalException() {
     MockAlloyDBAdminGrpc mock =
@@ -83,7 +150,712 @@ public class ConnectorTest {
     assertThat(ex).hasMessageThat().contains(ERROR_MESSAGE_NOT_FOUND);
   }
 
+  @Test
+  public void connectAsync_opensSocketsOnSocketExecutor() throws Exception {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    Connector connector = newConnector(config.getConnectorConfig(), mock);
+    ExecutorService socketExecutor = Executors.newCachedThreadPool();
+    try {
+      List<ListenableFuture<Socket>> sockets = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        sockets.add(connector.connectAsync(config, socketExecutor));
+      }
+      for (ListenableFuture<Socket> socket : sockets) {
+        try (Socket s = socket.get(30, TimeUnit.SECONDS)) {
+          assertThat(readLine(s)).isEqualTo(SERVER_MESSAGE);
+        }
+      }
+    } finally {
+      socketExecutor.shutdownNow();
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connectMany_opensAllSocketsWithBoundedParallelism() throws Exception {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    Connector connector = newConnector(config.getConnectorConfig(), mock);
+    Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    AtomicInteger ran = new AtomicInteger();
+    try {
+      List<ListenableFuture<Socket>> sockets = connector.connectMany(config, 10, 3, tasks::add);
+      assertThat(sockets).hasSize(10);
+
+      // Only maxParallelism connects start before any of them completes.
+      while (tasks.size() < 3) {
+        Thread.sleep(10);
+      }
+      Thread.sleep(100);
+      assertThat(tasks).hasSize(3);
+
+      while (!Futures.allAsList(sockets).isDone()) {
+        Runnable task = tasks.poll();
+        if (task != null) {
+          task.run();
+          ran.incrementAndGet();
+        } else {
+          Thread.sleep(10);
+        }
+      }
+      for (ListenableFuture<Socket> socket : sockets) {
+        try (Socket s = socket.get()) {
+          assertThat(readLine(s)).isEqualTo(SERVER_MESSAGE);
+        }
+      }
+      assertThat(ran.get()).isEqualTo(10);
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connectMany_skipsCancelledConnects() throws Exception {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    Connector connector = newConnector(config.getConnectorConfig(), mock);
+    Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    try {
+      List<ListenableFuture<Socket>> sockets = connector.connectMany(config, 3, 1, tasks::add);
+      sockets.get(1).cancel(false);
+
+      // Run the socket tasks one at a time. Each completed connect starts the next one.
+      while (!sockets.get(2).isDone()) {
+        Runnable task = tasks.poll();
+        if (task != null) {
+          task.run();
+        } else {
+          Thread.sleep(10);
+        }
+      }
+
+      try (Socket s = sockets.get(0).get()) {
+        assertThat(readLine(s)).isEqualTo(SERVER_MESSAGE);
+      }
+      try (Socket s = sockets.get(2).get()) {
+        assertThat(readLine(s)).isEqualTo(SERVER_MESSAGE);
+      }
+      assertThat(tasks).isEmpty();
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connectAsync_waitsForClientKeyPairWithoutBlocking() throws Exception {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    SettableFuture<KeyPair> keyPair = SettableFuture.create();
+    Connector connector =
+        newConnector(config.getConnectorConfig(), mock, new ConnectorMetrics(), keyPair);
+    ExecutorService socketExecutor = Executors.newCachedThreadPool();
+    try {
+      ListenableFuture<Socket> socket = connector.connectAsync(config, socketExecutor);
+      assertThat(socket.isDone()).isFalse();
+
+      keyPair.set(TestCertificates.INSTANCE.getClientKey());
+
+      try (Socket s = socket.get(30, TimeUnit.SECONDS)) {
+        assertThat(readLine(s)).isEqualTo(SERVER_MESSAGE);
+      }
+    } finally {
+      socketExecutor.shutdownNow();
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connect_withEcClientKey() throws Exception {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    Connector connector =
+        newConnector(
+            config.getConnectorConfig(),
+            mock,
+            new ConnectorMetrics(),
+            Futures.immediateFuture(ClientKeyType.EC_P256.generateKeyPair()));
+    try (Socket socket = connector.connect(config)) {
+      assertThat(readLine(socket)).isEqualTo(SERVER_MESSAGE);
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connect_fallsBackToRsaWhenEcClientKeyIsRejected() throws Exception {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    mock.setRejectNonRsaKeys(true);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    Connector connector =
+        newConnector(
+            config.getConnectorConfig(),
+            mock,
+            new ConnectorMetrics(),
+            Futures.immediateFuture(ClientKeyType.EC_P256.generateKeyPair()));
+    try (Socket socket = connector.connect(config)) {
+      assertThat(readLine(socket)).isEqualTo(SERVER_MESSAGE);
+      // The EC key was rejected, and a certificate was issued for the RSA fallback key.
+      assertThat(mock.getGenerateClientCertificateCount()).isEqualTo(2);
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connect_doesNotFallBackToRsaOnOtherInvalidArguments() throws Exception {
+    MockAlloyDBAdminGrpc mock =
+        new MockAlloyDBAdminGrpc(Code.INVALID_ARGUMENT.getNumber(), "invalid cluster name");
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    Connector connector =
+        newConnector(
+            config.getConnectorConfig(),
+            mock,
+            new ConnectorMetrics(),
+            Futures.immediateFuture(ClientKeyType.EC_P256.generateKeyPair()));
+    try {
+      TerminalException ex = assertThrows(TerminalException.class, () -> connector.connect(config));
+      assertThat(ex).hasMessageThat().contains("invalid cluster name");
+      assertThat(mock.getGenerateClientCertificateCount()).isEqualTo(1);
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connect_racesAddressesAndKeepsFirstToCompleteTls() throws Exception {
+    // Accepts TCP connections on the public IP, but never completes a TLS handshake.
+    ServerSocket blackhole = new ServerSocket(5433, 50, InetAddress.getByName("127.0.0.2"));
+    Map<ClusterName, StubConnectionInfoCache> caches = new ConcurrentHashMap<>();
+    Connector connector = newStubConnector(new ConnectorConfig.Builder().build(), caches);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withIpTypes(Arrays.asList(IpType.PUBLIC, IpType.PRIVATE))
+            .build();
+    connector.getConnection(config);
+    caches
+        .get(clusterName("<CLUSTER>"))
+        .setConnectionInfo(newConnectionInfo("127.0.0.1", "127.0.0.2", null));
+    ExecutorService acceptor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Socket> accepted = acceptor.submit(blackhole::accept);
+
+      try (Socket socket = connector.connect(config)) {
+        assertThat(readLine(socket)).isEqualTo(SERVER_MESSAGE);
+        assertThat(socket.getInetAddress().getHostAddress()).isEqualTo("127.0.0.1");
+      }
+      // The attempt that lost the race was closed.
+      try (Socket loser = accepted.get(30, TimeUnit.SECONDS)) {
+        loser.setSoTimeout(30000);
+        assertThat(readToEnd(loser)).isEqualTo(-1);
+      }
+    } finally {
+      acceptor.shutdownNow();
+      blackhole.close();
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connect_skipsIpTypesWithoutAddress() throws Exception {
+    Map<ClusterName, StubConnectionInfoCache> caches = new ConcurrentHashMap<>();
+    Connector connector = newStubConnector(new ConnectorConfig.Builder().build(), caches);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withIpTypes(Arrays.asList(IpType.PSC, IpType.PUBLIC, IpType.PRIVATE))
+            .build();
+    connector.getConnection(config);
+    caches.get(clusterName("<CLUSTER>")).setConnectionInfo(newConnectionInfo("127.0.0.1", "", ""));
+
+    try (Socket socket = connector.connect(config)) {
+      assertThat(readLine(socket)).isEqualTo(SERVER_MESSAGE);
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connect_failsWithStageWhenConnectTimeoutRunsOut() throws Exception {
+    // Accepts TCP connections on the public IP, but never completes a TLS handshake.
+    ServerSocket blackhole = new ServerSocket(5433, 50, InetAddress.getByName("127.0.0.2"));
+    Map<ClusterName, StubConnectionInfoCache> caches = new ConcurrentHashMap<>();
+    Connector connector = newStubConnector(new ConnectorConfig.Builder().build(), caches);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withIpType(IpType.PUBLIC)
+            .withConnectTimeout(Duration.ofMillis(500))
+            .build();
+    connector.getConnection(config);
+    caches
+        .get(clusterName("<CLUSTER>"))
+        .setConnectionInfo(newConnectionInfo("127.0.0.1", "127.0.0.2", null));
+    try {
+      SocketTimeoutException ex =
+          assertThrows(SocketTimeoutException.class, () -> connector.connect(config));
+
+      assertThat(ex)
+          .hasMessageThat()
+          .isEqualTo(
+              String.format(
+                  "[%s] Connect timed out after 500 ms during the TLS handshake.", INSTANCE_NAME));
+      assertThat(caches.get(clusterName("<CLUSTER>")).hasRefreshedInstanceMetadata()).isTrue();
+    } finally {
+      blackhole.close();
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connectAsync_failsWithStageWhenConnectionInfoLookupRunsOut() throws Exception {
+    ConnectionInfoCacheFactory factory =
+        (executor, repo, clusterName, keyPair, minRefreshDelayMs) ->
+            new StubConnectionInfoCache() {
+              @Override
+              public ListenableFuture<ConnectionInfo> getConnectionInfoAsync(
+                  InstanceName instanceName) {
+                // The certificate never arrives.
+                return SettableFuture.create();
+              }
+            };
+    Connector connector =
+        new Connector(
+            new ConnectorConfig.Builder().build(),
+            defaultExecutor,
+            new InMemoryConnectionInfoRepo(),
+            TestCertificates.INSTANCE.getClientKey(),
+            factory,
+            new ConcurrentHashMap<>(),
+            () -> "",
+            USER_AGENT);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withConnectTimeout(Duration.ofMillis(200))
+            .build();
+    try {
+      ListenableFuture<Socket> socket =
+          connector.connectAsync(config, MoreExecutors.directExecutor());
+
+      ExecutionException ex =
+          assertThrows(ExecutionException.class, () -> socket.get(30, TimeUnit.SECONDS));
+      assertThat(ex).hasCauseThat().isInstanceOf(SocketTimeoutException.class);
+      assertThat(ex).hasCauseThat().hasMessageThat().contains("connection info lookup");
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connectAsync_failsWithTerminalException() {
+    MockAlloyDBAdminGrpc mock =
+        new MockAlloyDBAdminGrpc(Code.NOT_FOUND.getNumber(), ERROR_MESSAGE_NOT_FOUND);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    Connector connector = newConnector(config.getConnectorConfig(), mock);
+
+    ListenableFuture<Socket> socket =
+        connector.connectAsync(config, MoreExecutors.directExecutor());
+
+    ExecutionException ex =
+        assertThrows(ExecutionException.class, () -> socket.get(30, TimeUnit.SECONDS));
+    assertThat(ex).hasCauseThat().isInstanceOf(TerminalException.class);
+    assertThat(ex).hasCauseThat().hasMessageThat().contains(ERROR_MESSAGE_NOT_FOUND);
+  }
+
+  @Test
+  public void connect_takesSocketFromWarmSocketReserve() throws Exception {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withConnectorConfig(new ConnectorConfig.Builder().withWarmSocketReserveSize(2).build())
+            .build();
+    ConnectorMetrics metrics = new ConnectorMetrics();
+    Connector connector = newConnector(config.getConnectorConfig(), mock, metrics);
+    try {
+      // The first connection finds the reserve empty, and starts filling it.
+      assertThat(readLine(connector.connect(config))).isEqualTo(SERVER_MESSAGE);
+      assertThat(metrics.getWarmSocketReserveMisses()).isEqualTo(1);
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+      while (metrics.getWarmSocketReserveHits() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+        try (Socket socket = connector.connect(config)) {
+          assertThat(readLine(socket)).isEqualTo(SERVER_MESSAGE);
+        }
+      }
+      assertThat(metrics.getWarmSocketReserveHits()).isAtLeast(1);
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connect_doesNotShareWarmSocketsBetweenAuthTypes() throws Exception {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectorConfig connectorConfig =
+        new ConnectorConfig.Builder().withWarmSocketReserveSize(2).build();
+    ConnectionConfig iamConfig =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withAuthType(AuthType.IAM)
+            .withConnectorConfig(connectorConfig)
+            .build();
+    ConnectionConfig passwordConfig =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withAuthType(AuthType.PASSWORD)
+            .withConnectorConfig(connectorConfig)
+            .build();
+    ConnectorMetrics metrics = new ConnectorMetrics();
+    Connector connector = newConnector(connectorConfig, mock, metrics);
+    try {
+      // Fill the reserve of IAM connections until an IAM connection is taken from it.
+      assertThat(readLine(connector.connect(iamConfig))).isEqualTo(SERVER_MESSAGE);
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+      while (metrics.getWarmSocketReserveHits() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(50);
+        try (Socket socket = connector.connect(iamConfig)) {
+          assertThat(readLine(socket)).isEqualTo(SERVER_MESSAGE);
+        }
+      }
+      assertThat(metrics.getWarmSocketReserveHits()).isAtLeast(1);
+
+      // The password connection must not take a socket that exchanged metadata for IAM.
+      long hits = metrics.getWarmSocketReserveHits();
+      long misses = metrics.getWarmSocketReserveMisses();
+      try (Socket socket = connector.connect(passwordConfig)) {
+        assertThat(readLine(socket)).isEqualTo(SERVER_MESSAGE);
+      }
+      assertThat(metrics.getWarmSocketReserveHits()).isEqualTo(hits);
+      assertThat(metrics.getWarmSocketReserveMisses()).isEqualTo(misses + 1);
+    } finally {
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connect_queuesConnectsOverConcurrentConnectLimit() throws Exception {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withConnectorConfig(new ConnectorConfig.Builder().withMaxConcurrentConnects(1).build())
+            .build();
+    ConnectorMetrics metrics = new ConnectorMetrics();
+    Connector connector = newConnector(config.getConnectorConfig(), mock, metrics);
+    ExecutorService socketExecutor = Executors.newCachedThreadPool();
+    try {
+      List<ListenableFuture<Socket>> sockets = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        sockets.add(connector.connectAsync(config, socketExecutor));
+      }
+      for (ListenableFuture<Socket> socket : sockets) {
+        try (Socket s = socket.get(30, TimeUnit.SECONDS)) {
+          assertThat(readLine(s)).isEqualTo(SERVER_MESSAGE);
+        }
+      }
+      assertThat(metrics.getConnectsQueued()).isAtLeast(1);
+      assertThat(metrics.getConnectQueueTimeouts()).isEqualTo(0);
+    } finally {
+      socketExecutor.shutdownNow();
+      connector.close();
+    }
+  }
+
+  @Test
+  public void connect_resumesTlsSession() throws IOException {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withConnectorConfig(
+                new ConnectorConfig.Builder().withTlsSessionResumption(true).build())
+            .build();
+    ConnectorMetrics metrics = new ConnectorMetrics();
+    Connector connector = newConnector(config.getConnectorConfig(), mock, metrics);
+
+    assertThat(readLine(connector.connect(config))).isEqualTo(SERVER_MESSAGE);
+    assertThat(readLine(connector.connect(config))).isEqualTo(SERVER_MESSAGE);
+
+    assertThat(metrics.getTlsSessionResumptionMisses()).isEqualTo(1);
+    assertThat(metrics.getTlsSessionResumptionHits()).isEqualTo(1);
+  }
+
+  @Test
+  public void connect_withoutTlsSessionResumption_doesNotCountSessions() throws IOException {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    ConnectorMetrics metrics = new ConnectorMetrics();
+    Connector connector = newConnector(config.getConnectorConfig(), mock, metrics);
+
+    assertThat(readLine(connector.connect(config))).isEqualTo(SERVER_MESSAGE);
+    assertThat(readLine(connector.connect(config))).isEqualTo(SERVER_MESSAGE);
+
+    assertThat(metrics.getTlsSessionResumptionMisses()).isEqualTo(0);
+    assertThat(metrics.getTlsSessionResumptionHits()).isEqualTo(0);
+  }
+
+  @Test
+  public void getConnection_evictsLeastRecentlyUsedClusterWhenFull() {
+    ConnectorConfig config =
+        new ConnectorConfig.Builder().withConnectionInfoCacheMaxSize(2).build();
+    ConnectorMetrics metrics = new ConnectorMetrics();
+    Map<ClusterName, StubConnectionInfoCache> caches = new ConcurrentHashMap<>();
+    Connector connector = newStubConnector(config, caches, metrics);
+
+    connector.getConnection(connectionConfig("cluster-a"));
+    connector.getConnection(connectionConfig("cluster-b"));
+    connector.getConnection(connectionConfig("cluster-a"));
+    connector.getConnection(connectionConfig("cluster-c"));
+
+    assertThat(caches.get(clusterName("cluster-a")).hasClosed()).isFalse();
+    assertThat(caches.get(clusterName("cluster-b")).hasClosed()).isTrue();
+    assertThat(caches.get(clusterName("cluster-c")).hasClosed()).isFalse();
+    assertThat(metrics.getConnectionInfoCacheSize()).isEqualTo(2);
+    assertThat(metrics.getConnectionInfoCacheEvictions()).isEqualTo(1);
+  }
+
+  @Test
+  public void evictIdle_closesClustersNotUsedWithinIdleTimeout() throws IOException {
+    ConnectorConfig config =
+        new ConnectorConfig.Builder()
+            .withConnectionInfoCacheIdleTimeout(Duration.ofMinutes(10))
+            .build();
+    ConnectorMetrics metrics = new ConnectorMetrics();
+    Map<ClusterName, StubConnectionInfoCache> caches = new ConcurrentHashMap<>();
+    Connector connector = newStubConnector(config, caches, metrics);
+
+    ConnectionInfoCache cache = connector.getConnection(connectionConfig("cluster-a"));
+    connector.evictIdle(System.nanoTime());
+    assertThat(caches.get(clusterName("cluster-a")).hasClosed()).isFalse();
+
+    connector.evictIdle(System.nanoTime() + Duration.ofMinutes(11).toNanos());
+    assertThat(caches.get(clusterName("cluster-a")).hasClosed()).isTrue();
+    assertThat(metrics.getConnectionInfoCacheSize()).isEqualTo(0);
+    assertThat(metrics.getConnectionInfoCacheEvictions()).isEqualTo(1);
+
+    // The next connection to the cluster creates a new cache.
+    assertThat(connector.getConnection(connectionConfig("cluster-a"))).isNotSameInstanceAs(cache);
+    assertThat(metrics.getConnectionInfoCacheSize()).isEqualTo(1);
+    connector.close();
+    assertThat(metrics.getConnectionInfoCacheSize()).isEqualTo(0);
+    assertThat(metrics.getConnectionInfoCacheEvictions()).isEqualTo(1);
+  }
+
+  @Test
+  public void connect_retriesWhenCacheIsEvictedDuringLookup() throws IOException {
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectorConfig connectorConfig =
+        new ConnectorConfig.Builder()
+            .withConnectionInfoCacheIdleTimeout(Duration.ofMinutes(10))
+            .build();
+    ConnectionConfig config =
+        new ConnectionConfig.Builder()
+            .withInstanceName(InstanceName.parse(INSTANCE_NAME))
+            .withConnectorConfig(connectorConfig)
+            .build();
+    AtomicReference<Connector> connector = new AtomicReference<>();
+    AtomicInteger createdCaches = new AtomicInteger();
+    ConnectionInfoCacheFactory defaultFactory =
+        new DefaultConnectionInfoCacheFactory(RefreshStrategy.REFRESH_AHEAD);
+    ConnectionInfoCacheFactory factory =
+        (executor, repo, clusterName, keyPair, minRefreshDelayMs) -> {
+          ConnectionInfoCache cache =
+              defaultFactory.create(executor, repo, clusterName, keyPair, minRefreshDelayMs);
+          if (createdCaches.getAndIncrement() > 0) {
+            return cache;
+          }
+          // The first cache is evicted and closed after the connect looked it up, while it checks
+          // the client certificate.
+          StubConnectionInfoCache evicted =
+              new StubConnectionInfoCache() {
+                @Override
+                public void refreshIfExpired() {
+                  connector.get().evictIdle(System.nanoTime() + Duration.ofMinutes(11).toNanos());
+                  throw new IllegalStateException("Connection closed");
+                }
+              };
+          cache.close();
+          return evicted;
+        };
+    connector.set(
+        newConnector(
+            connectorConfig,
+            mock,
+            new ConnectorMetrics(),
+            Futures.immediateFuture(TestCertificates.INSTANCE.getClientKey()),
+            factory));
+
+    assertThat(readLine(connector.get().connect(config))).isEqualTo(SERVER_MESSAGE);
+    assertThat(createdCaches.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void connect_fromVirtualThreads_doesNotPinCarrierThreads() throws Exception {
+    // The JVM prints the stack of a virtual thread that blocks while it holds a monitor. Frames
+    // holding a monitor end with "<== monitors".
+    System.setProperty("jdk.tracePinnedThreads", "short");
+    ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+    assumeTrue("Virtual threads are not available.", virtualThreads != null);
+
+    MockAlloyDBAdminGrpc mock = new MockAlloyDBAdminGrpc("127.0.0.1", IpType.PRIVATE);
+    ConnectionConfig config =
+        new ConnectionConfig.Builder().withInstanceName(InstanceName.parse(INSTANCE_NAME)).build();
+    Connector connector = newConnector(config.getConnectorConfig(), mock);
+
+    PrintStream stdout = System.out;
+    ByteArrayOutputStream traces = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(traces, true, UTF_8.name()));
+    try {
+      // Pinned threads are only traced if the property was set before the first virtual thread
+      // started, and not at all once monitors stop pinning, so check that a pin is seen.
+      Object monitor = new Object();
+      virtualThreads
+          .submit(
+              () -> {
+                synchronized (monitor) {
+                  Thread.sleep(10);
+                }
+                return null;
+              })
+          .get();
+      assumeTrue("Pinned threads are not traced.", traces.size() > 0);
+      traces.reset();
+
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        results.add(
+            virtualThreads.submit(
+                () -> {
+                  try (Socket socket = connector.connect(config)) {
+                    return readLine(socket);
+                  }
+                }));
+      }
+      for (Future<String> result : results) {
+        assertThat(result.get()).isEqualTo(SERVER_MESSAGE);
+      }
+    } finally {
+      System.setOut(stdout);
+      virtualThreads.shutdown();
+      connector.close();
+    }
+
+    for (String line : new String(traces.toByteArray(), UTF_8).split("\\R")) {
+      if (line.contains("<== monitors")) {
+        assertThat(line).doesNotContain("com.google.cloud.alloydb.");
+      }
+    }
+  }
+
+  /** Returns an executor that runs each task on a virtual thread, or null before Java 21. */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private static ClusterName clusterName(String cluster) {
+    return ClusterName.of("<PROJECT>", "<REGION>", cluster);
+  }
+
+  private static ConnectionConfig connectionConfig(String cluster) {
+    return new ConnectionConfig.Builder()
+        .withInstanceName(InstanceName.of("<PROJECT>", "<REGION>", cluster, "<INSTANCE>"))
+        .build();
+  }
+
+  private Connector newStubConnector(
+      ConnectorConfig config,
+      Map<ClusterName, StubConnectionInfoCache> caches,
+      ConnectorMetrics metrics) {
+    ConnectionInfoCacheFactory factory =
+        (executor, repo, clusterName, keyPair, minRefreshDelayMs) -> {
+          StubConnectionInfoCache cache = new StubConnectionInfoCache();
+          caches.put(clusterName, cache);
+          return cache;
+        };
+    return new Connector(
+        config,
+        defaultExecutor,
+        new InMemoryConnectionInfoRepo(),
+        TestCertificates.INSTANCE.getClientKey(),
+        factory,
+        new ConcurrentHashMap<>(),
+        () -> "",
+        USER_AGENT,
+        metrics);
+  }
+
+  private Connector newStubConnector(
+      ConnectorConfig config, Map<ClusterName, StubConnectionInfoCache> caches) {
+    return newStubConnector(config, caches, new ConnectorMetrics());
+  }
+
+  /** Returns connection info with a client certificate for the test client key. */
+  private static ConnectionInfo newConnectionInfo(
+      String ipAddress, String publicIpAddress, String pscDnsName) throws Exception {
+    X509Certificate clientCertificate =
+        TestCertificates.INSTANCE.getEphemeralCertificate(
+            TestCertificates.INSTANCE.getClientKey().getPublic(),
+            Instant.now().plus(1, ChronoUnit.HOURS));
+    return new ConnectionInfo(
+        ipAddress,
+        publicIpAddress,
+        pscDnsName,
+        "some-instance-id",
+        clientCertificate,
+        Arrays.asList(
+            clientCertificate,
+            TestCertificates.INSTANCE.getIntermediateCertificate(),
+            TestCertificates.INSTANCE.getRootCertificate()),
+        TestCertificates.INSTANCE.getRootCertificate());
+  }
+
   private Connector newConnector(ConnectorConfig config, MockAlloyDBAdminGrpc mock) {
+    return newConnector(config, mock, new ConnectorMetrics());
+  }
+
+  private Connector newConnector(
+      ConnectorConfig config, MockAlloyDBAdminGrpc mock, ConnectorMetrics metrics) {
+    return newConnector(
+        config, mock, metrics, Futures.immediateFuture(TestCertificates.INSTANCE.getClientKey()));
+  }
+
+  private Connector newConnector(
+      ConnectorConfig config,
+      MockAlloyDBAdminGrpc mock,
+      ConnectorMetrics metrics,
+      ListenableFuture<KeyPair> clientKeyPair) {
+    return newConnector(
+        config,
+        mock,
+        metrics,
+        clientKeyPair,
+        new DefaultConnectionInfoCacheFactory(RefreshStrategy.REFRESH_AHEAD));
+  }
+
+  private Connector newConnector(
+      ConnectorConfig config,
+      MockAlloyDBAdminGrpc mock,
+      ConnectorMetrics metrics,
+      ListenableFuture<KeyPair> clientKeyPair,
+      ConnectionInfoCacheFactory connectionInfoCacheFactory) {
     CredentialFactoryProvider stubCredentialFactoryProvider =
         new CredentialFactoryProvider(new StubCredentialFactory());
     CredentialFactory instanceCredentialFactory =
@@ -99,11 +871,22 @@ public class ConnectorTest {
         config,
         defaultExecutor,
         connectionInfoRepository,
-        TestCertificates.INSTANCE.getClientKey(),
-        new DefaultConnectionInfoCacheFactory(RefreshStrategy.REFRESH_AHEAD),
+        clientKeyPair,
+        connectionInfoCacheFactory,
         new ConcurrentHashMap<>(),
         accessTokenSupplier,
-        USER_AGENT);
+        USER_AGENT,
+        metrics);
+  }
+
+  /** Reads from the socket until it is closed, and returns the result of the last read. */
+  private static int readToEnd(Socket socket) throws IOException {
+    InputStream in = socket.getInputStream();
+    int b;
+    do {
+      b = in.read();
+    } while (b != -1);
+    return b;
   }
 
   private String readLine(Socket socket) throws IOException {
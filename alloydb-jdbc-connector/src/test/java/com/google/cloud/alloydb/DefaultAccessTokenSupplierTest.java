@@ -21,11 +21,18 @@ import static org.junit.Assert.assertThrows;
 
 import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jmock.lib.concurrent.DeterministicScheduler;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -166,6 +173,164 @@ public class DefaultAccessTokenSupplierTest {
     assertThat(ex).hasMessageThat().contains("Access Token expiration time is in the past");
   }
 
+  @Test
+  public void testCachesCredentialsAndToken() throws Exception {
+    GoogleCredentials googleCredentials =
+        new GoogleCredentials(
+            GoogleCredentials.newBuilder()
+                .setAccessToken(new AccessToken("my-expired-token", Date.from(past)))) {
+          @Override
+          public AccessToken refreshAccessToken() throws IOException {
+            refreshCounter.incrementAndGet();
+            return new AccessToken("my-refreshed-token", Date.from(future));
+          }
+        };
+    DefaultAccessTokenSupplier supplier =
+        new DefaultAccessTokenSupplier(new GoogleCredentialsFactory(googleCredentials));
+
+    assertThat(supplier.getTokenValue()).isEqualTo("my-refreshed-token");
+    assertThat(supplier.getTokenValue()).isEqualTo("my-refreshed-token");
+    assertThat(refreshCounter.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testUsesNewCredentialsFromFactoryForNextToken() throws Exception {
+    GoogleCredentials first =
+        GoogleCredentials.create(new AccessToken("first-token", Date.from(future)));
+    GoogleCredentials second =
+        new GoogleCredentials(GoogleCredentials.newBuilder()) {
+          @Override
+          public AccessToken refreshAccessToken() {
+            return new AccessToken("second-token", Date.from(future.plus(1, ChronoUnit.HOURS)));
+          }
+        };
+    AtomicReference<GoogleCredentials> current = new AtomicReference<>(first);
+    AtomicInteger factoryCalls = new AtomicInteger();
+    DeterministicScheduler scheduler = new DeterministicScheduler();
+
+    DefaultAccessTokenSupplier supplier =
+        new DefaultAccessTokenSupplier(
+            new SupplierCredentialFactory(
+                () -> {
+                  factoryCalls.incrementAndGet();
+                  return current.get();
+                }),
+            MoreExecutors.listeningDecorator(scheduler));
+    assertThat(supplier.getTokenValue()).isEqualTo("first-token");
+
+    // Reading a valid token does not ask the factory.
+    current.set(second);
+    assertThat(supplier.getTokenValue()).isEqualTo("first-token");
+    assertThat(factoryCalls.get()).isEqualTo(1);
+
+    // The background refresh picks up the new credentials.
+    scheduler.tick(56, TimeUnit.MINUTES);
+    assertThat(supplier.getTokenValue()).isEqualTo("second-token");
+    assertThat(factoryCalls.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testBackgroundRefreshDoesNotBlockReadingToken() throws Exception {
+    CountDownLatch refreshStarted = new CountDownLatch(1);
+    CountDownLatch finishRefresh = new CountDownLatch(1);
+    GoogleCredentials googleCredentials =
+        new GoogleCredentials(
+            GoogleCredentials.newBuilder()
+                .setAccessToken(new AccessToken("my-token", Date.from(future)))) {
+          @Override
+          public AccessToken refreshAccessToken() throws IOException {
+            refreshStarted.countDown();
+            try {
+              finishRefresh.await();
+            } catch (InterruptedException e) {
+              throw new IOException(e);
+            }
+            return new AccessToken(
+                "my-refreshed-token", Date.from(future.plus(1, ChronoUnit.HOURS)));
+          }
+        };
+    DeterministicScheduler scheduler = new DeterministicScheduler();
+    ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+
+    try {
+      DefaultAccessTokenSupplier supplier =
+          new DefaultAccessTokenSupplier(
+              new GoogleCredentialsFactory(googleCredentials),
+              MoreExecutors.listeningDecorator(scheduler),
+              refreshExecutor);
+      assertThat(supplier.getTokenValue()).isEqualTo("my-token");
+
+      // The scheduler only starts the refresh, which then blocks on the refresh executor.
+      scheduler.tick(56, TimeUnit.MINUTES);
+      assertThat(refreshStarted.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(supplier.getTokenValue()).isEqualTo("my-token");
+
+      finishRefresh.countDown();
+      refreshExecutor.shutdown();
+      assertThat(refreshExecutor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(supplier.getTokenValue()).isEqualTo("my-refreshed-token");
+    } finally {
+      finishRefresh.countDown();
+      refreshExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testRefreshesTokenInBackgroundBeforeExpiration() throws Exception {
+    GoogleCredentials googleCredentials =
+        new GoogleCredentials(
+            GoogleCredentials.newBuilder()
+                .setAccessToken(new AccessToken("my-token", Date.from(future)))) {
+          @Override
+          public AccessToken refreshAccessToken() throws IOException {
+            refreshCounter.incrementAndGet();
+            return new AccessToken(
+                "my-refreshed-token", Date.from(future.plus(1, ChronoUnit.HOURS)));
+          }
+        };
+    DeterministicScheduler scheduler = new DeterministicScheduler();
+
+    DefaultAccessTokenSupplier supplier =
+        new DefaultAccessTokenSupplier(
+            new GoogleCredentialsFactory(googleCredentials),
+            MoreExecutors.listeningDecorator(scheduler));
+
+    assertThat(supplier.getTokenValue()).isEqualTo("my-token");
+    scheduler.tick(50, TimeUnit.MINUTES);
+    assertThat(refreshCounter.get()).isEqualTo(0);
+
+    scheduler.tick(6, TimeUnit.MINUTES);
+    assertThat(refreshCounter.get()).isEqualTo(1);
+    assertThat(supplier.getTokenValue()).isEqualTo("my-refreshed-token");
+  }
+
+  @Test
+  public void testCloseStopsBackgroundRefresh() throws Exception {
+    GoogleCredentials googleCredentials =
+        new GoogleCredentials(
+            GoogleCredentials.newBuilder()
+                .setAccessToken(new AccessToken("my-token", Date.from(future)))) {
+          @Override
+          public AccessToken refreshAccessToken() throws IOException {
+            refreshCounter.incrementAndGet();
+            return new AccessToken(
+                "my-refreshed-token", Date.from(future.plus(1, ChronoUnit.HOURS)));
+          }
+        };
+    DeterministicScheduler scheduler = new DeterministicScheduler();
+
+    DefaultAccessTokenSupplier supplier =
+        new DefaultAccessTokenSupplier(
+            new GoogleCredentialsFactory(googleCredentials),
+            MoreExecutors.listeningDecorator(scheduler));
+
+    assertThat(supplier.getTokenValue()).isEqualTo("my-token");
+    supplier.close();
+    scheduler.tick(2, TimeUnit.HOURS);
+
+    assertThat(refreshCounter.get()).isEqualTo(0);
+  }
+
   private static class GoogleCredentialsFactory implements CredentialFactory {
     private final GoogleCredentials credentials;
 
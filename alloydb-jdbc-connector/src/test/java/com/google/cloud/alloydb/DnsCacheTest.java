@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class DnsCacheTest {
+
+  private static final String HOSTNAME = "instance.psc.example.com";
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private final AtomicInteger lookups = new AtomicInteger();
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  /** Resolves every hostname to 10.0.0.n, where n counts the lookups. */
+  private InetAddress[] resolve(String hostname) throws UnknownHostException {
+    byte n = (byte) lookups.incrementAndGet();
+    return new InetAddress[] {InetAddress.getByAddress(hostname, new byte[] {10, 0, 0, n})};
+  }
+
+  @Test
+  public void resolve_looksUpHostnameOnlyOnce() throws Exception {
+    DnsCache cache = new DnsCache(scheduler, Runnable::run, this::resolve, Duration.ofHours(1));
+
+    InetAddress first = cache.resolve(HOSTNAME)[0];
+    InetAddress second = cache.resolve(HOSTNAME)[0];
+
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(second.getHostName()).isEqualTo(HOSTNAME);
+    assertThat(lookups.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void resolve_looksUpHostnameInBackgroundWhileUsed() throws Exception {
+    DnsCache cache = new DnsCache(scheduler, Runnable::run, this::resolve, Duration.ofMillis(50));
+    assertThat(cache.resolve(HOSTNAME)[0].getAddress()[3]).isEqualTo((byte) 1);
+
+    // Keep using the hostname, so that it is looked up again after every TTL.
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (lookups.get() < 3 && System.nanoTime() < deadline) {
+      cache.resolve(HOSTNAME);
+      Thread.sleep(10);
+    }
+
+    assertThat(lookups.get()).isAtLeast(3);
+    assertThat((int) cache.resolve(HOSTNAME)[0].getAddress()[3]).isAtLeast(3);
+    cache.close();
+  }
+
+  @Test
+  public void resolve_dropsHostnameNotUsedForTtl() throws Exception {
+    DnsCache cache = new DnsCache(scheduler, Runnable::run, this::resolve, Duration.ofMillis(20));
+    cache.resolve(HOSTNAME);
+
+    // The first background lookup finds the hostname used, the second one drops it.
+    Thread.sleep(200);
+    int background = lookups.get();
+    cache.resolve(HOSTNAME);
+
+    assertThat(background).isEqualTo(2);
+    assertThat(lookups.get()).isEqualTo(3);
+    cache.close();
+  }
+
+  @Test
+  public void resolve_withZeroTtl_looksUpEveryTime() throws Exception {
+    DnsCache cache = new DnsCache(scheduler, Runnable::run, this::resolve, Duration.ZERO);
+
+    cache.resolve(HOSTNAME);
+    cache.resolve(HOSTNAME);
+
+    assertThat(lookups.get()).isEqualTo(2);
+  }
+}
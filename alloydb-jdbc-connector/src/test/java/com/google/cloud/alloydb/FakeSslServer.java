@@ -54,6 +54,7 @@ class FakeSslServer {
   private static final String X_509 = "X.509";
   private static final String ROOT_CA_CERT = "rootCaCert";
   private static final int IO_TIMEOUT_MS = 30000;
+  private static final int BACKLOG = 128;
   private String message;
   private Thread thread;
 
@@ -84,34 +85,18 @@ class FakeSslServer {
                 SSLServerSocket sslServerSocket =
                     (SSLServerSocket)
                         sslServerSocketFactory.createServerSocket(
-                            5433, 5, InetAddress.getByName(ip));
+                            5433, BACKLOG, InetAddress.getByName(ip));
                 sslServerSocket.setNeedClientAuth(true);
 
                 pickedPort.set(sslServerSocket.getLocalPort());
                 countDownLatch.countDown();
-                MetadataExchangeResponse response =
-                    MetadataExchangeResponse.newBuilder().setResponseCode(ResponseCode.OK).build();
                 for (; ; ) {
                   SSLSocket socket = (SSLSocket) sslServerSocket.accept();
-                  socket.startHandshake();
-
-                  // Metadata exchange.
-                  socket.setSoTimeout(IO_TIMEOUT_MS);
-                  DataInputStream in =
-                      new DataInputStream(new BufferedInputStream(socket.getInputStream()));
-                  int reqSize = in.readInt();
-                  byte[] reqData = new byte[reqSize];
-                  in.readFully(reqData);
-                  DataOutputStream out =
-                      new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
-                  out.writeInt(response.getSerializedSize());
-                  out.write(response.toByteArray());
-                  out.flush();
-
-                  // Send message to the client.
-                  out.write(message.getBytes(UTF_8));
-                  out.flush();
-                  socket.close();
+                  // Handle each connection on its own thread, so that concurrent clients do not
+                  // wait for each other's handshakes.
+                  Thread handler = new Thread(() -> handle(socket));
+                  handler.setDaemon(true);
+                  handler.start();
                 }
               } catch (Exception e) {
                 throw new RuntimeException(e);
@@ -124,6 +109,38 @@ class FakeSslServer {
     return pickedPort.get();
   }
 
+  private void handle(SSLSocket socket) {
+    try {
+      socket.startHandshake();
+
+      // Metadata exchange.
+      socket.setSoTimeout(IO_TIMEOUT_MS);
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      int reqSize = in.readInt();
+      byte[] reqData = new byte[reqSize];
+      in.readFully(reqData);
+      MetadataExchangeResponse response =
+          MetadataExchangeResponse.newBuilder().setResponseCode(ResponseCode.OK).build();
+      DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      out.writeInt(response.getSerializedSize());
+      out.write(response.toByteArray());
+      out.flush();
+
+      // Send message to the client.
+      out.write(message.getBytes(UTF_8));
+      out.flush();
+    } catch (IOException e) {
+      // The client sees the failed connection.
+    } finally {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // ignore
+      }
+    }
+  }
+
   void stop() {
     this.thread.interrupt();
   }
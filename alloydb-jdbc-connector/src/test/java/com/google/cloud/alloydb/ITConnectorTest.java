@@ -17,6 +17,7 @@ package com.google.cloud.alloydb;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
 import com.google.common.base.Objects;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
@@ -56,7 +57,11 @@ public class ITConnectorTest {
     CredentialFactory instanceCredentialFactory =
         credentialFactoryProvider.getInstanceCredentialFactory(config);
     connectionInfoRepositoryFactory =
-        new DefaultConnectionInfoRepositoryFactory(executor, USER_AGENT);
+        new DefaultConnectionInfoRepositoryFactory(
+            executor,
+            USER_AGENT,
+            new AlloyDBAdminClientPool(),
+            new KeyPairCache(executor, new ConnectorMetrics()));
     connectionInfoRepo = connectionInfoRepositoryFactory.create(instanceCredentialFactory, config);
     accessTokenSupplier = new DefaultAccessTokenSupplier(instanceCredentialFactory);
   }
@@ -151,6 +156,7 @@ public class ITConnectorTest {
     }
 
     assertThat(stubConnectionInfoCache.hasForceRefreshed()).isTrue();
+    assertThat(stubConnectionInfoCache.hasRefreshedInstanceMetadata()).isTrue();
     assertThat(stubConnectionInfoCache.hasRefreshedIfExpired()).isTrue();
     assertThat(stubConnectionInfoCache.hasClosed()).isFalse();
   }
@@ -271,7 +277,7 @@ public class ITConnectorTest {
     KeyPair clientConnectorKeyPair = RsaKeyPairGenerator.generateKeyPair();
     DefaultConnectionInfoCacheFactory connectionInfoCacheFactory =
         new DefaultConnectionInfoCacheFactory(RefreshStrategy.REFRESH_AHEAD);
-    ConcurrentHashMap<ConnectionConfig, ConnectionInfoCache> instances = new ConcurrentHashMap<>();
+    ConcurrentHashMap<ClusterName, ConnectionInfoCache> clusters = new ConcurrentHashMap<>();
     ConnectorConfig config = new ConnectorConfig.Builder().build();
 
     Connector a =
@@ -281,7 +287,7 @@ public class ITConnectorTest {
             connectionInfoRepo,
             clientConnectorKeyPair,
             connectionInfoCacheFactory,
-            instances,
+            clusters,
             accessTokenSupplier,
             USER_AGENT);
 
@@ -293,7 +299,7 @@ public class ITConnectorTest {
                 connectionInfoRepo,
                 clientConnectorKeyPair,
                 connectionInfoCacheFactory,
-                instances,
+                clusters,
                 accessTokenSupplier,
                 USER_AGENT));
   }
@@ -19,6 +19,7 @@ package com.google.cloud.alloydb;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
@@ -62,7 +63,11 @@ public class ITDefaultConnectionInfoRepositoryTest {
     CredentialFactory instanceCredentialFactory =
         credentialFactoryProvider.getInstanceCredentialFactory(config);
     ConnectionInfoRepositoryFactory connectionInfoRepositoryFactory =
-        new DefaultConnectionInfoRepositoryFactory(executor, USER_AGENT);
+        new DefaultConnectionInfoRepositoryFactory(
+            executor,
+            USER_AGENT,
+            new AlloyDBAdminClientPool(),
+            new KeyPairCache(executor, new ConnectorMetrics()));
     defaultConnectionInfoRepository =
         connectionInfoRepositoryFactory.create(instanceCredentialFactory, config);
   }
@@ -73,19 +78,32 @@ public class ITDefaultConnectionInfoRepositoryTest {
   }
 
   @Test
-  public void testGetConnectionInfo()
+  public void testGetInstanceMetadata() throws ExecutionException, InterruptedException {
+    InstanceName instanceName = InstanceName.parse(instanceUri);
+    ListenableFuture<InstanceMetadata> f =
+        defaultConnectionInfoRepository.getInstanceMetadata(instanceName);
+
+    InstanceMetadata instanceMetadata = f.get();
+
+    assertThat(instanceMetadata.getInstanceUid()).isNotEmpty();
+    assertThat(instanceMetadata.getIpAddress()).isNotEmpty();
+    assertThat(instanceMetadata.getPublicIpAddress()).isNotEmpty();
+  }
+
+  @Test
+  public void testGetCertificateInfo()
       throws ExecutionException, InterruptedException, CertificateException {
     InstanceName instanceName = InstanceName.parse(instanceUri);
-    ListenableFuture<ConnectionInfo> f =
-        defaultConnectionInfoRepository.getConnectionInfo(instanceName, keyPair);
+    ClusterName clusterName =
+        ClusterName.of(
+            instanceName.getProject(), instanceName.getLocation(), instanceName.getCluster());
+    ListenableFuture<CertificateInfo> f =
+        defaultConnectionInfoRepository.getCertificateInfo(clusterName, keyPair);
 
-    ConnectionInfo connectionInfo = f.get();
+    CertificateInfo certificateInfo = f.get();
 
-    assertThat(connectionInfo.getInstanceUid()).isNotEmpty();
-    assertThat(connectionInfo.getIpAddress()).isNotEmpty();
-    assertThat(connectionInfo.getPublicIpAddress()).isNotEmpty();
-    assertThat(connectionInfo.getClientCertificate()).isNotNull();
-    assertThat(connectionInfo.getCertificateChain()).hasSize(3);
+    assertThat(certificateInfo.getClientCertificate()).isNotNull();
+    assertThat(certificateInfo.getCertificateChain()).hasSize(3);
   }
 
   @Test
@@ -96,7 +114,7 @@ public class ITDefaultConnectionInfoRepositoryTest {
     Exception exception =
         assertThrows(
             Exception.class,
-            () -> defaultConnectionInfoRepository.getConnectionInfo(instanceName, keyPair).get());
+            () -> defaultConnectionInfoRepository.getInstanceMetadata(instanceName).get());
 
     assertThat(exception).hasMessageThat().contains("PERMISSION_DENIED");
   }
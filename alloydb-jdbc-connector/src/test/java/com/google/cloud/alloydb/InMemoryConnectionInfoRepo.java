@@ -16,6 +16,7 @@
 
 package com.google.cloud.alloydb;
 
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -37,13 +38,27 @@ class InMemoryConnectionInfoRepo implements ConnectionInfoRepository {
     index = new AtomicInteger(0);
   }
 
+  /** Returns the metadata of the first registered response that succeeds. */
+  @Override
+  public ListenableFuture<InstanceMetadata> getInstanceMetadata(InstanceName instanceName) {
+    for (Callable<ConnectionInfo> callable : registeredCallables) {
+      try {
+        return Futures.immediateFuture(callable.call().getInstanceMetadata());
+      } catch (Exception e) {
+        // try the next response
+      }
+    }
+    return Futures.immediateFailedFuture(
+        new IllegalStateException("No successful response registered."));
+  }
+
   @SuppressWarnings("RedundantThrows")
   @Override
-  public ListenableFuture<ConnectionInfo> getConnectionInfo(
-      InstanceName instanceName, KeyPair publicKey) {
+  public ListenableFuture<CertificateInfo> getCertificateInfo(
+      ClusterName clusterName, KeyPair publicKey) {
     Callable<ConnectionInfo> callable = registeredCallables.get(index.getAndIncrement());
     try {
-      return Futures.immediateFuture(callable.call());
+      return Futures.immediateFuture(callable.call().getCertificateInfo());
     } catch (Exception e) {
       return Futures.immediateFailedFuture(new ExecutionException(e));
     }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.alloydb.v1alpha.ClusterName;
+import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class InstanceMetadataCacheTest {
+
+  private static final InstanceName INSTANCE_NAME =
+      InstanceName.parse(
+          "projects/<PROJECT>/locations/<REGION>/clusters/<CLUSTER>/instances/<INSTANCE>");
+  private static final long TEST_TIMEOUT_MS = 1000L;
+  private static final InstanceMetadata FIRST = new InstanceMetadata("10.0.0.1", "", "", "uid");
+  private static final InstanceMetadata SECOND = new InstanceMetadata("10.0.0.2", "", "", "uid");
+
+  @Test
+  public void testGetInstanceMetadata_fetchesOnce() {
+    MetadataRepo repo = new MetadataRepo(Futures.immediateFuture(FIRST));
+    InstanceMetadataCache cache =
+        new InstanceMetadataCache(repo, Duration.ofHours(1), Duration.ZERO);
+
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+
+    assertThat(repo.getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testGetInstanceMetadata_servesStaleMetadataWhileRefreshing() {
+    SettableFuture<InstanceMetadata> second = SettableFuture.create();
+    MetadataRepo repo =
+        new MetadataRepo(Futures.immediateFuture(FIRST), second, SettableFuture.create());
+    InstanceMetadataCache cache = new InstanceMetadataCache(repo, Duration.ZERO, Duration.ZERO);
+
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+    // The metadata is older than the max age, so a refresh starts but the old metadata is served.
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+    assertThat(repo.getCount()).isEqualTo(2);
+
+    second.set(SECOND);
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(SECOND);
+  }
+
+  @Test
+  public void testRefresh_fetchesNewMetadata() {
+    MetadataRepo repo =
+        new MetadataRepo(Futures.immediateFuture(FIRST), Futures.immediateFuture(SECOND));
+    InstanceMetadataCache cache =
+        new InstanceMetadataCache(repo, Duration.ofHours(1), Duration.ZERO);
+
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+    cache.refresh(INSTANCE_NAME);
+
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(SECOND);
+    assertThat(repo.getCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testRefresh_isRateLimited() {
+    MetadataRepo repo =
+        new MetadataRepo(Futures.immediateFuture(FIRST), Futures.immediateFuture(SECOND));
+    InstanceMetadataCache cache =
+        new InstanceMetadataCache(repo, Duration.ofHours(1), Duration.ofHours(1));
+
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+    cache.refresh(INSTANCE_NAME);
+
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+    assertThat(repo.getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testGetInstanceMetadata_retriesAfterFailure() {
+    MetadataRepo repo =
+        new MetadataRepo(
+            Futures.immediateFailedFuture(new TerminalException("not found")),
+            Futures.immediateFuture(FIRST));
+    InstanceMetadataCache cache =
+        new InstanceMetadataCache(repo, Duration.ofHours(1), Duration.ZERO);
+
+    assertThrows(
+        TerminalException.class, () -> cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS));
+
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+  }
+
+  @Test
+  public void testRefresh_servesCurrentMetadataUntilFetchSucceeds() {
+    SettableFuture<InstanceMetadata> second = SettableFuture.create();
+    MetadataRepo repo =
+        new MetadataRepo(Futures.immediateFuture(FIRST), second, Futures.immediateFuture(SECOND));
+    InstanceMetadataCache cache =
+        new InstanceMetadataCache(repo, Duration.ofHours(1), Duration.ZERO);
+
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+    cache.refresh(INSTANCE_NAME);
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+
+    // A failed refresh keeps the current metadata.
+    second.setException(new RuntimeException("unavailable"));
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(FIRST);
+
+    cache.refresh(INSTANCE_NAME);
+    assertThat(cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS)).isEqualTo(SECOND);
+    assertThat(repo.getCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void testGetInstanceMetadata_rateLimitsFetchesAfterFailure() {
+    MetadataRepo repo =
+        new MetadataRepo(
+            Futures.immediateFailedFuture(new TerminalException("unavailable")),
+            Futures.immediateFuture(FIRST));
+    InstanceMetadataCache cache =
+        new InstanceMetadataCache(repo, Duration.ofHours(1), Duration.ofHours(1));
+
+    TerminalException first =
+        assertThrows(
+            TerminalException.class,
+            () -> cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS));
+    TerminalException second =
+        assertThrows(
+            TerminalException.class,
+            () -> cache.getInstanceMetadata(INSTANCE_NAME, TEST_TIMEOUT_MS));
+
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(repo.getCount()).isEqualTo(1);
+  }
+
+  private static class MetadataRepo implements ConnectionInfoRepository {
+    private final Queue<ListenableFuture<InstanceMetadata>> responses = new ArrayDeque<>();
+    private final AtomicInteger count = new AtomicInteger();
+
+    @SafeVarargs
+    MetadataRepo(ListenableFuture<InstanceMetadata>... responses) {
+      for (ListenableFuture<InstanceMetadata> response : responses) {
+        this.responses.add(response);
+      }
+    }
+
+    @Override
+    public ListenableFuture<InstanceMetadata> getInstanceMetadata(InstanceName instanceName) {
+      count.incrementAndGet();
+      return responses.remove();
+    }
+
+    @Override
+    public ListenableFuture<CertificateInfo> getCertificateInfo(
+        ClusterName clusterName, KeyPair publicKey) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {}
+
+    int getCount() {
+      return count.get();
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import java.lang.ref.WeakReference;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class KeyPairCacheTest {
+
+  private final ConnectorMetrics metrics = new ConnectorMetrics();
+  private final List<Runnable> tasks = new ArrayList<>();
+  private final KeyPairCache cache = new KeyPairCache(tasks::add, metrics);
+
+  @Test
+  public void constructor_startsGeneratingKeyPair() {
+    assertThat(tasks).hasSize(1);
+
+    tasks.get(0).run();
+
+    assertThat(metrics.getKeyPairsGenerated()).isEqualTo(1);
+    assertThat(metrics.getKeyPairGenerationTimeNanos()).isGreaterThan(0);
+  }
+
+  @Test
+  public void get_returnsPregeneratedKeyPairToFirstIdentity() throws Exception {
+    ListenableFuture<KeyPair> keyPair = cache.get(new ConnectorConfig.Builder().build());
+
+    assertThat(tasks).hasSize(1);
+    assertThat(keyPair.isDone()).isFalse();
+    tasks.get(0).run();
+    assertThat(keyPair.get()).isNotNull();
+  }
+
+  @Test
+  public void get_sharesKeyPairBetweenConnectorsWithSameIdentity() {
+    ListenableFuture<KeyPair> k1 =
+        cache.get(new ConnectorConfig.Builder().withTargetPrincipal("sa@example.com").build());
+    ListenableFuture<KeyPair> k2 =
+        cache.get(
+            new ConnectorConfig.Builder()
+                .withTargetPrincipal("sa@example.com")
+                .withRefreshStrategy(RefreshStrategy.LAZY)
+                .build());
+
+    assertThat(k1).isSameInstanceAs(k2);
+    assertThat(tasks).hasSize(1);
+  }
+
+  @Test
+  public void get_generatesKeyPairOfConfiguredType() throws Exception {
+    ListenableFuture<KeyPair> keyPair =
+        cache.get(new ConnectorConfig.Builder().withClientKeyType(ClientKeyType.EC_P256).build());
+
+    // The key pair generated ahead is RSA, so an EC key pair is generated.
+    assertThat(tasks).hasSize(2);
+    tasks.get(1).run();
+    assertThat(keyPair.get().getPublic().getAlgorithm()).isEqualTo("EC");
+  }
+
+  @Test
+  public void get_generatesKeyPairForEachIdentity() throws Exception {
+    ListenableFuture<KeyPair> k1 = cache.get(new ConnectorConfig.Builder().build());
+    ListenableFuture<KeyPair> k2 =
+        cache.get(new ConnectorConfig.Builder().withTargetPrincipal("sa@example.com").build());
+
+    assertThat(tasks).hasSize(2);
+    for (Runnable task : tasks) {
+      task.run();
+    }
+    assertThat(k1.get()).isNotSameInstanceAs(k2.get());
+    assertThat(metrics.getKeyPairsGenerated()).isEqualTo(2);
+  }
+
+  @Test
+  public void get_generatesNewKeyPairAfterFailure() throws Exception {
+    ConnectorConfig config =
+        new ConnectorConfig.Builder().withTargetPrincipal("sa@example.com").build();
+    ListenableFuture<KeyPair> failed = cache.get(config);
+    ((Future<?>) tasks.get(0)).cancel(false);
+
+    ListenableFuture<KeyPair> keyPair = cache.get(config);
+
+    assertThat(keyPair).isNotSameInstanceAs(failed);
+    assertThat(tasks).hasSize(2);
+    tasks.get(1).run();
+    assertThat(keyPair.get()).isNotNull();
+  }
+
+  @Test
+  public void get_failsWithoutGeneratingWhenExecutorRejects() {
+    KeyPairCache rejecting =
+        new KeyPairCache(
+            r -> {
+              throw new RejectedExecutionException("shut down");
+            },
+            metrics);
+    ConnectorConfig config = new ConnectorConfig.Builder().build();
+
+    ListenableFuture<KeyPair> failed = rejecting.get(config);
+
+    ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+    assertThat(e).hasCauseThat().isInstanceOf(RejectedExecutionException.class);
+    assertThat(metrics.getKeyPairsGenerated()).isEqualTo(0);
+    // The failed key pair was dropped, so the next connector tries again.
+    assertThat(rejecting.get(config)).isNotSameInstanceAs(failed);
+  }
+
+  @Test
+  public void get_dropsKeyPairNoConnectorUses() throws Exception {
+    ConnectorConfig config =
+        new ConnectorConfig.Builder().withTargetPrincipal("sa@example.com").build();
+    WeakReference<ListenableFuture<KeyPair>> keyPair = new WeakReference<>(cache.get(config));
+    tasks.clear();
+
+    // Nothing uses the key pair anymore, so it is dropped once it is collected.
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (keyPair.get() != null && System.nanoTime() < deadline) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(keyPair.get()).isNull();
+
+    cache.get(config);
+    assertThat(tasks).hasSize(1);
+  }
+}
@@ -19,12 +19,24 @@ package com.google.cloud.alloydb;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import java.security.KeyPair;
 import java.security.cert.CertificateException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bouncycastle.cert.CertIOException;
 import org.bouncycastle.operator.OperatorCreationException;
 import org.junit.Test;
@@ -43,15 +55,18 @@ public class LazyConnectionInfoCacheTest {
       InstanceName.parse(
           "projects/<PROJECT>/locations/<REGION>/clusters/<CLUSTER>/instances/<INSTANCE>");
 
+  private static final ClusterName TEST_CLUSTER_NAME =
+      ClusterName.of("<PROJECT>", "<REGION>", "<CLUSTER>");
+
   private final KeyPair keyPair = RsaKeyPairGenerator.generateKeyPair();
 
   @Test
   public void testGetConnectionInfo() {
     InMemoryConnectionInfoRepo repo = new InMemoryConnectionInfoRepo();
     repo.addResponses(() -> buildConnectionInfoWithClientCertExpiration(ONE_HOUR_FROM_NOW));
-    LazyConnectionInfoCache cache = new LazyConnectionInfoCache(repo, TEST_INSTANCE_NAME, keyPair);
+    LazyConnectionInfoCache cache = new LazyConnectionInfoCache(repo, TEST_CLUSTER_NAME, keyPair);
 
-    ConnectionInfo connectionInfo = cache.getConnectionInfo();
+    ConnectionInfo connectionInfo = cache.getConnectionInfo(TEST_INSTANCE_NAME);
     assertThat(connectionInfo.getClientCertificate().getNotAfter().toInstant())
         .isEqualTo(ONE_HOUR_FROM_NOW);
   }
@@ -62,14 +77,14 @@ public class LazyConnectionInfoCacheTest {
     repo.addResponses(
         () -> buildConnectionInfoWithClientCertExpiration(ONE_HOUR_AGO),
         () -> buildConnectionInfoWithClientCertExpiration(ONE_HOUR_FROM_NOW));
-    LazyConnectionInfoCache cache = new LazyConnectionInfoCache(repo, TEST_INSTANCE_NAME, keyPair);
+    LazyConnectionInfoCache cache = new LazyConnectionInfoCache(repo, TEST_CLUSTER_NAME, keyPair);
 
     // seed internal cache with first response from connection info repo (an expired certificate).
-    ConnectionInfo connectionInfo = cache.getConnectionInfo();
+    ConnectionInfo connectionInfo = cache.getConnectionInfo(TEST_INSTANCE_NAME);
     assertThat(connectionInfo.getClientCertificate().getNotAfter().toInstant())
         .isEqualTo(ONE_HOUR_AGO);
 
-    connectionInfo = cache.getConnectionInfo();
+    connectionInfo = cache.getConnectionInfo(TEST_INSTANCE_NAME);
     assertThat(connectionInfo.getClientCertificate().getNotAfter().toInstant())
         .isEqualTo(ONE_HOUR_FROM_NOW);
   }
@@ -80,16 +95,16 @@ public class LazyConnectionInfoCacheTest {
     repo.addResponses(
         () -> buildConnectionInfoWithClientCertExpiration(ONE_HOUR_FROM_NOW),
         () -> buildConnectionInfoWithClientCertExpiration(TWO_HOURS_FROM_NOW));
-    LazyConnectionInfoCache cache = new LazyConnectionInfoCache(repo, TEST_INSTANCE_NAME, keyPair);
+    LazyConnectionInfoCache cache = new LazyConnectionInfoCache(repo, TEST_CLUSTER_NAME, keyPair);
 
     // seed the internal cache
-    ConnectionInfo connectionInfo = cache.getConnectionInfo();
+    ConnectionInfo connectionInfo = cache.getConnectionInfo(TEST_INSTANCE_NAME);
     assertThat(connectionInfo.getClientCertificate().getNotAfter().toInstant())
         .isEqualTo(ONE_HOUR_FROM_NOW);
 
     cache.forceRefresh(); // invalidate the cache
 
-    connectionInfo = cache.getConnectionInfo();
+    connectionInfo = cache.getConnectionInfo(TEST_INSTANCE_NAME);
     assertThat(connectionInfo.getClientCertificate().getNotAfter().toInstant())
         .isEqualTo(TWO_HOURS_FROM_NOW);
   }
@@ -97,16 +112,99 @@ public class LazyConnectionInfoCacheTest {
   @Test
   public void testClose() {
     LazyConnectionInfoCache cache =
-        new LazyConnectionInfoCache(new InMemoryConnectionInfoRepo(), TEST_INSTANCE_NAME, keyPair);
+        new LazyConnectionInfoCache(new InMemoryConnectionInfoRepo(), TEST_CLUSTER_NAME, keyPair);
 
     cache.close();
 
     // After the cache is closed, subsequent usage throws an exception.
-    assertThrows(IllegalStateException.class, cache::getConnectionInfo);
+    assertThrows(IllegalStateException.class, () -> cache.getConnectionInfo(TEST_INSTANCE_NAME));
     assertThrows(IllegalStateException.class, cache::forceRefresh);
     assertThrows(IllegalStateException.class, cache::refreshIfExpired);
   }
 
+  @Test
+  public void testGetConnectionInfo_servesValidCertificateWhileRefreshing() throws Exception {
+    ConnectionInfo expiringSoon =
+        buildConnectionInfoWithClientCertExpiration(Instant.now().plus(2, ChronoUnit.MINUTES));
+    ConnectionInfo refreshed = buildConnectionInfoWithClientCertExpiration(ONE_HOUR_FROM_NOW);
+    SettableFuture<CertificateInfo> refresh = SettableFuture.create();
+    CertificateRepo repo =
+        new CertificateRepo(Futures.immediateFuture(expiringSoon.getCertificateInfo()), refresh);
+    LazyConnectionInfoCache cache = new LazyConnectionInfoCache(repo, TEST_CLUSTER_NAME, keyPair);
+
+    // The first certificate is within the refresh buffer, so the next calls start a refresh but
+    // keep serving it without waiting.
+    assertThat(cache.getConnectionInfo(TEST_INSTANCE_NAME).getCertificateInfo())
+        .isEqualTo(expiringSoon.getCertificateInfo());
+    assertThat(cache.getConnectionInfo(TEST_INSTANCE_NAME).getCertificateInfo())
+        .isEqualTo(expiringSoon.getCertificateInfo());
+    assertThat(cache.getConnectionInfo(TEST_INSTANCE_NAME).getCertificateInfo())
+        .isEqualTo(expiringSoon.getCertificateInfo());
+    assertThat(repo.getCount()).isEqualTo(2);
+
+    refresh.set(refreshed.getCertificateInfo());
+    assertThat(cache.getConnectionInfo(TEST_INSTANCE_NAME).getCertificateInfo())
+        .isEqualTo(refreshed.getCertificateInfo());
+  }
+
+  @Test
+  public void testGetConnectionInfo_concurrentCallersShareOneRefresh() throws Exception {
+    ConnectionInfo info = buildConnectionInfoWithClientCertExpiration(ONE_HOUR_FROM_NOW);
+    SettableFuture<CertificateInfo> refresh = SettableFuture.create();
+    CertificateRepo repo = new CertificateRepo(refresh);
+    LazyConnectionInfoCache cache = new LazyConnectionInfoCache(repo, TEST_CLUSTER_NAME, keyPair);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ConnectionInfo>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> cache.getConnectionInfo(TEST_INSTANCE_NAME)));
+      }
+
+      refresh.set(info.getCertificateInfo());
+
+      for (Future<ConnectionInfo> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS).getCertificateInfo())
+            .isEqualTo(info.getCertificateInfo());
+      }
+      assertThat(repo.getCount()).isEqualTo(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testGetConnectionInfoAsync_completesWhenRefreshCompletes() throws Exception {
+    ConnectionInfo info = buildConnectionInfoWithClientCertExpiration(ONE_HOUR_FROM_NOW);
+    SettableFuture<CertificateInfo> refresh = SettableFuture.create();
+    CertificateRepo repo = new CertificateRepo(refresh);
+    LazyConnectionInfoCache cache = new LazyConnectionInfoCache(repo, TEST_CLUSTER_NAME, keyPair);
+
+    ListenableFuture<ConnectionInfo> first = cache.getConnectionInfoAsync(TEST_INSTANCE_NAME);
+    ListenableFuture<ConnectionInfo> second = cache.getConnectionInfoAsync(TEST_INSTANCE_NAME);
+    assertThat(first.isDone()).isFalse();
+
+    // A caller that gives up does not cancel the refresh shared with the other caller.
+    first.cancel(true);
+    refresh.set(info.getCertificateInfo());
+
+    assertThat(second.get(5, TimeUnit.SECONDS).getCertificateInfo())
+        .isEqualTo(info.getCertificateInfo());
+    assertThat(cache.getConnectionInfoAsync(TEST_INSTANCE_NAME).isDone()).isTrue();
+    assertThat(repo.getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testGetConnectionInfoAsync_failsWhenClosed() {
+    LazyConnectionInfoCache cache =
+        new LazyConnectionInfoCache(new InMemoryConnectionInfoRepo(), TEST_CLUSTER_NAME, keyPair);
+    cache.close();
+
+    ListenableFuture<ConnectionInfo> f = cache.getConnectionInfoAsync(TEST_INSTANCE_NAME);
+
+    ExecutionException ex = assertThrows(ExecutionException.class, f::get);
+    assertThat(ex).hasCauseThat().isInstanceOf(IllegalStateException.class);
+  }
+
   private ConnectionInfo buildConnectionInfoWithClientCertExpiration(Instant notAfter)
       throws CertificateException, OperatorCreationException, CertIOException {
     return new ConnectionInfo(
@@ -120,4 +218,33 @@ public class LazyConnectionInfoCacheTest {
             TestCertificates.INSTANCE.getRootCertificate()),
         TestCertificates.INSTANCE.getRootCertificate());
   }
+
+  /** Serves the given certificate futures in order, and fixed instance metadata. */
+  private static class CertificateRepo implements ConnectionInfoRepository {
+    private final List<ListenableFuture<CertificateInfo>> responses;
+    private final AtomicInteger count = new AtomicInteger();
+
+    @SafeVarargs
+    CertificateRepo(ListenableFuture<CertificateInfo>... responses) {
+      this.responses = Arrays.asList(responses);
+    }
+
+    @Override
+    public ListenableFuture<InstanceMetadata> getInstanceMetadata(InstanceName instanceName) {
+      return Futures.immediateFuture(new InstanceMetadata("10.0.0.1", "", "", "some-instance-id"));
+    }
+
+    @Override
+    public ListenableFuture<CertificateInfo> getCertificateInfo(
+        ClusterName clusterName, KeyPair publicKey) {
+      return responses.get(count.getAndIncrement());
+    }
+
+    @Override
+    public void close() {}
+
+    int getCount() {
+      return count.get();
+    }
+  }
 }
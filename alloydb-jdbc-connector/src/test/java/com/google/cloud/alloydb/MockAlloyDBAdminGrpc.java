@@ -21,9 +21,18 @@ import com.google.cloud.alloydb.v1alpha.ConnectionInfo;
 import com.google.cloud.alloydb.v1alpha.GenerateClientCertificateRequest;
 import com.google.cloud.alloydb.v1alpha.GenerateClientCertificateResponse;
 import com.google.cloud.alloydb.v1alpha.GetConnectionInfoRequest;
+import com.google.rpc.Code;
 import com.google.rpc.Status;
 import io.grpc.protobuf.StatusProto;
 import io.grpc.stub.StreamObserver;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class MockAlloyDBAdminGrpc extends AlloyDBAdminGrpc.AlloyDBAdminImplBase {
 
@@ -31,6 +40,10 @@ class MockAlloyDBAdminGrpc extends AlloyDBAdminGrpc.AlloyDBAdminImplBase {
   private String errorMessage;
   private String ipAddress;
   private IpType ipType;
+  private final AtomicInteger generateClientCertificateCount = new AtomicInteger();
+  private final AtomicInteger getConnectionInfoCount = new AtomicInteger();
+  private volatile long certDurationSeconds;
+  private volatile boolean rejectNonRsaKeys;
 
   MockAlloyDBAdminGrpc(String ipAddress, IpType ipType) {
     this.ipAddress = ipAddress;
@@ -46,16 +59,31 @@ class MockAlloyDBAdminGrpc extends AlloyDBAdminGrpc.AlloyDBAdminImplBase {
   public void generateClientCertificate(
       GenerateClientCertificateRequest request,
       StreamObserver<GenerateClientCertificateResponse> responseObserver) {
+    generateClientCertificateCount.incrementAndGet();
+    certDurationSeconds = request.getCertDuration().getSeconds();
 
+    PublicKey publicKey;
+    try {
+      publicKey = parsePublicKey(request.getPublicKey());
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
     if (errorCode != 0) {
       Status status = Status.newBuilder().setCode(errorCode).setMessage(errorMessage).build();
       responseObserver.onError(StatusProto.toStatusRuntimeException(status));
+    } else if (rejectNonRsaKeys && publicKey != null && !"RSA".equals(publicKey.getAlgorithm())) {
+      Status status =
+          Status.newBuilder()
+              .setCode(Code.INVALID_ARGUMENT.getNumber())
+              .setMessage("unsupported public key")
+              .build();
+      responseObserver.onError(StatusProto.toStatusRuntimeException(status));
     } else {
       try {
         GenerateClientCertificateResponse response =
             GenerateClientCertificateResponse.newBuilder()
                 .setCaCert(TestCertificates.INSTANCE.getRootCertificateStr())
-                .addPemCertificateChain(TestCertificates.INSTANCE.getClientCertificateStr())
+                .addPemCertificateChain(getClientCertificateStr(publicKey))
                 .addPemCertificateChain(TestCertificates.INSTANCE.getIntermediateCertificateStr())
                 .addPemCertificateChain(TestCertificates.INSTANCE.getRootCertificateStr())
                 .build();
@@ -68,9 +96,46 @@ class MockAlloyDBAdminGrpc extends AlloyDBAdminGrpc.AlloyDBAdminImplBase {
     }
   }
 
+  /** Rejects client keys that are not RSA with INVALID_ARGUMENT. */
+  void setRejectNonRsaKeys(boolean rejectNonRsaKeys) {
+    this.rejectNonRsaKeys = rejectNonRsaKeys;
+  }
+
+  /** Returns the requested RSA or EC public key, or null when the request has no public key. */
+  private static PublicKey parsePublicKey(String publicKeyPem) throws Exception {
+    if (publicKeyPem.isEmpty()) {
+      return null;
+    }
+    String base64Key =
+        publicKeyPem
+            .replace("-----BEGIN PUBLIC KEY-----", "")
+            .replace("-----END PUBLIC KEY-----", "")
+            .replaceAll("\\s", "");
+    X509EncodedKeySpec keySpec = new X509EncodedKeySpec(Base64.getDecoder().decode(base64Key));
+    try {
+      return KeyFactory.getInstance("RSA").generatePublic(keySpec);
+    } catch (InvalidKeySpecException e) {
+      return KeyFactory.getInstance("EC").generatePublic(keySpec);
+    }
+  }
+
+  /**
+   * Returns a client certificate for the requested public key, as the AlloyDB Admin API does, or
+   * for the test client key when the request has no public key.
+   */
+  private static String getClientCertificateStr(PublicKey publicKey) throws Exception {
+    if (publicKey == null) {
+      return TestCertificates.INSTANCE.getClientCertificateStr();
+    }
+    return TestCertificates.INSTANCE.getPemForCert(
+        TestCertificates.INSTANCE.getEphemeralCertificate(
+            publicKey, Instant.now().plus(1, ChronoUnit.HOURS)));
+  }
+
   @Override
   public void getConnectionInfo(
       GetConnectionInfoRequest request, StreamObserver<ConnectionInfo> responseObserver) {
+    getConnectionInfoCount.incrementAndGet();
 
     if (errorCode != 0) {
       Status status = Status.newBuilder().setCode(errorCode).setMessage(errorMessage).build();
@@ -97,4 +162,16 @@ class MockAlloyDBAdminGrpc extends AlloyDBAdminGrpc.AlloyDBAdminImplBase {
       responseObserver.onCompleted();
     }
   }
+
+  int getGenerateClientCertificateCount() {
+    return generateClientCertificateCount.get();
+  }
+
+  int getGetConnectionInfoCount() {
+    return getConnectionInfoCount.get();
+  }
+
+  long getCertDurationSeconds() {
+    return certDurationSeconds;
+  }
 }
@@ -20,6 +20,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import com.google.api.gax.rpc.ApiException;
 import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.cloud.alloydb.v1alpha.InstanceName;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -46,6 +47,7 @@ public class RefreshAheadConnectionInfoCacheTest {
   private static final String TEST_INSTANCE_ID = "some-instance-id";
   private static final Instant ONE_HOUR_FROM_NOW = Instant.now().plus(1, ChronoUnit.HOURS);
   private InstanceName instanceName;
+  private ClusterName clusterName;
   private KeyPair keyPair;
   private static final long TEST_TIMEOUT_MS = 1000L;
   ListeningScheduledExecutorService executor;
@@ -55,6 +57,7 @@ public class RefreshAheadConnectionInfoCacheTest {
     instanceName =
         InstanceName.parse(
             "projects/<PROJECT>/locations/<REGION>/clusters/<CLUSTER>/instances/<INSTANCE>");
+    clusterName = ClusterName.of("<PROJECT>", "<REGION>", "<CLUSTER>");
     keyPair = RsaKeyPairGenerator.generateKeyPair();
     ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(4);
     exec.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
@@ -87,11 +90,11 @@ public class RefreshAheadConnectionInfoCacheTest {
         new RefreshAheadConnectionInfoCache(
             MoreExecutors.listeningDecorator(executor),
             connectionInfoRepo,
-            instanceName,
+            clusterName,
             keyPair,
             TEST_TIMEOUT_MS);
 
-    ConnectionInfo connectionInfo = connectionInfoCache.getConnectionInfo();
+    ConnectionInfo connectionInfo = connectionInfoCache.getConnectionInfo(instanceName);
 
     assertThat(connectionInfo.getIpAddress()).isEqualTo(TEST_INSTANCE_IP);
     assertThat(connectionInfo.getPublicIpAddress()).isEqualTo(TEST_INSTANCE_PUBLIC_IP);
@@ -147,7 +150,7 @@ public class RefreshAheadConnectionInfoCacheTest {
         new RefreshAheadConnectionInfoCache(
             MoreExecutors.listeningDecorator(executor),
             connectionInfoRepo,
-            instanceName,
+            clusterName,
             keyPair,
             TEST_TIMEOUT_MS);
 
@@ -157,7 +160,7 @@ public class RefreshAheadConnectionInfoCacheTest {
       throw new RuntimeException(e);
     }
 
-    ConnectionInfo connectionInfo = connectionInfoCache.getConnectionInfo();
+    ConnectionInfo connectionInfo = connectionInfoCache.getConnectionInfo(instanceName);
 
     assertThat(
             connectionInfo
@@ -194,7 +197,7 @@ public class RefreshAheadConnectionInfoCacheTest {
         new RefreshAheadConnectionInfoCache(
             MoreExecutors.listeningDecorator(executor),
             connectionInfoRepo,
-            instanceName,
+            clusterName,
             keyPair,
             TEST_TIMEOUT_MS);
 
@@ -204,7 +207,7 @@ public class RefreshAheadConnectionInfoCacheTest {
       throw new RuntimeException(e);
     }
 
-    ConnectionInfo connectionInfo = connectionInfoCache.getConnectionInfo();
+    ConnectionInfo connectionInfo = connectionInfoCache.getConnectionInfo(instanceName);
 
     assertThat(
             connectionInfo
@@ -214,4 +217,38 @@ public class RefreshAheadConnectionInfoCacheTest {
                 .truncatedTo(ChronoUnit.SECONDS))
         .isEqualTo(ONE_HOUR_FROM_NOW.truncatedTo(ChronoUnit.SECONDS));
   }
+
+  @Test
+  public void testGetConnectionInfo_sharesCertificateAcrossInstances() {
+    InMemoryConnectionInfoRepo connectionInfoRepo = new InMemoryConnectionInfoRepo();
+    connectionInfoRepo.addResponses(
+        () ->
+            new ConnectionInfo(
+                TEST_INSTANCE_IP,
+                TEST_INSTANCE_PUBLIC_IP,
+                TEST_INSTANCE_DNS_NAME,
+                TEST_INSTANCE_ID,
+                TestCertificates.INSTANCE.getEphemeralCertificate(
+                    keyPair.getPublic(), ONE_HOUR_FROM_NOW),
+                Arrays.asList(
+                    TestCertificates.INSTANCE.getIntermediateCertificate(),
+                    TestCertificates.INSTANCE.getRootCertificate()),
+                TestCertificates.INSTANCE.getRootCertificate()));
+    RefreshAheadConnectionInfoCache connectionInfoCache =
+        new RefreshAheadConnectionInfoCache(
+            MoreExecutors.listeningDecorator(executor),
+            connectionInfoRepo,
+            clusterName,
+            keyPair,
+            TEST_TIMEOUT_MS);
+    InstanceName readPoolName =
+        InstanceName.parse(
+            "projects/<PROJECT>/locations/<REGION>/clusters/<CLUSTER>/instances/<READ_POOL>");
+
+    ConnectionInfo primary = connectionInfoCache.getConnectionInfo(instanceName);
+    ConnectionInfo readPool = connectionInfoCache.getConnectionInfo(readPoolName);
+
+    assertThat(readPool.getCertificateInfo()).isSameInstanceAs(primary.getCertificateInfo());
+    assertThat(connectionInfoRepo.getIndex()).isEqualTo(1);
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the steady state read path of the Refresher when many threads connect at once, as when a
+ * connection pool refills. Each operation does what Connector does for every connection: check the
+ * certificate expiration and read the current certificate.
+ *
+ * <p>Run the benchmark with the test classpath, for example from an IDE, by running the main method
+ * of this class.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class RefresherBenchmark {
+
+  private static final long TIMEOUT_MS = 30000;
+
+  private ListeningScheduledExecutorService executor;
+  private Refresher refresher;
+
+  @Setup
+  public void setup() throws Exception {
+    executor = MoreExecutors.listeningDecorator(Executors.newScheduledThreadPool(2));
+    KeyPair clientKeyPair = TestCertificates.INSTANCE.getClientKey();
+    CertificateInfo certificateInfo =
+        new CertificateInfo(
+            TestCertificates.INSTANCE.getEphemeralCertificate(
+                clientKeyPair.getPublic(), Instant.now().plus(1, ChronoUnit.HOURS)),
+            Arrays.asList(
+                TestCertificates.INSTANCE.getIntermediateCertificate(),
+                TestCertificates.INSTANCE.getRootCertificate()),
+            TestCertificates.INSTANCE.getRootCertificate());
+    refresher =
+        new Refresher(
+            "benchmark",
+            executor,
+            () -> Futures.immediateFuture(certificateInfo),
+            new AsyncRateLimiter(0));
+    refresher.getCertificateInfo(TIMEOUT_MS);
+  }
+
+  @TearDown
+  public void tearDown() {
+    refresher.close();
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public CertificateInfo refreshIfExpiredAndGetCertificateInfo() {
+    refresher.refreshIfExpired();
+    return refresher.getCertificateInfo(TIMEOUT_MS);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(RefresherBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -23,12 +23,14 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.Before;
@@ -63,10 +65,98 @@ public class RefresherTest {
             executorService,
             () -> Futures.immediateFuture(data),
             rateLimiter);
-    ConnectionInfo gotInfo = r.getConnectionInfo(TEST_TIMEOUT_MS);
+    CertificateInfo gotInfo = r.getCertificateInfo(TEST_TIMEOUT_MS);
     assertThat(gotInfo).isSameInstanceAs(data);
   }
 
+  @Test
+  public void testRefreshIfExpired_doesNotRefreshValidData() {
+    ExampleData data = new ExampleData(Instant.now().plus(1, ChronoUnit.HOURS));
+    AtomicInteger refreshCount = new AtomicInteger();
+    Refresher r =
+        new Refresher(
+            "RefresherTest.testRefreshIfExpired_doesNotRefreshValidData",
+            executorService,
+            () -> {
+              refreshCount.incrementAndGet();
+              return Futures.immediateFuture(data);
+            },
+            rateLimiter);
+    assertThat(r.getCertificateInfo(TEST_TIMEOUT_MS)).isSameInstanceAs(data);
+
+    for (int i = 0; i < 100; i++) {
+      r.refreshIfExpired();
+      assertThat(r.getCertificateInfo(TEST_TIMEOUT_MS)).isSameInstanceAs(data);
+    }
+
+    assertThat(refreshCount.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testSuspendsRefreshWhileIdle() throws Exception {
+    // The next refresh is due immediately, because the certificate expires within the buffer.
+    ExampleData data = new ExampleData(Instant.now().plus(1, ChronoUnit.MINUTES));
+    AtomicInteger refreshCount = new AtomicInteger();
+    AtomicBoolean idle = new AtomicBoolean(true);
+    Refresher r =
+        new Refresher(
+            "RefresherTest.testSuspendsRefreshWhileIdle",
+            executorService,
+            () -> {
+              refreshCount.incrementAndGet();
+              return Futures.immediateFuture(data);
+            },
+            rateLimiter,
+            idle::get);
+    assertThat(r.getCertificateInfo(TEST_TIMEOUT_MS)).isSameInstanceAs(data);
+
+    PauseCondition cond = new PauseCondition();
+    // The scheduled refresh finds the certificate idle and does not fetch a new one.
+    cond.waitForCondition(r::isSuspended, 2000);
+    assertThat(refreshCount.get()).isEqualTo(1);
+    assertThat(r.getCertificateInfo(TEST_TIMEOUT_MS)).isSameInstanceAs(data);
+
+    // Once in use again, refreshing starts again.
+    idle.set(false);
+    r.resume();
+    assertThat(r.isSuspended()).isFalse();
+    cond.waitForCondition(() -> refreshCount.get() >= 2, 2000);
+  }
+
+  @Test
+  public void testResumeDuringRunningRefreshDoesNotStartAnotherRefresh() throws Exception {
+    ExampleData data = new ExampleData(Instant.now().plus(1, ChronoUnit.MINUTES));
+    ExampleData refreshedData = new ExampleData(Instant.now().plus(1, ChronoUnit.MINUTES));
+    SettableFuture<CertificateInfo> forcedRefresh = SettableFuture.create();
+    AtomicInteger refreshCount = new AtomicInteger();
+    Refresher r =
+        new Refresher(
+            "RefresherTest.testResumeDuringRunningRefreshDoesNotStartAnotherRefresh",
+            executorService,
+            () -> {
+              int c = refreshCount.incrementAndGet();
+              return c == 2 ? forcedRefresh : Futures.immediateFuture(data);
+            },
+            rateLimiter,
+            () -> true);
+    assertThat(r.getCertificateInfo(TEST_TIMEOUT_MS)).isSameInstanceAs(data);
+
+    PauseCondition cond = new PauseCondition();
+    cond.waitForCondition(r::isSuspended, 2000);
+
+    // A forced refresh starts while suspended and is still running when the refresher resumes.
+    r.forceRefresh();
+    cond.waitForCondition(() -> refreshCount.get() == 2, 2000);
+    r.resume();
+    forcedRefresh.set(refreshedData);
+
+    // The forced refresh schedules the next refresh, which suspends again while idle.
+    cond.waitForCondition(
+        () -> r.isSuspended() && r.getCertificateInfo(TEST_TIMEOUT_MS) == refreshedData, 2000);
+    Thread.sleep(100);
+    assertThat(refreshCount.get()).isEqualTo(2);
+  }
+
   @Test
   public void testRateLimiterInUse() {
     ExampleData data = new ExampleData(Instant.now().plus(1, ChronoUnit.HOURS));
@@ -77,7 +167,7 @@ public class RefresherTest {
             executorService,
             () -> Futures.immediateFuture(data),
             rl);
-    ConnectionInfo gotInfo = r.getConnectionInfo(TEST_TIMEOUT_MS);
+    CertificateInfo gotInfo = r.getCertificateInfo(TEST_TIMEOUT_MS);
     assertThat(gotInfo).isSameInstanceAs(data);
     assertThat(rl.counter).isNotEqualTo(0);
   }
@@ -91,7 +181,7 @@ public class RefresherTest {
             () -> Futures.immediateFailedFuture(new RuntimeException("always fails")),
             rateLimiter);
     RuntimeException ex =
-        assertThrows(RuntimeException.class, () -> r.getConnectionInfo(TEST_TIMEOUT_MS));
+        assertThrows(RuntimeException.class, () -> r.getCertificateInfo(TEST_TIMEOUT_MS));
     assertThat(ex).hasMessageThat().contains("always fails");
   }
 
@@ -110,7 +200,7 @@ public class RefresherTest {
             rateLimiter);
     try {
       RuntimeException ex =
-          assertThrows(RuntimeException.class, () -> r.getConnectionInfo(TEST_TIMEOUT_MS));
+          assertThrows(RuntimeException.class, () -> r.getCertificateInfo(TEST_TIMEOUT_MS));
       assertThat(ex).hasMessageThat().contains("No refresh has completed");
     } finally {
       r.close();
@@ -138,7 +228,7 @@ public class RefresherTest {
             },
             rateLimiter);
     try {
-      r.getConnectionInfo(TEST_TIMEOUT_MS);
+      r.getCertificateInfo(TEST_TIMEOUT_MS);
       assertThat(refreshCount.get()).isEqualTo(1);
 
       // Force refresh, which will start, but not finish the refresh process.
@@ -146,7 +236,7 @@ public class RefresherTest {
 
       // Then immediately getSslData() and assert that the refresh count has not changed.
       // Refresh count hasn't changed because we re-use the existing connection info.
-      r.getConnectionInfo(TEST_TIMEOUT_MS);
+      r.getCertificateInfo(TEST_TIMEOUT_MS);
       assertThat(refreshCount.get()).isEqualTo(1);
 
       // Allow the second refresh operation to complete
@@ -155,7 +245,7 @@ public class RefresherTest {
       cond.waitForCondition(() -> refreshCount.get() >= 2, 1000L);
 
       // getSslData again, and assert the refresh operation completed.
-      r.getConnectionInfo(TEST_TIMEOUT_MS);
+      r.getCertificateInfo(TEST_TIMEOUT_MS);
       assertThat(refreshCount.get()).isEqualTo(2);
     } finally {
       r.close();
@@ -184,12 +274,12 @@ public class RefresherTest {
 
     // Get the first data that is about to expire
     long until = System.currentTimeMillis() + 3000;
-    while (r.getConnectionInfo(TEST_TIMEOUT_MS) != data && System.currentTimeMillis() < until) {
+    while (r.getCertificateInfo(TEST_TIMEOUT_MS) != data && System.currentTimeMillis() < until) {
       Thread.sleep(100);
     }
     try {
       assertThat(refreshCount.get()).isEqualTo(2);
-      assertThat(r.getConnectionInfo(TEST_TIMEOUT_MS)).isEqualTo(data);
+      assertThat(r.getCertificateInfo(TEST_TIMEOUT_MS)).isEqualTo(data);
     } finally {
       r.close();
     }
@@ -227,10 +317,10 @@ public class RefresherTest {
             rateLimiter);
 
     // Get the first data that is about to expire
-    ConnectionInfo d = r.getConnectionInfo(TEST_TIMEOUT_MS);
+    CertificateInfo d = r.getCertificateInfo(TEST_TIMEOUT_MS);
     try {
       assertThat(refreshCount.get()).isEqualTo(1);
-      assertThat(d).isSameInstanceAs(r.getConnectionInfo(TEST_TIMEOUT_MS));
+      assertThat(d).isSameInstanceAs(r.getCertificateInfo(TEST_TIMEOUT_MS));
 
       // Wait for the instance to expire
       while (Instant.now().isBefore(initialData.getExpiration())) {
@@ -242,7 +332,7 @@ public class RefresherTest {
       refresh1.waitForPauseToEnd(1000L);
 
       // getSslData again, and assert the refresh operation completed.
-      refresh1.waitForCondition(() -> r.getConnectionInfo(TEST_TIMEOUT_MS) == data, 1000L);
+      refresh1.waitForCondition(() -> r.getCertificateInfo(TEST_TIMEOUT_MS) == data, 1000L);
     } finally {
       r.close();
     }
@@ -288,7 +378,7 @@ public class RefresherTest {
     try {
       // Get the first data that is about to expire
       assertThat(refreshCount.get()).isEqualTo(1);
-      ConnectionInfo d = r.getConnectionInfo(TEST_TIMEOUT_MS);
+      CertificateInfo d = r.getCertificateInfo(TEST_TIMEOUT_MS);
       assertThat(d).isSameInstanceAs(expiresInOneMinute);
 
       // Because the data is about to expire, scheduled refresh will begin immediately.
@@ -307,7 +397,7 @@ public class RefresherTest {
       // has been retrieved.
 
       // getSslData again, and assert the refresh operation completed.
-      refresh1.waitForCondition(() -> r.getConnectionInfo(TEST_TIMEOUT_MS) == data, 1000L);
+      refresh1.waitForCondition(() -> r.getCertificateInfo(TEST_TIMEOUT_MS) == data, 1000L);
       assertThat(refreshCount.get()).isEqualTo(2);
     } finally {
       r.close();
@@ -343,7 +433,7 @@ public class RefresherTest {
             rateLimiter);
 
     // Get the first data that is about to expire
-    ConnectionInfo d = r.getConnectionInfo(TEST_TIMEOUT_MS);
+    CertificateInfo d = r.getCertificateInfo(TEST_TIMEOUT_MS);
     try {
       assertThat(refreshCount.get()).isEqualTo(1);
       assertThat(d).isSameInstanceAs(initialData);
@@ -362,7 +452,7 @@ public class RefresherTest {
 
       // assert the refresh operation completed exactly once after
       // forceRefresh was called multiple times.
-      refresh1.waitForCondition(() -> r.getConnectionInfo(TEST_TIMEOUT_MS) == data, 1000L);
+      refresh1.waitForCondition(() -> r.getCertificateInfo(TEST_TIMEOUT_MS) == data, 1000L);
       assertThat(refreshCount.get()).isEqualTo(2);
     } finally {
       r.close();
@@ -406,7 +496,7 @@ public class RefresherTest {
             rateLimiter);
 
     // Get the first data that is about to expire
-    ConnectionInfo d = r.getConnectionInfo(TEST_TIMEOUT_MS);
+    CertificateInfo d = r.getCertificateInfo(TEST_TIMEOUT_MS);
     try {
       assertThat(refreshCount.get()).isEqualTo(1);
       assertThat(d).isSameInstanceAs(aboutToExpireData);
@@ -435,7 +525,7 @@ public class RefresherTest {
       goodRequest.waitForCondition(() -> refreshCount.get() == 4, 2000);
 
       // Try getSslData() again, and assert the refresh operation eventually completes.
-      goodRequest.waitForCondition(() -> r.getConnectionInfo(TEST_TIMEOUT_MS) == data, 2000);
+      goodRequest.waitForCondition(() -> r.getCertificateInfo(TEST_TIMEOUT_MS) == data, 2000);
     } finally {
       r.close();
     }
@@ -452,7 +542,7 @@ public class RefresherTest {
             rateLimiter);
     r.close();
 
-    assertThrows(IllegalStateException.class, () -> r.getConnectionInfo(TEST_TIMEOUT_MS));
+    assertThrows(IllegalStateException.class, () -> r.getCertificateInfo(TEST_TIMEOUT_MS));
     assertThrows(IllegalStateException.class, r::forceRefresh);
   }
 
@@ -510,8 +600,15 @@ public class RefresherTest {
             () -> {
               int c = refreshCount.get();
               ExampleData refreshResult = data;
-              if (c == 0) { // refresh 0 should return initialData immediately
-                refreshResult = initialData;
+              switch (c) {
+                case 0:
+                  // refresh 0 should return initialData immediately
+                  refreshResult = initialData;
+                  break;
+                case 1:
+                  // refresh 1 should pause
+                  refresh1.pause();
+                  break;
               }
               // refresh 2 and on should return data immediately
               refreshCount.incrementAndGet();
@@ -520,14 +617,17 @@ public class RefresherTest {
             rateLimiter);
 
     // Get the first data that is about to expire
-    refresh1.waitForCondition(() -> r.getConnectionInfo(TEST_TIMEOUT_MS) == initialData, 1000L);
+    refresh1.waitForCondition(() -> r.getCertificateInfo(TEST_TIMEOUT_MS) == initialData, 1000L);
     try {
       assertThat(refreshCount.get()).isEqualTo(1);
 
       r.refreshIfExpired();
 
+      // Allow the second refresh operation to complete
+      refresh1.proceed();
+
       // getConnectionInfo again, and assert the refresh operation completed.
-      refresh1.waitForCondition(() -> r.getConnectionInfo(TEST_TIMEOUT_MS) == data, 1000L);
+      refresh1.waitForCondition(() -> r.getCertificateInfo(TEST_TIMEOUT_MS) == data, 1000L);
       assertThat(refreshCount.get()).isEqualTo(2);
     } finally {
       r.close();
@@ -558,7 +658,7 @@ public class RefresherTest {
 
     try {
       // Raising TerminalException stops the refresher's executor from running the next task.
-      assertThrows(TerminalException.class, () -> r.getConnectionInfo(TEST_TIMEOUT_MS));
+      assertThrows(TerminalException.class, () -> r.getCertificateInfo(TEST_TIMEOUT_MS));
       assertThat(refreshCount.get()).isEqualTo(1);
 
       r.forceRefresh();
@@ -566,7 +666,7 @@ public class RefresherTest {
       refresh.waitForCondition(
           () -> {
             try {
-              return r.getConnectionInfo(TEST_TIMEOUT_MS) == data;
+              return r.getCertificateInfo(TEST_TIMEOUT_MS) == data;
             } catch (TerminalException exception) {
               return false;
             }
@@ -603,7 +703,7 @@ public class RefresherTest {
             rateLimiter);
 
     // getConnectionInfo again, and assert the refresh operation completed.
-    refresh1.waitForCondition(() -> r.getConnectionInfo(TEST_TIMEOUT_MS) == data, 1000L);
+    refresh1.waitForCondition(() -> r.getCertificateInfo(TEST_TIMEOUT_MS) == data, 1000L);
     try {
       assertThat(refreshCount.get()).isEqualTo(2);
     } finally {
@@ -634,19 +734,12 @@ public class RefresherTest {
     }
   }
 
-  private static class ExampleData extends ConnectionInfo {
+  private static class ExampleData extends CertificateInfo {
 
     private final Instant expiration;
 
     ExampleData(Instant expiration) {
-      super(
-          "10.1.1.1",
-          "34.1.1.1",
-          "abcde.12345.us-central1.alloydb.goog",
-          "instance",
-          null,
-          null,
-          null);
+      super(null, null, null);
       this.expiration = expiration;
     }
 
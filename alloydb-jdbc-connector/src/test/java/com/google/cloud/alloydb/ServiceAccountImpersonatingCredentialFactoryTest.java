@@ -19,10 +19,24 @@ package com.google.cloud.alloydb;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
 import com.google.auth.Credentials;
+import com.google.auth.http.HttpTransportFactory;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
 import com.google.auth.oauth2.ImpersonatedCredentials;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Test;
 
 public class ServiceAccountImpersonatingCredentialFactoryTest {
@@ -68,6 +82,70 @@ public class ServiceAccountImpersonatingCredentialFactoryTest {
     assertThat(ic.getSourceCredentials()).isEqualTo(credentials);
   }
 
+  @Test
+  public void testReusesImpersonatedCredentialsAndToken() throws IOException {
+    AtomicInteger mintCounter = new AtomicInteger();
+    // The source returns the same credentials every time. Plain GoogleCredentials that are new
+    // objects count as rotated.
+    GoogleCredentials sourceCredentials = new StubCredentialFactory().getCredentials();
+    CredentialFactory impersonatedFactory =
+        new ServiceAccountImpersonatingCredentialFactory(
+            () -> sourceCredentials,
+            "first@serviceaccount.com",
+            null,
+            new CountingIamTransportFactory(mintCounter));
+
+    for (int i = 0; i < 3; i++) {
+      GoogleCredentials credentials = impersonatedFactory.getCredentials();
+      credentials.refreshIfExpired();
+      assertThat(credentials.getAccessToken().getTokenValue()).isEqualTo("minted-token");
+    }
+
+    assertThat(mintCounter.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testMintsNewTokenWhenSourceCredentialsChange() throws IOException {
+    AtomicInteger mintCounter = new AtomicInteger();
+    AtomicInteger sourceVersion = new AtomicInteger();
+    CredentialFactory source =
+        () ->
+            GoogleCredentials.newBuilder()
+                .setAccessToken(AccessToken.newBuilder().setTokenValue("valid").build())
+                .setQuotaProjectId("project-" + sourceVersion.get())
+                .build();
+    CredentialFactory impersonatedFactory =
+        new ServiceAccountImpersonatingCredentialFactory(
+            source, "first@serviceaccount.com", null, new CountingIamTransportFactory(mintCounter));
+
+    impersonatedFactory.getCredentials().refreshIfExpired();
+    sourceVersion.incrementAndGet();
+    impersonatedFactory.getCredentials().refreshIfExpired();
+
+    assertThat(mintCounter.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testMintsNewTokenWhenSourceTokenRotates() throws IOException {
+    AtomicInteger mintCounter = new AtomicInteger();
+    AtomicReference<GoogleCredentials> sourceCredentials =
+        new AtomicReference<>(GoogleCredentials.create(new AccessToken("first", null)));
+    CredentialFactory impersonatedFactory =
+        new ServiceAccountImpersonatingCredentialFactory(
+            sourceCredentials::get,
+            "first@serviceaccount.com",
+            null,
+            new CountingIamTransportFactory(mintCounter));
+
+    impersonatedFactory.getCredentials().refreshIfExpired();
+    // GoogleCredentials.equals ignores the token, so the rotated credentials are equal to the old
+    // ones, but they are a new object.
+    sourceCredentials.set(GoogleCredentials.create(new AccessToken("second", null)));
+    impersonatedFactory.getCredentials().refreshIfExpired();
+
+    assertThat(mintCounter.get()).isEqualTo(2);
+  }
+
   @Test
   public void testEmptyDelegatesThrowsIllegalArgumentException() {
     StubCredentialFactory factory = new StubCredentialFactory();
@@ -77,4 +155,35 @@ public class ServiceAccountImpersonatingCredentialFactoryTest {
             new ServiceAccountImpersonatingCredentialFactory(
                 factory, null, Collections.emptyList()));
   }
+
+  /** Stubs the IAM Credentials API, counting the number of access tokens minted. */
+  private static class CountingIamTransportFactory implements HttpTransportFactory {
+    private final AtomicInteger mintCounter;
+
+    private CountingIamTransportFactory(AtomicInteger mintCounter) {
+      this.mintCounter = mintCounter;
+    }
+
+    @Override
+    public MockHttpTransport create() {
+      return new MockHttpTransport() {
+        @Override
+        public LowLevelHttpRequest buildRequest(String method, String url) {
+          return new MockLowLevelHttpRequest(url) {
+            @Override
+            public LowLevelHttpResponse execute() {
+              mintCounter.incrementAndGet();
+              String expireTime = Instant.now().plus(1, ChronoUnit.HOURS).toString();
+              return new MockLowLevelHttpResponse()
+                  .setContentType(Json.MEDIA_TYPE)
+                  .setContent(
+                      "{\"accessToken\": \"minted-token\", \"expireTime\": \""
+                          + expireTime
+                          + "\"}");
+            }
+          };
+        }
+      };
+    }
+  }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the connection throughput of SocketFactory.createSocket() against the FakeSslServer when
+ * many threads connect at once. Each operation creates a new SocketFactory, as the Postgres driver
+ * does for every connection, and goes through InternalConnectorRegistry with a stubbed AlloyDB
+ * Admin API.
+ *
+ * <p>Run the benchmark with the test classpath, for example from an IDE, by running the main method
+ * of this class. By default it uses one thread per core. To see how throughput scales with the
+ * number of threads, pass a thread count with the JMH -t option, for example -t 1, -t 2 and -t 4.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(Threads.MAX)
+@Fork(1)
+public class SocketFactoryBenchmark {
+
+  private static final String INSTANCE_NAME =
+      "projects/<PROJECT>/locations/<REGION>/clusters/<CLUSTER>/instances/<INSTANCE>";
+  private static final String PRIVATE_IP = "127.0.0.1";
+
+  private ListeningScheduledExecutorService executor;
+  private FakeSslServer sslServer;
+  private Properties props;
+
+  @Setup
+  public void setup() throws Exception {
+    sslServer = new FakeSslServer("HELLO");
+    sslServer.start(PRIVATE_IP);
+
+    executor = MoreExecutors.listeningDecorator(Executors.newScheduledThreadPool(2));
+    InternalConnectorRegistry.INSTANCE.setCredentialFactoryProvider(
+        new CredentialFactoryProvider(new StubCredentialFactory()));
+    InternalConnectorRegistry.INSTANCE.setConnectionInfoRepositoryFactory(
+        new StubConnectionInfoRepositoryFactory(
+            executor, new MockAlloyDBAdminGrpc(PRIVATE_IP, IpType.PRIVATE)));
+
+    props = new Properties();
+    props.setProperty(ConnectionConfig.ALLOYDB_INSTANCE_NAME, INSTANCE_NAME);
+  }
+
+  @TearDown
+  public void tearDown() {
+    InternalConnectorRegistry.INSTANCE.resetInstance();
+    executor.shutdownNow();
+    sslServer.stop();
+  }
+
+  @Benchmark
+  public void createSocket() throws IOException {
+    Socket socket = new SocketFactory(props).createSocket();
+    socket.close();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(SocketFactoryBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
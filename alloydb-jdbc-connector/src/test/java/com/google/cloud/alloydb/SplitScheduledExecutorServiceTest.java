@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class SplitScheduledExecutorServiceTest {
+
+  private final ExecutorService workers = Executors.newSingleThreadExecutor();
+  private final SplitScheduledExecutorService executor = new SplitScheduledExecutorService(workers);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testSchedule_runsTaskOnWorker() throws Exception {
+    ScheduledFuture<String> f =
+        executor.schedule(() -> Thread.currentThread().getName(), 10, TimeUnit.MILLISECONDS);
+
+    assertThat(f.get(5, TimeUnit.SECONDS)).isNotEqualTo("alloydb-connector-timer");
+  }
+
+  @Test
+  public void testGetQueueDepth_countsTasksWaitingForWorker() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    executor.execute(
+        () -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    started.await(5, TimeUnit.SECONDS);
+
+    ScheduledFuture<?> f1 = executor.schedule(() -> {}, 0, TimeUnit.MILLISECONDS);
+    ScheduledFuture<?> f2 = executor.schedule(() -> {}, 0, TimeUnit.MILLISECONDS);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (executor.getQueueDepth() < 2 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(executor.getQueueDepth()).isEqualTo(2);
+
+    release.countDown();
+    f1.get(5, TimeUnit.SECONDS);
+    f2.get(5, TimeUnit.SECONDS);
+    assertThat(executor.getQueueDepth()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCancel_preventsTaskFromRunning() throws Exception {
+    AtomicBoolean ran = new AtomicBoolean();
+    ScheduledFuture<?> f = executor.schedule(() -> ran.set(true), 1, TimeUnit.HOURS);
+
+    assertThat(f.cancel(false)).isTrue();
+    assertThat(f.isCancelled()).isTrue();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(ran.get()).isFalse();
+  }
+
+  @Test
+  public void testScheduleAtFixedRate_runsRepeatedlyOnWorker() throws Exception {
+    CountDownLatch runs = new CountDownLatch(3);
+    AtomicBoolean onTimer = new AtomicBoolean();
+    ScheduledFuture<?> f =
+        executor.scheduleAtFixedRate(
+            () -> {
+              onTimer.compareAndSet(
+                  false, Thread.currentThread().getName().equals("alloydb-connector-timer"));
+              runs.countDown();
+            },
+            0,
+            10,
+            TimeUnit.MILLISECONDS);
+
+    assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(onTimer.get()).isFalse();
+    assertThat(f.cancel(false)).isTrue();
+  }
+
+  @Test
+  public void testScheduleWithFixedDelay_failureEndsScheduleAndFailsFuture() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+    ScheduledFuture<?> f =
+        executor.scheduleWithFixedDelay(
+            () -> {
+              if (runs.incrementAndGet() == 2) {
+                throw new IllegalStateException("failed");
+              }
+            },
+            0,
+            10,
+            TimeUnit.MILLISECONDS);
+
+    ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+    assertThat(e).hasCauseThat().hasMessageThat().isEqualTo("failed");
+    Thread.sleep(50);
+    assertThat(runs.get()).isEqualTo(2);
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.google.cloud.alloydb;
 
+import com.google.cloud.alloydb.v1alpha.InstanceName;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class StubConnectionInfoCache implements ConnectionInfoCache {
@@ -22,10 +23,11 @@ public class StubConnectionInfoCache implements ConnectionInfoCache {
   private final AtomicBoolean forceRefreshWasCalled = new AtomicBoolean(false);
   private final AtomicBoolean closeWasCalled = new AtomicBoolean(false);
   private final AtomicBoolean refreshIfExpiredWasCalled = new AtomicBoolean(false);
+  private final AtomicBoolean refreshInstanceMetadataWasCalled = new AtomicBoolean(false);
   private ConnectionInfo connectionInfo;
 
   @Override
-  public ConnectionInfo getConnectionInfo() {
+  public ConnectionInfo getConnectionInfo(InstanceName instanceName) {
     return connectionInfo;
   }
 
@@ -34,6 +36,11 @@ public class StubConnectionInfoCache implements ConnectionInfoCache {
     forceRefreshWasCalled.set(true);
   }
 
+  @Override
+  public void refreshInstanceMetadata(InstanceName instanceName) {
+    refreshInstanceMetadataWasCalled.set(true);
+  }
+
   @Override
   public void close() {
     closeWasCalled.set(true);
@@ -48,6 +55,10 @@ public class StubConnectionInfoCache implements ConnectionInfoCache {
     return forceRefreshWasCalled.get();
   }
 
+  public boolean hasRefreshedInstanceMetadata() {
+    return refreshInstanceMetadataWasCalled.get();
+  }
+
   public boolean hasClosed() {
     return closeWasCalled.get();
   }
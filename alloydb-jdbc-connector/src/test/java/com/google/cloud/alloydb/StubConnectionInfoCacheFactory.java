@@ -15,7 +15,7 @@
  */
 package com.google.cloud.alloydb;
 
-import com.google.cloud.alloydb.v1alpha.InstanceName;
+import com.google.cloud.alloydb.v1alpha.ClusterName;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import java.security.KeyPair;
 
@@ -31,7 +31,7 @@ public class StubConnectionInfoCacheFactory implements ConnectionInfoCacheFactor
   public ConnectionInfoCache create(
       ListeningScheduledExecutorService executor,
       ConnectionInfoRepository connectionInfoRepo,
-      InstanceName instanceName,
+      ClusterName clusterName,
       KeyPair clientConnectorKeyPair,
       long minRefreshDelayMs) {
     return stubConnectionInfoCache;
@@ -23,11 +23,13 @@ import java.io.IOException;
 public class StubConnectionInfoRepositoryFactory implements ConnectionInfoRepositoryFactory {
   private ListeningScheduledExecutorService executor;
   private MockAlloyDBAdminGrpc mock;
+  private final KeyPairCache keyPairCache;
 
   StubConnectionInfoRepositoryFactory(
       ListeningScheduledExecutorService executor, MockAlloyDBAdminGrpc mock) {
     this.executor = executor;
     this.mock = mock;
+    this.keyPairCache = new KeyPairCache(executor, new ConnectorMetrics());
   }
 
   @Override
@@ -37,7 +39,12 @@ public class StubConnectionInfoRepositoryFactory implements ConnectionInfoReposi
     try {
       AlloyDBAdminClient alloyDBAdminClient =
           StubAlloyDBAdminClientFactory.create(credentialFactory.create(), mock);
-      return new DefaultConnectionInfoRepository(executor, alloyDBAdminClient);
+      return new DefaultConnectionInfoRepository(
+          executor,
+          alloyDBAdminClient,
+          config.getCertificateDuration(),
+          alloyDBAdminClient::close,
+          () -> keyPairCache.get(config, ClientKeyType.RSA_2048));
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -187,7 +187,7 @@ enum TestCertificates {
   }
 
   /** Returns the PEM encoded certificate. */
-  private String getPemForCert(X509Certificate certificate) throws CertificateEncodingException {
+  public String getPemForCert(X509Certificate certificate) throws CertificateEncodingException {
     StringBuilder sb = new StringBuilder();
     sb.append(PEM_HEADER).append("\n");
     String base64Key =
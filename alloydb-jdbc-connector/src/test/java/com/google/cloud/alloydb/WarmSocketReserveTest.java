@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.alloydb;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WarmSocketReserveTest {
+
+  private static final long MAX_IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private final KeyPair keyPair = RsaKeyPairGenerator.generateKeyPair();
+  private final List<Socket> opened = new ArrayList<>();
+  private CertificateInfo certificate;
+  private CertificateInfo rotatedCertificate;
+
+  @Before
+  public void setUp() throws Exception {
+    certificate = newCertificateInfo(Instant.now().plus(1, ChronoUnit.HOURS));
+    rotatedCertificate = newCertificateInfo(Instant.now().plus(2, ChronoUnit.HOURS));
+  }
+
+  @Test
+  public void take_handsOutWarmSocketAndRefills() {
+    WarmSocketReserve reserve = newReserve(2, certificate);
+
+    assertThat(reserve.take(certificate)).isNull();
+    assertThat(reserve.size()).isEqualTo(2);
+
+    assertThat(reserve.take(certificate)).isSameInstanceAs(opened.get(0));
+    assertThat(reserve.size()).isEqualTo(2);
+    assertThat(opened).hasSize(3);
+  }
+
+  @Test
+  public void take_closesSocketsOpenedWithReplacedCertificate() {
+    WarmSocketReserve reserve = newReserve(2, certificate);
+    reserve.fill();
+
+    assertThat(reserve.take(rotatedCertificate)).isNull();
+
+    assertThat(opened.get(0).isClosed()).isTrue();
+    assertThat(opened.get(1).isClosed()).isTrue();
+  }
+
+  @Test
+  public void closeIdle_closesOldSocketsWithoutRefillingUnusedReserve() {
+    WarmSocketReserve reserve = newReserve(2, certificate);
+    reserve.fill();
+
+    reserve.closeIdle(System.nanoTime() + 2 * MAX_IDLE_NANOS);
+
+    assertThat(reserve.size()).isEqualTo(0);
+    assertThat(opened.get(0).isClosed()).isTrue();
+    assertThat(opened).hasSize(2);
+  }
+
+  @Test
+  public void close_closesSocketsAndStopsRefilling() {
+    WarmSocketReserve reserve = newReserve(2, certificate);
+    reserve.fill();
+
+    reserve.close();
+    reserve.fill();
+
+    assertThat(reserve.size()).isEqualTo(0);
+    assertThat(opened.get(1).isClosed()).isTrue();
+    assertThat(opened).hasSize(2);
+  }
+
+  @Test
+  public void take_stopsRefillingAfterFailedOpen() {
+    AtomicInteger attempts = new AtomicInteger();
+    WarmSocketReserve reserve =
+        new WarmSocketReserve(
+            "test",
+            2,
+            MAX_IDLE_NANOS,
+            () -> {
+              attempts.incrementAndGet();
+              throw new IOException("connect failed");
+            },
+            MoreExecutors.directExecutor());
+
+    assertThat(reserve.take(certificate)).isNull();
+    assertThat(reserve.take(certificate)).isNull();
+    reserve.closeIdle(System.nanoTime());
+
+    assertThat(reserve.size()).isEqualTo(0);
+    assertThat(attempts.get()).isEqualTo(1);
+  }
+
+  private WarmSocketReserve newReserve(int size, CertificateInfo openedWith) {
+    return new WarmSocketReserve(
+        "test",
+        size,
+        MAX_IDLE_NANOS,
+        () -> {
+          Socket socket = new Socket();
+          opened.add(socket);
+          return new WarmSocketReserve.WarmSocket(socket, openedWith);
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  private CertificateInfo newCertificateInfo(Instant notAfter) throws Exception {
+    return new CertificateInfo(
+        TestCertificates.INSTANCE.getEphemeralCertificate(keyPair.getPublic(), notAfter),
+        Arrays.asList(
+            TestCertificates.INSTANCE.getIntermediateCertificate(),
+            TestCertificates.INSTANCE.getRootCertificate()),
+        TestCertificates.INSTANCE.getRootCertificate());
+  }
+}